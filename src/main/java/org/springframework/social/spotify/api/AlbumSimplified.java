@@ -11,6 +11,7 @@ public class AlbumSimplified {
 	private String href;
 	private String id;
 	private Image[] images;
+	private Markets markets;
 	private String name;
 	private String type;
 	private String uri;
@@ -0,0 +1,178 @@
+package org.springframework.social.spotify.api;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of markets, as ISO 3166-1 alpha-2 country codes: one bit for
+ * every code from {@code AA} to {@code ZZ}, 88 bytes of bits whatever the
+ * number of markets. Lookups are a bit test, intersections and unions a few
+ * word operations.
+ * <p>
+ * Filled instead of {@code availableMarkets} by the decoding profiles with
+ * compact markets.
+ */
+public final class Markets {
+
+	private static final int CODES = 26 * 26;
+
+	public static final Markets EMPTY = new Markets(new long[(CODES + 63) / 64]);
+
+	private final long[] words;
+
+	private Markets(long[] words) {
+		this.words = words;
+	}
+
+	public static Markets of(String... markets) {
+		return of(Arrays.asList(markets));
+	}
+
+	public static Markets of(Collection<String> markets) {
+		Builder builder = builder();
+		for (String market : markets) {
+			builder.add(market);
+		}
+		return builder.build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param market
+	 *            country code, in upper case
+	 * @return false for anything but a two-letter code of the set
+	 */
+	public boolean isAvailableIn(String market) {
+		int index = index(market);
+		return index >= 0 && (words[index >>> 6] & 1L << index) != 0;
+	}
+
+	/**
+	 * Whether the two sets have a market in common.
+	 */
+	public boolean intersects(Markets other) {
+		for (int i = 0; i < words.length; i++) {
+			if ((words[i] & other.words[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Markets of both sets.
+	 */
+	public Markets and(Markets other) {
+		long[] result = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			result[i] = words[i] & other.words[i];
+		}
+		return new Markets(result);
+	}
+
+	/**
+	 * Markets of either set.
+	 */
+	public Markets or(Markets other) {
+		long[] result = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			result[i] = words[i] | other.words[i];
+		}
+		return new Markets(result);
+	}
+
+	public int size() {
+		int size = 0;
+		for (long word : words) {
+			size += Long.bitCount(word);
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		for (long word : words) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The country codes, in alphabetical order.
+	 */
+	public String[] toArray() {
+		String[] markets = new String[size()];
+		int i = 0;
+		for (int index = 0; index < CODES; index++) {
+			if ((words[index >>> 6] & 1L << index) != 0) {
+				markets[i++] = new String(new char[] { (char) ('A' + index / 26), (char) ('A' + index % 26) });
+			}
+		}
+		return markets;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || other instanceof Markets && Arrays.equals(words, ((Markets) other).words);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(words);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private static int index(String market) {
+		return market == null || market.length() != 2 ? -1 : index(market.charAt(0), market.charAt(1));
+	}
+
+	private static int index(char first, char second) {
+		if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+			return -1;
+		}
+		return (first - 'A') * 26 + second - 'A';
+	}
+
+	public static class Builder {
+		private final long[] words = new long[EMPTY.words.length];
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a country code; anything but two upper-case letters is
+		 * ignored.
+		 */
+		public Builder add(String market) {
+			int index = index(market);
+			if (index >= 0) {
+				words[index >>> 6] |= 1L << index;
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the country code made of the two letters, without building a
+		 * string for it.
+		 */
+		public Builder add(char first, char second) {
+			int index = index(first, second);
+			if (index >= 0) {
+				words[index >>> 6] |= 1L << index;
+			}
+			return this;
+		}
+
+		public Markets build() {
+			return new Markets(words.clone());
+		}
+	}
+}
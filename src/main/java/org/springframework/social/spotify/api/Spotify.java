@@ -2,14 +2,53 @@ package org.springframework.social.spotify.api;
 
 import org.springframework.social.ApiBinding;
 import org.springframework.social.spotify.api.operations.AlbumsOperations;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncAlbumsOperations;
+import org.springframework.social.spotify.api.operations.AsyncArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncBrowseOperations;
+import org.springframework.social.spotify.api.operations.AsyncFollowOperations;
+import org.springframework.social.spotify.api.operations.AsyncLibraryOperations;
+import org.springframework.social.spotify.api.operations.AsyncPersonalizationOperations;
+import org.springframework.social.spotify.api.operations.AsyncProfilesOperations;
+import org.springframework.social.spotify.api.operations.AsyncTracksOperations;
+import org.springframework.social.spotify.api.operations.BrowseOperations;
+import org.springframework.social.spotify.api.operations.FollowOperations;
+import org.springframework.social.spotify.api.operations.LibraryOperations;
 import org.springframework.social.spotify.api.operations.PersonalizationOperations;
 import org.springframework.social.spotify.api.operations.ProfilesOperations;
+import org.springframework.social.spotify.api.operations.TracksOperations;
 
 public interface Spotify extends ApiBinding {
 
 	ProfilesOperations profilesOperations();
-	
+
 	AlbumsOperations albumOperations();
 
+	ArtistsOperations artistsOperations();
+
+	BrowseOperations browseOperations();
+
+	FollowOperations followOperations();
+
+	LibraryOperations libraryOperations();
+
 	PersonalizationOperations personalizationOperations();
+
+	TracksOperations tracksOperations();
+
+	AsyncProfilesOperations asyncProfilesOperations();
+
+	AsyncAlbumsOperations asyncAlbumOperations();
+
+	AsyncArtistsOperations asyncArtistsOperations();
+
+	AsyncBrowseOperations asyncBrowseOperations();
+
+	AsyncFollowOperations asyncFollowOperations();
+
+	AsyncLibraryOperations asyncLibraryOperations();
+
+	AsyncPersonalizationOperations asyncPersonalizationOperations();
+
+	AsyncTracksOperations asyncTracksOperations();
 }
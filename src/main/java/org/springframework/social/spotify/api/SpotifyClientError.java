@@ -1,6 +1,8 @@
 package org.springframework.social.spotify.api;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 
 public class SpotifyClientError extends RuntimeException {
 
@@ -10,4 +12,10 @@ public class SpotifyClientError extends RuntimeException {
 	private static final long serialVersionUID = -2169745172295858001L;
 	@Getter
 	private String message;
+	/**
+	 * HTTP status of the response this error was decoded from.
+	 */
+	@Getter
+	@Setter(AccessLevel.PACKAGE)
+	private int status;
 }
@@ -3,11 +3,14 @@ package org.springframework.social.spotify.api;
 import java.io.IOException;
 
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
 
 public class SpotifyErrorDecoder implements ErrorDecoder {
 
+	private static final int TOO_MANY_REQUESTS = 429;
+
 	private Decoder decoder;
 	private ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
 
@@ -15,10 +18,24 @@ public class SpotifyErrorDecoder implements ErrorDecoder {
 		this.decoder = decoder;
 	}
 
+	/**
+	 * A {@code 429 Too Many Requests} is retryable, after the delay of its
+	 * {@code Retry-After} header when there is one.
+	 */
 	@Override
 	public Exception decode(String methodKey, Response response) {
+		if (response.status() == TOO_MANY_REQUESTS) {
+			Exception exception = defaultDecoder.decode(methodKey, response);
+			return exception instanceof RetryableException ? exception
+					: new RetryableException(exception.getMessage(), exception, null);
+		}
 		try {
-			return (Exception) decoder.decode(response, SpotifyClientError.class);
+			SpotifyClientError error = (SpotifyClientError) decoder.decode(response, SpotifyClientError.class);
+			if (error == null) {
+				return defaultDecoder.decode(methodKey, response);
+			}
+			error.setStatus(response.status());
+			return error;
 		} catch (IOException e) {
 			return defaultDecoder.decode(methodKey, response);
 		}
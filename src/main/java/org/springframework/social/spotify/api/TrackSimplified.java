@@ -14,6 +14,7 @@ public class TrackSimplified {
 	private String id;
 	private Boolean isPlayable;
 	private TrackLink linkedFrom;
+	private Markets markets;
 	private String name;
 	private String previewUrl;
 	private Integer trackNumber;
@@ -0,0 +1,20 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Loads several keys with one call, such as
+ * {@code AsyncAlbumsOperations.getSeveralAlbums}.
+ *
+ * @see BatchLoader
+ */
+@FunctionalInterface
+public interface BatchFunction<K, V> {
+
+	/**
+	 * @return the values in the order of {@code keys}, with {@code null} for
+	 *         the keys that were not found
+	 */
+	CompletionStage<List<V>> load(List<K> keys);
+}
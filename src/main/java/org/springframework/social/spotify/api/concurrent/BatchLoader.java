@@ -0,0 +1,210 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Merges single-key loads into batches: keys are collected until
+ * {@code maxBatchSize} distinct keys are waiting, or until the window opened by
+ * the first of them elapses, then loaded with one call of a
+ * {@link BatchFunction}. Each caller's future is completed with the value at
+ * the position of its key, {@code null} when the key was not found, or with
+ * the failure of the batch.
+ * <p>
+ * Windows are timed on a single daemon thread, shared with other loaders when
+ * a scheduler is given; close the loader to send the keys still waiting and
+ * to stop its own scheduler.
+ */
+public class BatchLoader<K, V> implements Closeable {
+
+	private final BatchFunction<K, V> function;
+	private final int maxBatchSize;
+	private final long windowNanos;
+	private final ScheduledExecutorService scheduler;
+	private final boolean ownsScheduler;
+
+	private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+	private ScheduledFuture<?> windowTimer;
+
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder deduplicated = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	private BatchLoader(Builder<K, V> builder) {
+		this.function = builder.function;
+		this.maxBatchSize = builder.maxBatchSize;
+		this.windowNanos = builder.windowNanos;
+		this.ownsScheduler = builder.scheduler == null;
+		this.scheduler = ownsScheduler ? newScheduler() : builder.scheduler;
+	}
+
+	public static <K, V> Builder<K, V> builder(BatchFunction<K, V> function) {
+		return new Builder<>(function);
+	}
+
+	/**
+	 * Single daemon thread timing the windows of one or more loaders.
+	 */
+	public static ScheduledExecutorService newScheduler() {
+		return Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "spotify-batch-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public CompletableFuture<V> load(K key) {
+		loads.increment();
+		Map<K, CompletableFuture<V>> full = null;
+		CompletableFuture<V> value;
+		synchronized (this) {
+			value = pending.get(key);
+			if (value != null) {
+				deduplicated.increment();
+				return value.thenApply(v -> v);
+			}
+			value = new CompletableFuture<>();
+			pending.put(key, value);
+			if (pending.size() >= maxBatchSize) {
+				full = takePending();
+			} else if (pending.size() == 1) {
+				windowTimer = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		if (full != null) {
+			dispatch(full);
+		}
+		return value;
+	}
+
+	/**
+	 * Sends the keys waiting for their window right away.
+	 */
+	public void flush() {
+		Map<K, CompletableFuture<V>> batch;
+		synchronized (this) {
+			batch = takePending();
+		}
+		if (!batch.isEmpty()) {
+			dispatch(batch);
+		}
+	}
+
+	/**
+	 * Calls to {@link #load(Object)}.
+	 */
+	public long getLoads() {
+		return loads.sum();
+	}
+
+	/**
+	 * Loads of a key already waiting in the current batch.
+	 */
+	public long getDeduplicated() {
+		return deduplicated.sum();
+	}
+
+	/**
+	 * Calls of the batch function.
+	 */
+	public long getBatches() {
+		return batches.sum();
+	}
+
+	@Override
+	public void close() {
+		flush();
+		if (ownsScheduler) {
+			scheduler.shutdown();
+		}
+	}
+
+	private Map<K, CompletableFuture<V>> takePending() {
+		Map<K, CompletableFuture<V>> batch = pending;
+		pending = new LinkedHashMap<>();
+		if (windowTimer != null) {
+			windowTimer.cancel(false);
+			windowTimer = null;
+		}
+		return batch;
+	}
+
+	private void dispatch(Map<K, CompletableFuture<V>> batch) {
+		batches.increment();
+		List<K> keys = new ArrayList<>(batch.keySet());
+		try {
+			function.load(keys).whenComplete((values, e) -> complete(batch, keys, values, e));
+		} catch (RuntimeException e) {
+			complete(batch, keys, null, e);
+		}
+	}
+
+	private void complete(Map<K, CompletableFuture<V>> batch, List<K> keys, List<V> values, Throwable e) {
+		if (e instanceof CompletionException && e.getCause() != null) {
+			e = e.getCause();
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			CompletableFuture<V> value = batch.get(keys.get(i));
+			if (e != null) {
+				value.completeExceptionally(e);
+			} else {
+				value.complete(values != null && i < values.size() ? values.get(i) : null);
+			}
+		}
+	}
+
+	public static class Builder<K, V> {
+		private final BatchFunction<K, V> function;
+		private int maxBatchSize = 20;
+		private long windowNanos = TimeUnit.MILLISECONDS.toNanos(5);
+		private ScheduledExecutorService scheduler;
+
+		private Builder(BatchFunction<K, V> function) {
+			this.function = function;
+		}
+
+		/**
+		 * Number of distinct keys that sends a batch without waiting for the
+		 * end of its window. Default: 20.
+		 */
+		public Builder<K, V> maxBatchSize(int maxBatchSize) {
+			if (maxBatchSize < 1) {
+				throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+			}
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Longest time a key waits for others to join its batch. Default: 5ms.
+		 */
+		public Builder<K, V> window(long duration, TimeUnit unit) {
+			this.windowNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Scheduler timing the windows, not shut down by
+		 * {@link BatchLoader#close()}. Default: a single daemon thread owned by
+		 * the loader.
+		 */
+		public Builder<K, V> scheduler(ScheduledExecutorService scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		public BatchLoader<K, V> build() {
+			return new BatchLoader<>(this);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.Track;
+
+/**
+ * Variants of the ID-list methods of a {@link Spotify} binding that accept
+ * any number of IDs. The IDs are split into chunks of the largest size each
+ * endpoint accepts, the chunks are sent through the {@code Async*Operations}
+ * with at most {@code parallelism} of them in flight, and the results are
+ * merged in the order of the IDs:
+ *
+ * <pre>
+ * List&lt;Track&gt; tracks = new BulkOperations(spotify).tracks(trackIds).join();
+ * </pre>
+ *
+ * "Contains" checks return a {@link Membership}, one bit per ID.
+ * <p>
+ * As with {@link FanOut}, the first failing chunk fails the whole call; the
+ * chunks already sent are not rolled back.
+ */
+public class BulkOperations {
+
+	/**
+	 * Largest number of IDs accepted by {@code getSeveralAlbums}.
+	 */
+	public static final int MAX_ALBUMS = 20;
+
+	/**
+	 * Largest number of IDs accepted by {@code getTracks},
+	 * {@code getSeveralArtists} and the library and follow methods.
+	 */
+	public static final int MAX_IDS = 50;
+
+	/**
+	 * Largest number of users accepted by {@code isFollowingPlaylist}.
+	 */
+	public static final int MAX_PLAYLIST_FOLLOWERS = 5;
+
+	private final Spotify spotify;
+	private final int parallelism;
+
+	public BulkOperations(Spotify spotify) {
+		this(spotify, 8);
+	}
+
+	/**
+	 * @param parallelism
+	 *            largest number of chunks in flight at once
+	 */
+	public BulkOperations(Spotify spotify, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		this.spotify = spotify;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return the albums in the order of the IDs, with {@code null} for the IDs
+	 *         that were not found
+	 */
+	public CompletableFuture<List<Album>> albums(Collection<String> albumIds) {
+		return map(albumIds, MAX_ALBUMS,
+				ids -> spotify.asyncAlbumOperations().getSeveralAlbums(ids).thenApply(albums -> albums.getAlbums()));
+	}
+
+	/**
+	 * @return the tracks in the order of the IDs, with {@code null} for the IDs
+	 *         that were not found
+	 */
+	public CompletableFuture<List<Track>> tracks(Collection<String> trackIds) {
+		return map(trackIds, MAX_IDS,
+				ids -> spotify.asyncTracksOperations().getTracks(ids).thenApply(tracks -> tracks.getTracks()));
+	}
+
+	/**
+	 * @return the artists in the order of the IDs, with {@code null} for the
+	 *         IDs that were not found
+	 */
+	public CompletableFuture<List<Artist>> artists(Collection<String> artistIds) {
+		return map(artistIds, MAX_IDS, ids -> spotify.asyncArtistsOperations().getSeveralArtists(ids)
+				.thenApply(artists -> artists.getArtists()));
+	}
+
+	public CompletableFuture<Void> saveTracks(Collection<String> trackIds) {
+		return run(trackIds, MAX_IDS, spotify.asyncLibraryOperations()::saveTracks);
+	}
+
+	public CompletableFuture<Void> removeSavedTracks(Collection<String> trackIds) {
+		return run(trackIds, MAX_IDS, spotify.asyncLibraryOperations()::removeSavedTracks);
+	}
+
+	public CompletableFuture<Membership> isSavedTracks(Collection<String> trackIds) {
+		return contains(trackIds, MAX_IDS, spotify.asyncLibraryOperations()::isSavedTracks);
+	}
+
+	public CompletableFuture<Void> saveAlbums(Collection<String> albumIds) {
+		return run(albumIds, MAX_IDS, spotify.asyncLibraryOperations()::saveAlbums);
+	}
+
+	public CompletableFuture<Void> removeSavedAlbums(Collection<String> albumIds) {
+		return run(albumIds, MAX_IDS, spotify.asyncLibraryOperations()::removeSavedAlbums);
+	}
+
+	public CompletableFuture<Membership> isSavedAlbums(Collection<String> albumIds) {
+		return contains(albumIds, MAX_IDS, spotify.asyncLibraryOperations()::isSavedAlbums);
+	}
+
+	public CompletableFuture<Void> followArtists(Collection<String> artistIds) {
+		return run(artistIds, MAX_IDS, spotify.asyncFollowOperations()::followArtist);
+	}
+
+	public CompletableFuture<Void> unfollowArtists(Collection<String> artistIds) {
+		return run(artistIds, MAX_IDS, spotify.asyncFollowOperations()::unfollowArtist);
+	}
+
+	public CompletableFuture<Membership> isFollowingArtists(Collection<String> artistIds) {
+		return contains(artistIds, MAX_IDS, spotify.asyncFollowOperations()::isFollowingArtist);
+	}
+
+	public CompletableFuture<Void> followUsers(Collection<String> userIds) {
+		return run(userIds, MAX_IDS, spotify.asyncFollowOperations()::followUser);
+	}
+
+	public CompletableFuture<Void> unfollowUsers(Collection<String> userIds) {
+		return run(userIds, MAX_IDS, spotify.asyncFollowOperations()::unfollowUser);
+	}
+
+	public CompletableFuture<Membership> isFollowingUsers(Collection<String> userIds) {
+		return contains(userIds, MAX_IDS, spotify.asyncFollowOperations()::isFollowingUser);
+	}
+
+	public CompletableFuture<Membership> isFollowingPlaylist(String ownerId, String playlistId,
+			Collection<String> userIds) {
+		return contains(userIds, MAX_PLAYLIST_FOLLOWERS,
+				ids -> spotify.asyncFollowOperations().isFollowingPlaylist(ownerId, playlistId, ids));
+	}
+
+	/**
+	 * Splits {@code ids} into consecutive chunks of at most {@code size} IDs.
+	 */
+	static List<String[]> chunks(Collection<String> ids, int size) {
+		List<String> list = ids instanceof List ? (List<String>) ids : new ArrayList<>(ids);
+		List<String[]> chunks = new ArrayList<>((list.size() + size - 1) / size);
+		for (int from = 0; from < list.size(); from += size) {
+			List<String> chunk = list.subList(from, Math.min(list.size(), from + size));
+			chunks.add(chunk.toArray(new String[chunk.size()]));
+		}
+		return chunks;
+	}
+
+	private <R> CompletableFuture<List<R>> map(Collection<String> ids, int size,
+			Function<String[], ? extends CompletionStage<R[]>> call) {
+		List<String[]> chunks = chunks(ids, size);
+		return FanOut.mapAsync(chunks, parallelism, call).thenApply(results -> {
+			List<R> merged = new ArrayList<>(ids.size());
+			for (int i = 0; i < results.size(); i++) {
+				R[] values = results.get(i);
+				List<R> chunk = values == null ? Collections.<R> emptyList() : Arrays.asList(values);
+				merged.addAll(chunk);
+				// keeps positions aligned if a response is shorter than its chunk
+				for (int missing = chunk.size(); missing < chunks.get(i).length; missing++) {
+					merged.add(null);
+				}
+			}
+			return merged;
+		});
+	}
+
+	/**
+	 * Packs the answer of each chunk into the bits at its offset as soon as it
+	 * arrives, instead of merging lists of {@link Boolean}.
+	 */
+	private CompletableFuture<Membership> contains(Collection<String> ids, int size,
+			Function<String[], ? extends CompletionStage<Boolean[]>> call) {
+		List<String[]> chunks = chunks(ids, size);
+		List<Integer> offsets = new ArrayList<>(chunks.size());
+		for (int i = 0; i < chunks.size(); i++) {
+			offsets.add(i * size);
+		}
+		BitSet bits = new BitSet(ids.size());
+		return FanOut.mapAsync(offsets, parallelism, offset -> call.apply(chunks.get(offset / size))
+				.thenApply(values -> {
+					synchronized (bits) {
+						for (int i = 0; values != null && i < values.length; i++) {
+							if (Boolean.TRUE.equals(values[i])) {
+								bits.set(offset + i);
+							}
+						}
+					}
+					return null;
+				})).thenApply(results -> {
+					synchronized (bits) {
+						return new Membership(bits, ids.size());
+					}
+				});
+	}
+
+	private CompletableFuture<Void> run(Collection<String> ids, int size,
+			Function<String[], ? extends CompletionStage<Void>> call) {
+		return FanOut.mapAsync(chunks(ids, size), parallelism, call).thenApply(results -> null);
+	}
+}
@@ -0,0 +1,111 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.Track;
+
+/**
+ * Single-ID lookups of albums, tracks and artists, sent as
+ * {@code getSeveralAlbums}, {@code getTracks} and {@code getSeveralArtists}
+ * calls of up to {@value #MAX_ALBUMS}, {@value #MAX_TRACKS} and
+ * {@value #MAX_ARTISTS} IDs through the {@code Async*Operations} of a
+ * {@link Spotify} binding:
+ *
+ * <pre>
+ * CatalogLoader loader = new CatalogLoader(spotify);
+ * CompletableFuture&lt;Album&gt; album = loader.album(albumId);
+ * </pre>
+ *
+ * A future is completed with {@code null} when its ID was not found. Close the
+ * loader to send the IDs still waiting and stop its scheduler thread.
+ */
+public class CatalogLoader implements Closeable {
+
+	/**
+	 * Largest number of IDs accepted by {@code getSeveralAlbums}.
+	 */
+	public static final int MAX_ALBUMS = 20;
+
+	/**
+	 * Largest number of IDs accepted by {@code getTracks}.
+	 */
+	public static final int MAX_TRACKS = 50;
+
+	/**
+	 * Largest number of IDs accepted by {@code getSeveralArtists}.
+	 */
+	public static final int MAX_ARTISTS = 50;
+
+	private final ScheduledExecutorService scheduler = BatchLoader.newScheduler();
+	private final BatchLoader<String, Album> albums;
+	private final BatchLoader<String, Track> tracks;
+	private final BatchLoader<String, Artist> artists;
+
+	public CatalogLoader(Spotify spotify) {
+		this(spotify, 5, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param window
+	 *            longest time an ID waits for others to join its call
+	 */
+	public CatalogLoader(Spotify spotify, long window, TimeUnit unit) {
+		albums = BatchLoader.<String, Album> builder(ids -> spotify.asyncAlbumOperations()
+				.getSeveralAlbums(array(ids)).thenApply(result -> list(result.getAlbums())))
+				.maxBatchSize(MAX_ALBUMS).window(window, unit).scheduler(scheduler).build();
+		tracks = BatchLoader.<String, Track> builder(ids -> spotify.asyncTracksOperations().getTracks(array(ids))
+				.thenApply(result -> list(result.getTracks())))
+				.maxBatchSize(MAX_TRACKS).window(window, unit).scheduler(scheduler).build();
+		artists = BatchLoader.<String, Artist> builder(ids -> spotify.asyncArtistsOperations()
+				.getSeveralArtists(array(ids)).thenApply(result -> list(result.getArtists())))
+				.maxBatchSize(MAX_ARTISTS).window(window, unit).scheduler(scheduler).build();
+	}
+
+	public CompletableFuture<Album> album(String albumId) {
+		return albums.load(albumId);
+	}
+
+	public CompletableFuture<Track> track(String trackId) {
+		return tracks.load(trackId);
+	}
+
+	public CompletableFuture<Artist> artist(String artistId) {
+		return artists.load(artistId);
+	}
+
+	public BatchLoader<String, Album> getAlbums() {
+		return albums;
+	}
+
+	public BatchLoader<String, Track> getTracks() {
+		return tracks;
+	}
+
+	public BatchLoader<String, Artist> getArtists() {
+		return artists;
+	}
+
+	@Override
+	public void close() {
+		albums.close();
+		tracks.close();
+		artists.close();
+		scheduler.shutdown();
+	}
+
+	private static String[] array(List<String> ids) {
+		return ids.toArray(new String[ids.size()]);
+	}
+
+	private static <T> List<T> list(T[] values) {
+		return values == null ? null : Arrays.asList(values);
+	}
+}
@@ -0,0 +1,120 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one call per input with at most {@code parallelism} of them in flight,
+ * for example the top tracks of 500 artists:
+ *
+ * <pre>
+ * FanOut.map(artistIds, 50, VirtualThreads.newExecutor(), id -&gt; artists.getTopTracks(id, "US"))
+ * </pre>
+ *
+ * The result lists follow the order of the inputs. The first failure
+ * completes the returned future exceptionally and stops starting new calls;
+ * calls already in flight are left to finish.
+ */
+public final class FanOut {
+
+	private FanOut() {
+	}
+
+	/**
+	 * Runs the blocking {@code call} on {@code executor} for each input.
+	 */
+	public static <T, R> CompletableFuture<List<R>> map(Collection<? extends T> inputs, int parallelism,
+			Executor executor, Function<? super T, ? extends R> call) {
+		return mapAsync(inputs, parallelism, input -> CompletableFuture.supplyAsync(() -> call.apply(input), executor));
+	}
+
+	/**
+	 * Starts the asynchronous {@code call} for each input, such as a method of
+	 * an {@code Async*Operations} interface.
+	 */
+	public static <T, R> CompletableFuture<List<R>> mapAsync(Collection<? extends T> inputs, int parallelism,
+			Function<? super T, ? extends CompletionStage<? extends R>> call) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		return new Window<T, R>(new ArrayList<>(inputs), parallelism, call).start();
+	}
+
+	private static class Window<T, R> {
+
+		private final List<T> inputs;
+		private final int parallelism;
+		private final Function<? super T, ? extends CompletionStage<? extends R>> call;
+		private final Object[] results;
+		private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicInteger remaining;
+		private final AtomicInteger wip = new AtomicInteger();
+		private int next;
+
+		Window(List<T> inputs, int parallelism, Function<? super T, ? extends CompletionStage<? extends R>> call) {
+			this.inputs = inputs;
+			this.parallelism = parallelism;
+			this.call = call;
+			this.results = new Object[inputs.size()];
+			this.remaining = new AtomicInteger(inputs.size());
+		}
+
+		CompletableFuture<List<R>> start() {
+			if (inputs.isEmpty()) {
+				result.complete(new ArrayList<>());
+			} else {
+				launch();
+			}
+			return result;
+		}
+
+		/**
+		 * Starts calls until the window is full. Calls completing while it
+		 * runs, possibly on this very thread, only mark the work as missed, so
+		 * already completed stages do not grow the stack.
+		 */
+		private void launch() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			do {
+				while (next < inputs.size() && active.get() < parallelism && !result.isDone()) {
+					int index = next++;
+					active.incrementAndGet();
+					CompletionStage<? extends R> stage;
+					try {
+						stage = call.apply(inputs.get(index));
+					} catch (RuntimeException e) {
+						result.completeExceptionally(e);
+						return;
+					}
+					stage.whenComplete((value, e) -> complete(index, value, e));
+				}
+			} while (wip.decrementAndGet() != 0);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void complete(int index, R value, Throwable e) {
+			if (e != null) {
+				result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+				return;
+			}
+			results[index] = value;
+			active.decrementAndGet();
+			if (remaining.decrementAndGet() == 0) {
+				result.complete((List<R>) Arrays.asList(results));
+			} else {
+				launch();
+			}
+		}
+	}
+}
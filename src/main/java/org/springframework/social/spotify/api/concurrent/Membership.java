@@ -0,0 +1,83 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Result of a bulk "contains" check, such as
+ * {@link BulkOperations#isSavedTracks}: one bit per ID, indexed like the IDs
+ * that were checked.
+ */
+public final class Membership {
+
+	private final BitSet bits;
+	private final int size;
+
+	Membership(BitSet bits, int size) {
+		this.bits = bits;
+		this.size = size;
+	}
+
+	/**
+	 * Number of IDs checked.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Whether the ID at {@code index} is saved or followed.
+	 */
+	public boolean get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return bits.get(index);
+	}
+
+	/**
+	 * Number of IDs that are saved or followed.
+	 */
+	public int count() {
+		return bits.cardinality();
+	}
+
+	/**
+	 * The elements of {@code inputs}, indexed like the IDs, whose ID is saved
+	 * or followed.
+	 */
+	public <T> List<T> members(List<T> inputs) {
+		if (inputs.size() != size) {
+			throw new IllegalArgumentException("Expected " + size + " inputs, got " + inputs.size());
+		}
+		List<T> members = new ArrayList<>(count());
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			members.add(inputs.get(i));
+		}
+		return members;
+	}
+
+	/**
+	 * A copy of the bits.
+	 */
+	public BitSet toBitSet() {
+		return (BitSet) bits.clone();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Membership && size == ((Membership) other).size
+				&& bits.equals(((Membership) other).bits);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * size + bits.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "Membership(size=" + size + ", members=" + bits + ")";
+	}
+}
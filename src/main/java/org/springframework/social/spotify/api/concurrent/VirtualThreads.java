@@ -0,0 +1,94 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+
+import feign.Client;
+
+/**
+ * Opt-in virtual-thread execution for the blocking operations interfaces.
+ * <p>
+ * The library is compiled for Java 8, so virtual threads are looked up at
+ * runtime: on a JDK 21 or later {@link #newExecutor()} starts one virtual
+ * thread per task, and blocking Feign calls park their thread instead of
+ * holding a platform thread. Tens of thousands of calls can then be in flight
+ * with a handful of carrier threads; the limit becomes the connection pool of
+ * the {@link Client}, so size it accordingly.
+ * <p>
+ * To run the {@code Async*Operations} that way:
+ *
+ * <pre>
+ * Client client = PooledHttpClient.builder().maxConnectionsPerRoute(1000).build();
+ * SpotifyClientFactory factory = new SpotifyClientFactory(client, VirtualThreads.asyncClient(client));
+ * </pre>
+ *
+ * and bound fan-outs of synchronous calls with {@link FanOut}.
+ */
+public final class VirtualThreads {
+
+	private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookup();
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Whether the running JDK supports virtual threads.
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Returns an executor starting a new virtual thread for each task.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the running JDK has no virtual threads
+	 */
+	public static ExecutorService newExecutor() {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException(
+					"Virtual threads require Java 21 or later, running " + System.getProperty("java.version"));
+		}
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns {@link #newExecutor()} when virtual threads are supported, and
+	 * {@code fallback} otherwise.
+	 */
+	public static ExecutorService newExecutorOrElse(Supplier<? extends ExecutorService> fallback) {
+		return isSupported() ? newExecutor() : fallback.get();
+	}
+
+	/**
+	 * Async transport running each call of {@code client} on its own virtual
+	 * thread.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the running JDK has no virtual threads
+	 */
+	public static AsyncClient asyncClient(Client client) {
+		return new AsyncClient.Default(client, newExecutor());
+	}
+
+	private static MethodHandle lookup() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.SpotifyClientError;
+
+import feign.FeignException;
+import feign.RetryableException;
+
+/**
+ * Writes a stream of IDs to the library or the follows of one user, for
+ * example when importing a library from another service:
+ *
+ * <pre>
+ * try (WritePipeline pipeline = WritePipeline.builder(spotify).listener(progress::update).build()) {
+ * 	WriteProgress result = pipeline.saveTracks(trackIds).join();
+ * }
+ * </pre>
+ *
+ * IDs are read from the stream only as chunks can be sent, packed into
+ * requests of the largest size the endpoint accepts and sent through the
+ * {@code Async*Operations} of the binding with at most {@code parallelism}
+ * requests in flight, under the rate limit of its factory. These writes are
+ * idempotent, so a chunk failing with a transient error (a
+ * {@link RetryableException}, an I/O error, a {@code 429} or a {@code 5xx})
+ * is sent again as a whole, after a delay that doubles with each attempt. The
+ * IDs of a chunk that fails with any other error, or still fails after
+ * {@code maxAttempts}, are reported in the final {@link WriteProgress} instead
+ * of failing the run.
+ */
+public class WritePipeline implements Closeable {
+
+	private final Spotify spotify;
+	private final int parallelism;
+	private final int maxAttempts;
+	private final long retryDelayMillis;
+	private final Consumer<? super WriteProgress> listener;
+	private final ScheduledExecutorService scheduler = BatchLoader.newScheduler();
+
+	private WritePipeline(Builder builder) {
+		this.spotify = builder.spotify;
+		this.parallelism = builder.parallelism;
+		this.maxAttempts = builder.maxAttempts;
+		this.retryDelayMillis = builder.retryDelayMillis;
+		this.listener = builder.listener;
+	}
+
+	public static Builder builder(Spotify spotify) {
+		return new Builder(spotify);
+	}
+
+	public CompletableFuture<WriteProgress> saveTracks(Stream<String> trackIds) {
+		return write(trackIds, BulkOperations.MAX_IDS, spotify.asyncLibraryOperations()::saveTracks);
+	}
+
+	public CompletableFuture<WriteProgress> saveAlbums(Stream<String> albumIds) {
+		return write(albumIds, BulkOperations.MAX_IDS, spotify.asyncLibraryOperations()::saveAlbums);
+	}
+
+	public CompletableFuture<WriteProgress> followArtists(Stream<String> artistIds) {
+		return write(artistIds, BulkOperations.MAX_IDS, spotify.asyncFollowOperations()::followArtist);
+	}
+
+	public CompletableFuture<WriteProgress> followUsers(Stream<String> userIds) {
+		return write(userIds, BulkOperations.MAX_IDS, spotify.asyncFollowOperations()::followUser);
+	}
+
+	/**
+	 * Writes {@code ids} in chunks of {@code chunkSize} with an idempotent
+	 * {@code call}. The stream is closed when the run is over.
+	 */
+	public CompletableFuture<WriteProgress> write(Stream<String> ids, int chunkSize,
+			Function<String[], ? extends CompletionStage<Void>> call) {
+		Run run = new Run(ids, chunkSize, call);
+		run.result.whenComplete((progress, e) -> ids.close());
+		run.launch();
+		return run.result;
+	}
+
+	/**
+	 * Stops the thread timing the retries; chunks failing after this are not
+	 * retried.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+	}
+
+	private class Run {
+
+		private final Iterator<String> ids;
+		private final int chunkSize;
+		private final Function<String[], ? extends CompletionStage<Void>> call;
+		private final CompletableFuture<WriteProgress> result = new CompletableFuture<>();
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicInteger wip = new AtomicInteger();
+		private final AtomicLong submitted = new AtomicLong();
+		private final AtomicLong written = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong retries = new AtomicLong();
+		private final List<String> failedIds = Collections.synchronizedList(new ArrayList<>());
+		private boolean exhausted;
+
+		Run(Stream<String> ids, int chunkSize, Function<String[], ? extends CompletionStage<Void>> call) {
+			this.ids = ids.iterator();
+			this.chunkSize = chunkSize;
+			this.call = call;
+		}
+
+		/**
+		 * Sends chunks until the window is full or the stream is exhausted, on
+		 * one thread at a time, as in {@link FanOut}.
+		 */
+		void launch() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			do {
+				try {
+					while (!exhausted && active.get() < parallelism) {
+						String[] chunk = nextChunk();
+						if (chunk == null) {
+							break;
+						}
+						active.incrementAndGet();
+						submitted.addAndGet(chunk.length);
+						send(chunk, 1);
+					}
+				} catch (RuntimeException e) {
+					exhausted = true;
+					result.completeExceptionally(e);
+				}
+				if (exhausted && active.get() == 0 && !result.isDone()) {
+					result.complete(progress(true));
+				}
+			} while (wip.decrementAndGet() != 0);
+		}
+
+		private String[] nextChunk() {
+			List<String> chunk = new ArrayList<>(chunkSize);
+			while (chunk.size() < chunkSize && ids.hasNext()) {
+				chunk.add(ids.next());
+			}
+			if (!ids.hasNext()) {
+				exhausted = true;
+			}
+			return chunk.isEmpty() ? null : chunk.toArray(new String[chunk.size()]);
+		}
+
+		private void send(String[] chunk, int attempt) {
+			CompletionStage<Void> stage;
+			try {
+				stage = call.apply(chunk);
+			} catch (RuntimeException e) {
+				sent(chunk, attempt, e);
+				return;
+			}
+			stage.whenComplete((ignored, e) -> sent(chunk, attempt, e));
+		}
+
+		private void sent(String[] chunk, int attempt, Throwable e) {
+			if (e != null && attempt < maxAttempts && isTransient(e)) {
+				long delay = retryDelayMillis << (attempt - 1);
+				try {
+					scheduler.schedule(() -> send(chunk, attempt + 1), delay, TimeUnit.MILLISECONDS);
+					retries.incrementAndGet();
+					return;
+				} catch (RejectedExecutionException closed) {
+					// the pipeline was closed: the chunk fails below
+				}
+			}
+			if (e == null) {
+				written.addAndGet(chunk.length);
+			} else {
+				failed.addAndGet(chunk.length);
+				failedIds.addAll(Arrays.asList(chunk));
+			}
+			active.decrementAndGet();
+			try {
+				if (listener != null) {
+					listener.accept(progress(false));
+				}
+			} finally {
+				launch();
+			}
+		}
+
+		private WriteProgress progress(boolean done) {
+			List<String> failures = null;
+			if (done) {
+				synchronized (failedIds) {
+					failures = new ArrayList<>(failedIds);
+				}
+			}
+			return new WriteProgress(submitted.get(), written.get(), failed.get(), retries.get(), done, failures);
+		}
+	}
+
+	/**
+	 * Whether a write failing with {@code e} may succeed if sent again.
+	 */
+	static boolean isTransient(Throwable e) {
+		while (e instanceof CompletionException && e.getCause() != null) {
+			e = e.getCause();
+		}
+		if (e instanceof RetryableException || e instanceof IOException) {
+			return true;
+		}
+		int status;
+		if (e instanceof FeignException) {
+			status = ((FeignException) e).status();
+		} else if (e instanceof SpotifyClientError) {
+			status = ((SpotifyClientError) e).getStatus();
+		} else {
+			return false;
+		}
+		return status == 429 || status >= 500;
+	}
+
+	public static class Builder {
+		private final Spotify spotify;
+		private int parallelism = 4;
+		private int maxAttempts = 3;
+		private long retryDelayMillis = 500;
+		private Consumer<? super WriteProgress> listener;
+
+		private Builder(Spotify spotify) {
+			this.spotify = spotify;
+		}
+
+		/**
+		 * Largest number of requests in flight at once. Default: 4.
+		 */
+		public Builder parallelism(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Attempts per chunk, on top of the retries of {@code 429} responses
+		 * done by the client itself. Default: 3.
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Delay before the second attempt of a chunk, doubled for each
+		 * further attempt. Default: 500ms.
+		 */
+		public Builder retryDelay(long duration, TimeUnit unit) {
+			this.retryDelayMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Called with the progress of a run after each chunk, on the thread
+		 * that completed it.
+		 */
+		public Builder listener(Consumer<? super WriteProgress> listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		public WritePipeline build() {
+			return new WritePipeline(this);
+		}
+	}
+}
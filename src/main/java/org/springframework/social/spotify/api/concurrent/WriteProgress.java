@@ -0,0 +1,44 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Snapshot of a {@link WritePipeline} run, passed to its listener after every
+ * chunk and returned when the run is over.
+ */
+@Data
+public class WriteProgress {
+
+	/**
+	 * IDs in the chunks sent so far, written or not.
+	 */
+	private final long submitted;
+
+	/**
+	 * IDs whose chunk was written.
+	 */
+	private final long written;
+
+	/**
+	 * IDs whose chunk still failed after the last attempt.
+	 */
+	private final long failed;
+
+	/**
+	 * Chunks sent again after a failure.
+	 */
+	private final long retries;
+
+	/**
+	 * Whether every ID was sent and every chunk is over.
+	 */
+	private final boolean done;
+
+	/**
+	 * IDs whose chunk failed, in no particular order. Only set when
+	 * {@link #isDone()}.
+	 */
+	private final List<String> failedIds;
+}
@@ -0,0 +1,38 @@
+package org.springframework.social.spotify.api.impl;
+
+/**
+ * Holds the access token of the call currently running on this thread, so the
+ * Feign clients shared by a {@link SpotifyClientFactory} can be used by every
+ * token without being rebuilt.
+ */
+final class AccessTokenContext {
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private AccessTokenContext() {
+	}
+
+	static String current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Binds the token to the current thread.
+	 *
+	 * @return the previously bound token, to be handed back to
+	 *         {@link #restore(String)}
+	 */
+	static String bind(String accessToken) {
+		String previous = CURRENT.get();
+		CURRENT.set(accessToken);
+		return previous;
+	}
+
+	static void restore(String previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
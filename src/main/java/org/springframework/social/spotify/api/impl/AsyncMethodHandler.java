@@ -0,0 +1,269 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Param.Expander;
+import feign.Request;
+import feign.Request.Options;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.RetryableException;
+import feign.Target;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+
+/**
+ * Feign-style handler for a method returning {@link CompletableFuture}. The
+ * request is built on the calling thread, exactly as Feign builds it for the
+ * synchronous interfaces, then handed to an {@link AsyncClient}; the response
+ * is decoded when it arrives, on {@code executor} rather than on the thread of
+ * the transport, so that decoding a large page does not hold up the other
+ * exchanges of an I/O reactor.
+ */
+class AsyncMethodHandler implements MethodHandler {
+
+	/**
+	 * Methods sent again after an I/O error, which may have happened after
+	 * Spotify processed the request.
+	 */
+	private static final Set<String> IDEMPOTENT = new HashSet<>(Arrays.asList("GET", "HEAD"));
+
+	private final MethodMetadata metadata;
+	private final Target<?> target;
+	private final AsyncClient client;
+	private final Options options;
+	private final List<RequestInterceptor> interceptors;
+	private final Encoder encoder;
+	private final Decoder decoder;
+	private final ErrorDecoder errorDecoder;
+	private final int maxAttempts;
+	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+	private final long retryPeriodMillis;
+	private final long maxRetryPeriodMillis;
+	private final Map<Integer, Expander> expanders = new HashMap<>();
+	private final Type resultType;
+
+	AsyncMethodHandler(MethodMetadata metadata, Target<?> target, AsyncClient client, Options options,
+			List<RequestInterceptor> interceptors, Encoder encoder, Decoder decoder, ErrorDecoder errorDecoder,
+			int maxAttempts, long retryPeriodMillis, long maxRetryPeriodMillis, Executor executor,
+			ScheduledExecutorService scheduler) {
+		this.metadata = metadata;
+		this.target = target;
+		this.client = client;
+		this.options = options;
+		this.interceptors = interceptors;
+		this.encoder = encoder;
+		this.decoder = decoder;
+		this.errorDecoder = errorDecoder;
+		this.maxAttempts = maxAttempts;
+		this.retryPeriodMillis = retryPeriodMillis;
+		this.maxRetryPeriodMillis = maxRetryPeriodMillis;
+		this.executor = executor;
+		this.scheduler = scheduler;
+
+		for (Map.Entry<Integer, Class<? extends Expander>> expander : metadata.indexToExpanderClass().entrySet()) {
+			try {
+				expanders.put(expander.getKey(), expander.getValue().newInstance());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		Type returnType = metadata.returnType();
+		if (!(returnType instanceof ParameterizedType)
+				|| ((ParameterizedType) returnType).getRawType() != CompletableFuture.class) {
+			throw new IllegalStateException(metadata.configKey() + " must return CompletableFuture");
+		}
+		resultType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+	}
+
+	@Override
+	public CompletableFuture<Object> invoke(Object[] argv) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		Request request;
+		try {
+			request = request(argv);
+		} catch (RuntimeException e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+		attempt(request, 1, result);
+		return result;
+	}
+
+	/**
+	 * Sends the request again on a {@link RetryableException} of the error
+	 * decoder, or after an I/O error for {@code GET} and {@code HEAD}, up to
+	 * {@code maxAttempts} times. Retries are delayed as by Feign's
+	 * {@code Retryer.Default} on the synchronous path. Cancelling
+	 * {@code result} cancels the exchange in flight and stops the retries.
+	 */
+	private void attempt(Request request, int attempt, CompletableFuture<Object> result) {
+		CompletableFuture<Response> exchange = client.execute(request, options);
+		AsyncClient.propagateCancellation(result, exchange);
+		exchange.whenCompleteAsync((response, e) -> {
+			if (result.isDone()) {
+				// cancelled by the caller
+				if (response != null) {
+					Util.ensureClosed(response.body());
+				}
+				return;
+			}
+			try {
+				if (e instanceof CompletionException && e.getCause() != null) {
+					e = e.getCause();
+				}
+				if (e != null) {
+					RuntimeException failure = e instanceof IOException
+							? new RetryableException(e.getMessage(), e, null) : propagate(e);
+					if (failure instanceof RetryableException && IDEMPOTENT.contains(request.method())) {
+						retry(request, attempt, result, (RetryableException) failure);
+					} else {
+						result.completeExceptionally(failure);
+					}
+					return;
+				}
+				result.complete(decode(response));
+			} catch (RetryableException retryable) {
+				retry(request, attempt, result, retryable);
+			} catch (Throwable failure) {
+				result.completeExceptionally(failure);
+			}
+		}, executor);
+	}
+
+	private void retry(Request request, int attempt, CompletableFuture<Object> result, RetryableException e) {
+		if (attempt >= maxAttempts) {
+			result.completeExceptionally(e);
+			return;
+		}
+		try {
+			scheduler.schedule(() -> {
+				if (!result.isDone()) {
+					attempt(request, attempt + 1, result);
+				}
+			}, delayMillis(attempt, e), TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException closed) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Delay before the attempt following {@code attempt}, as computed by
+	 * {@code Retryer.Default}: until the {@code Retry-After} of {@code e}, or
+	 * growing by half with each attempt, at most {@code maxRetryPeriodMillis}.
+	 */
+	long delayMillis(int attempt, RetryableException e) {
+		long delay;
+		if (e.retryAfter() != null) {
+			delay = Math.max(0, e.retryAfter().getTime() - System.currentTimeMillis());
+		} else {
+			delay = (long) (retryPeriodMillis * Math.pow(1.5, attempt - 1));
+		}
+		return Math.min(delay, maxRetryPeriodMillis);
+	}
+
+	Request request(Object[] argv) {
+		RequestTemplate template = new RequestTemplate(metadata.template());
+		if (metadata.urlIndex() != null) {
+			template.insert(0, String.valueOf(argv[metadata.urlIndex()]));
+		}
+
+		Map<String, Object> variables = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Collection<String>> entry : metadata.indexToName().entrySet()) {
+			Object value = argv[entry.getKey()];
+			if (value != null) {
+				Expander expander = expanders.get(entry.getKey());
+				if (expander != null) {
+					value = expand(expander, value);
+				}
+				for (String name : entry.getValue()) {
+					variables.put(name, value);
+				}
+			}
+		}
+
+		if (metadata.bodyIndex() != null) {
+			encoder.encode(argv[metadata.bodyIndex()], metadata.bodyType(), template);
+		} else if (!metadata.formParams().isEmpty() && metadata.template().bodyTemplate() == null) {
+			Map<String, Object> form = new LinkedHashMap<>();
+			for (String name : metadata.formParams()) {
+				if (variables.containsKey(name)) {
+					form.put(name, variables.get(name));
+				}
+			}
+			encoder.encode(form, Util.MAP_STRING_WILDCARD, template);
+		}
+		template = template.resolve(variables);
+
+		for (RequestInterceptor interceptor : interceptors) {
+			interceptor.apply(template);
+		}
+		return target.apply(new RequestTemplate(template));
+	}
+
+	private Object decode(Response response) {
+		try {
+			if (response.status() >= 200 && response.status() < 300) {
+				if (resultType == Void.class) {
+					return null;
+				}
+				return decoder.decode(response, resultType);
+			}
+			throw propagate(errorDecoder.decode(metadata.configKey(), response));
+		} catch (IOException e) {
+			throw new DecodeException(e.getMessage(), e);
+		} finally {
+			Util.ensureClosed(response.body());
+		}
+	}
+
+	private static Object expand(Expander expander, Object value) {
+		if (value instanceof Iterable) {
+			List<String> values = new ArrayList<>();
+			for (Object element : (Iterable<?>) value) {
+				if (element != null) {
+					values.add(expander.expand(element));
+				}
+			}
+			return values;
+		}
+		return expander.expand(value);
+	}
+
+	private static RuntimeException propagate(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new CompletionException(e);
+	}
+}
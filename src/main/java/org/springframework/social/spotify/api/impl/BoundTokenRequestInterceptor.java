@@ -0,0 +1,20 @@
+package org.springframework.social.spotify.api.impl;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Adds the access token bound to the calling thread by
+ * {@link TokenBoundInvocationHandler}.
+ */
+class BoundTokenRequestInterceptor implements RequestInterceptor {
+
+	@Override
+	public void apply(RequestTemplate template) {
+		String token = AccessTokenContext.current();
+		if (token != null) {
+			template.header("Authorization", "Bearer " + token);
+		}
+	}
+
+}
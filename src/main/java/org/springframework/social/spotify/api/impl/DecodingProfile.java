@@ -0,0 +1,311 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.social.spotify.api.AlbumSimplified;
+import org.springframework.social.spotify.api.ArtistSimplified;
+import org.springframework.social.spotify.api.ExternalUrl;
+import org.springframework.social.spotify.api.Image;
+import org.springframework.social.spotify.api.Markets;
+import org.springframework.social.spotify.api.TrackSimplified;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Decides which model properties a {@link SpotifyTemplate} decodes. Skipped
+ * properties are left {@code null}: the parser steps over their values
+ * without building strings or objects for them. A profile can also send
+ * {@code market=from_token} to the endpoints that take a market, when the
+ * call does not give one, so that Spotify relinks the tracks to the market of
+ * the user and leaves {@code available_markets} out of the response. When the
+ * markets are needed, a profile with compact markets decodes them into the
+ * {@link Markets} bitset of tracks and albums, instead of an array of strings.
+ * Profiles can also deduplicate the nested entities repeated in responses
+ * through an {@link IdentityMap}.
+ * <p>
+ * Templates decode everything by default; use
+ * {@link SpotifyTemplate#withDecodingProfile(DecodingProfile)} for a template,
+ * or for a single call:
+ *
+ * <pre>
+ * spotify.withDecodingProfile(DecodingProfile.LEAN).albumOperations().getAlbum(id);
+ * </pre>
+ *
+ * Profiles are told apart by name within a {@link SpotifyClientFactory}.
+ */
+public final class DecodingProfile {
+
+	/**
+	 * Decodes every property, and leaves the market to the caller.
+	 */
+	public static final DecodingProfile FULL = builder("full").build();
+
+	/**
+	 * Skips {@code availableMarkets}, {@code images}, {@code externalUrls} and
+	 * {@code copyrights}, and sends {@code market=from_token}. The token must
+	 * then belong to a user: with a client credentials token, Spotify rejects
+	 * the calls that take a market unless they give one. Build a profile
+	 * without {@link Builder#marketFromToken(boolean)} for such tokens.
+	 */
+	public static final DecodingProfile LEAN = builder("lean")
+			.skip("availableMarkets", "images", "externalUrls", "copyrights").marketFromToken(true).build();
+
+	/**
+	 * Identity of the deduplicated types, within their type.
+	 */
+	private static final Map<Class<?>, Function<Object, Object>> IDENTITIES = new HashMap<>();
+	private static final Set<String> INTERNED = new HashSet<>(Arrays.asList("type", "uri", "href"));
+
+	static {
+		IDENTITIES.put(ArtistSimplified.class,
+				artist -> entity(ArtistSimplified.class, ((ArtistSimplified) artist).getId()));
+		IDENTITIES.put(AlbumSimplified.class, album -> entity(AlbumSimplified.class, ((AlbumSimplified) album).getId()));
+		IDENTITIES.put(Image.class, image -> image);
+		IDENTITIES.put(ExternalUrl.class, url -> url);
+	}
+
+	private final String name;
+	private final Set<String> skipped;
+	private final boolean marketFromToken;
+	private final boolean compactMarkets;
+	private final boolean deduplicate;
+	private final IdentityMap identityMap;
+
+	private DecodingProfile(Builder builder) {
+		this.name = builder.name;
+		this.skipped = Collections.unmodifiableSet(new LinkedHashSet<>(builder.skipped));
+		this.marketFromToken = builder.marketFromToken;
+		this.compactMarkets = builder.compactMarkets;
+		this.deduplicate = builder.deduplicate;
+		this.identityMap = builder.identityMap;
+	}
+
+	/**
+	 * @param name
+	 *            identifies the profile in the caches of the factory
+	 */
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Java names of the skipped properties, such as {@code availableMarkets}.
+	 */
+	public Set<String> getSkipped() {
+		return skipped;
+	}
+
+	public boolean isMarketFromToken() {
+		return marketFromToken;
+	}
+
+	public boolean isCompactMarkets() {
+		return compactMarkets;
+	}
+
+	public boolean isDeduplicate() {
+		return deduplicate;
+	}
+
+	/**
+	 * Identity map shared by the responses of the profile, {@code null} when
+	 * each response has its own.
+	 */
+	public IdentityMap getIdentityMap() {
+		return identityMap;
+	}
+
+	/**
+	 * Module removing the skipped properties from every bean deserializer, and
+	 * ignoring them instead. When deduplicating, it also reads the repeated
+	 * types and strings through the identity map.
+	 */
+	Module module() {
+		SimpleModule module = new SimpleModule("DecodingProfile-" + name);
+		if (compactMarkets) {
+			module.addDeserializer(Markets.class, new MarketsDeserializer());
+			module.setMixInAnnotation(TrackSimplified.class, CompactMarkets.class);
+			module.setMixInAnnotation(AlbumSimplified.class, CompactMarkets.class);
+		}
+		module.setDeserializerModifier(new BeanDeserializerModifier() {
+			@Override
+			public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+					BeanDeserializerBuilder builder) {
+				for (BeanPropertyDefinition property : beanDesc.findProperties()) {
+					if (skipped.contains(property.getInternalName())) {
+						builder.removeProperty(new PropertyName(property.getName()));
+						builder.addIgnorable(property.getName());
+					}
+				}
+				if (deduplicate) {
+					internStrings(builder);
+				}
+				return builder;
+			}
+
+			@Override
+			public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+					JsonDeserializer<?> deserializer) {
+				Function<Object, Object> identity = deduplicate ? IDENTITIES.get(beanDesc.getBeanClass()) : null;
+				return identity == null ? deserializer
+						: new DeduplicatingDeserializer(deserializer, identity, identityMap);
+			}
+		});
+		return module;
+	}
+
+	/**
+	 * Reads the {@code type}, {@code uri} and {@code href} strings through the
+	 * identity map.
+	 */
+	private void internStrings(BeanDeserializerBuilder builder) {
+		List<SettableBeanProperty> interned = new ArrayList<>();
+		for (Iterator<SettableBeanProperty> properties = builder.getProperties(); properties.hasNext();) {
+			SettableBeanProperty property = properties.next();
+			if (INTERNED.contains(property.getName()) && property.getType().getRawClass() == String.class) {
+				interned.add(property.withValueDeserializer(
+						new DeduplicatingDeserializer(StringDeserializer.instance, value -> value, identityMap)));
+			}
+		}
+		for (SettableBeanProperty property : interned) {
+			builder.addOrReplaceProperty(property, true);
+		}
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof DecodingProfile)) {
+			return false;
+		}
+		DecodingProfile profile = (DecodingProfile) other;
+		return name.equals(profile.name) && skipped.equals(profile.skipped)
+				&& marketFromToken == profile.marketFromToken && compactMarkets == profile.compactMarkets
+				&& deduplicate == profile.deduplicate && identityMap == profile.identityMap;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * name.hashCode() + skipped.hashCode()) + (marketFromToken ? 4 : 0) + (compactMarkets ? 2 : 0)
+				+ (deduplicate ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "DecodingProfile(" + name + ", skipped=" + skipped + ", marketFromToken=" + marketFromToken
+				+ ", compactMarkets=" + compactMarkets + ", deduplicate=" + deduplicate + ")";
+	}
+
+	private static Object entity(Class<?> type, String id) {
+		return id == null ? null : new AbstractMap.SimpleImmutableEntry<>(type, id);
+	}
+
+	/**
+	 * Reads {@code available_markets} into {@code markets}.
+	 */
+	abstract static class CompactMarkets {
+		@JsonIgnore
+		String[] availableMarkets;
+		@JsonProperty("available_markets")
+		Markets markets;
+	}
+
+	public static class Builder {
+		private final String name;
+		private final Set<String> skipped = new LinkedHashSet<>();
+		private boolean marketFromToken;
+		private boolean compactMarkets;
+		private boolean deduplicate;
+		private IdentityMap identityMap;
+
+		private Builder(String name) {
+			if (name == null || name.isEmpty()) {
+				throw new IllegalArgumentException("name is required");
+			}
+			this.name = name;
+		}
+
+		/**
+		 * Properties left {@code null}, by Java name. They are skipped on
+		 * every model that has them.
+		 */
+		public Builder skip(String... properties) {
+			skipped.addAll(Arrays.asList(properties));
+			return this;
+		}
+
+		/**
+		 * Whether to send {@code market=from_token} to the endpoints that
+		 * take a market, when the call gives none. Only valid with user
+		 * tokens, not client credentials ones. Default: false.
+		 */
+		public Builder marketFromToken(boolean marketFromToken) {
+			this.marketFromToken = marketFromToken;
+			return this;
+		}
+
+		/**
+		 * Whether to decode the markets of tracks and albums into
+		 * {@code markets} rather than {@code availableMarkets}. Default:
+		 * false.
+		 */
+		public Builder compactMarkets(boolean compactMarkets) {
+			this.compactMarkets = compactMarkets;
+			return this;
+		}
+
+		/**
+		 * Whether to resolve repeated artists, albums, images and external
+		 * URLs of a response, and its {@code type}, {@code uri} and
+		 * {@code href} strings, to a single instance each. Default: false.
+		 */
+		public Builder deduplicate(boolean deduplicate) {
+			this.deduplicate = deduplicate;
+			this.identityMap = null;
+			return this;
+		}
+
+		/**
+		 * Deduplicates over every response of the profile, through
+		 * {@code identityMap}.
+		 */
+		public Builder deduplicate(IdentityMap identityMap) {
+			this.deduplicate = true;
+			this.identityMap = identityMap;
+			return this;
+		}
+
+		public DecodingProfile build() {
+			return new DecodingProfile(this);
+		}
+	}
+}
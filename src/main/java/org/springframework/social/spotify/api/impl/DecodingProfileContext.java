@@ -0,0 +1,41 @@
+package org.springframework.social.spotify.api.impl;
+
+/**
+ * Holds the {@link DecodingProfile} of the call currently running on this
+ * thread, next to its access token in {@link AccessTokenContext}.
+ */
+final class DecodingProfileContext {
+
+	private static final ThreadLocal<DecodingProfile> CURRENT = new ThreadLocal<>();
+
+	private DecodingProfileContext() {
+	}
+
+	/**
+	 * The bound profile, {@link DecodingProfile#FULL} when there is none.
+	 */
+	static DecodingProfile current() {
+		DecodingProfile profile = CURRENT.get();
+		return profile == null ? DecodingProfile.FULL : profile;
+	}
+
+	/**
+	 * Binds the profile to the current thread.
+	 *
+	 * @return the previously bound profile, to be handed back to
+	 *         {@link #restore(DecodingProfile)}
+	 */
+	static DecodingProfile bind(DecodingProfile profile) {
+		DecodingProfile previous = CURRENT.get();
+		CURRENT.set(profile);
+		return previous;
+	}
+
+	static void restore(DecodingProfile previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.util.Set;
+
+import org.springframework.social.spotify.api.impl.http.ETagCache;
+import org.springframework.social.spotify.api.impl.http.Endpoints;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Applies the {@link DecodingProfile} bound to the calling thread by
+ * {@link TokenBoundInvocationHandler}: names it in the
+ * {@link ETagCache#VARIANT} header, read back by
+ * {@link ProfiledJacksonDecoder}, and adds {@code market=from_token} to the
+ * endpoints that take a market when the call gave none.
+ */
+class DecodingProfileRequestInterceptor implements RequestInterceptor {
+
+	private static final String MARKET = "market";
+	private static final String FROM_TOKEN = "from_token";
+
+	private final Set<String> marketEndpoints;
+
+	/**
+	 * @param marketEndpoints
+	 *            endpoints taking a {@code market} query parameter, as given
+	 *            by {@link Endpoints#of(String, String)}
+	 */
+	DecodingProfileRequestInterceptor(Set<String> marketEndpoints) {
+		this.marketEndpoints = marketEndpoints;
+	}
+
+	@Override
+	public void apply(RequestTemplate template) {
+		DecodingProfile profile = DecodingProfileContext.current();
+		if (profile.equals(DecodingProfile.FULL)) {
+			return;
+		}
+		template.header(ETagCache.VARIANT, profile.getName());
+		if (profile.isMarketFromToken() && !template.queries().containsKey(MARKET)
+				&& marketEndpoints.contains(Endpoints.of(template.method(), template.url()))) {
+			template.query(MARKET, FROM_TOKEN);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+
+/**
+ * Replaces each decoded value with its canonical instance in the
+ * {@link IdentityMap} of the response, or in a shared one.
+ */
+class DeduplicatingDeserializer extends DelegatingDeserializer {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Function<Object, Object> key;
+	private final IdentityMap shared;
+
+	/**
+	 * @param key
+	 *            identity of a value, {@code null} to keep the value as it is
+	 */
+	DeduplicatingDeserializer(JsonDeserializer<?> delegate, Function<Object, Object> key, IdentityMap shared) {
+		super(delegate);
+		this.key = key;
+		this.shared = shared;
+	}
+
+	@Override
+	protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> delegate) {
+		return new DeduplicatingDeserializer(delegate, key, shared);
+	}
+
+	@Override
+	public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		Object value = super.deserialize(parser, context);
+		Object identity = value == null ? null : key.apply(value);
+		return identity == null ? value : IdentityMap.of(context, shared).canonical(identity, value);
+	}
+}
@@ -0,0 +1,573 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Albums;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Artists;
+import org.springframework.social.spotify.api.Track;
+import org.springframework.social.spotify.api.Tracks;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.paging.StreamingPageDecoder;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+
+/**
+ * Cache of decoded tracks, albums and artists by Spotify ID and market, in
+ * front of {@code getTrack}/{@code getTracks}, {@code getAlbum}/
+ * {@code getSeveralAlbums} and {@code getArtist}/{@code getSeveralArtists},
+ * synchronous and asynchronous. Cached entities are returned without a
+ * request; a call for several IDs only sends the missing ones, in a single
+ * call, and assembles the result in the order asked for. The single and bulk
+ * methods of a type share their entries.
+ * <p>
+ * Entries are shared by every access token, except with
+ * {@code market=from_token}, and kept apart per {@link DecodingProfile}, as
+ * in {@link SingleFlight}. The cache keeps its own copy of each entity and
+ * hands every caller another one, so that callers may modify what they get;
+ * {@link Builder#shareInstances(boolean)} saves the copies for callers that
+ * treat entities as read-only.
+ * <p>
+ * The cache is bounded by an estimate of the heap its entries retain. When
+ * it is full, a new entity only replaces the least recently used ones if it
+ * was asked for more often lately, according to a {@link FrequencySketch} of
+ * every lookup: entities seen once do not push out popular ones. Entries
+ * expire after {@link Builder#timeToLive(long, TimeUnit)}.
+ * <p>
+ * Keys are spread by hash over up to 16 segments, each with its own lock,
+ * access order, sketch and share of the budget, so that threads looking up
+ * different entities rarely wait for each other. Budgets under 16MB use
+ * fewer segments, of at least 1MB each.
+ * <p>
+ * Enable it with {@link SpotifyClientFactory.Builder#entityCache(EntityCache)}.
+ */
+public class EntityCache {
+
+	/**
+	 * Estimated heap of an entry besides its entity: key, map entry and
+	 * access order links.
+	 */
+	private static final int ENTRY_OVERHEAD = 128;
+	private static final int AVERAGE_ENTITY_BYTES = 2048;
+	private static final int MAX_SEGMENTS = 16;
+	private static final long MIN_SEGMENT_BYTES = 1024 * 1024;
+
+	private static final Map<String, Kind> SINGLE = new HashMap<>();
+	private static final Map<String, Kind> BULK = new HashMap<>();
+
+	static {
+		Kind tracks = new Kind(Track.class, Tracks.class, response -> ((Tracks) response).getTracks(), items -> {
+			Tracks response = new Tracks();
+			response.setTracks((Track[]) items);
+			return response;
+		});
+		Kind albums = new Kind(Album.class, Albums.class, response -> ((Albums) response).getAlbums(), items -> {
+			Albums response = new Albums();
+			response.setAlbums((Album[]) items);
+			return response;
+		});
+		Kind artists = new Kind(Artist.class, Artists.class, response -> ((Artists) response).getArtists(),
+				items -> {
+					Artists response = new Artists();
+					response.setArtists((Artist[]) items);
+					return response;
+				});
+		SINGLE.put("getTrack", tracks);
+		SINGLE.put("getAlbum", albums);
+		SINGLE.put("getArtist", artists);
+		BULK.put("getTracks", tracks);
+		BULK.put("getSeveralAlbums", albums);
+		BULK.put("getSeveralAlbumsMarket", albums);
+		BULK.put("getSeveralArtists", artists);
+	}
+
+	private final long timeToLive;
+	private final boolean shareInstances;
+	private final Segment[] segments;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+
+	private EntityCache(Builder builder) {
+		this.timeToLive = builder.timeToLive;
+		this.shareInstances = builder.shareInstances;
+		int count = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_SEGMENTS,
+				builder.memoryBytes / MIN_SEGMENT_BYTES)));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(builder.memoryBytes / count);
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Entities found in the cache.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Entities asked for and not found in the cache, fetched by their call.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Share of the entities asked for found in the cache, 0 before the first
+	 * lookup.
+	 */
+	public double getHitRatio() {
+		long hitCount = getHits();
+		long lookups = hitCount + getMisses();
+		return lookups == 0 ? 0 : (double) hitCount / lookups;
+	}
+
+	/**
+	 * Entries removed to make room for more frequently asked entities.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Fetched entities not admitted, being asked for less often than the
+	 * entries they would have replaced, or larger than the whole budget.
+	 */
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	/**
+	 * Estimated heap retained by the entries.
+	 */
+	public long getMemoryBytes() {
+		long bytes = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				bytes += segment.bytes;
+			}
+		}
+		return bytes;
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.entries.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes every entry and forgets how often entities were asked for.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.entries.clear();
+				segment.bytes = 0;
+				segment.sketch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Serves {@code method} from the cache if it is one of the cached
+	 * operations, or returns {@code handler}.
+	 */
+	MethodHandler cache(Method method, MethodHandler handler) {
+		boolean async = method.getReturnType() == CompletableFuture.class;
+		Type returnType = async ? ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0]
+				: method.getReturnType();
+		Kind single = SINGLE.get(method.getName());
+		if (single != null && single.entityType == returnType) {
+			return argv -> cacheable(argv, 0) ? result(async, getOne(single, handler, argv)) : handler.invoke(argv);
+		}
+		Kind bulk = BULK.get(method.getName());
+		if (bulk != null && bulk.responseType == returnType) {
+			return argv -> cacheable(argv, argv.length - 1) ? result(async, getSeveral(bulk, handler, argv))
+					: handler.invoke(argv);
+		}
+		return handler;
+	}
+
+	/**
+	 * Whether the IDs, at {@code index}, are given, and the items are not
+	 * streamed to the consumer of a caller.
+	 */
+	private static boolean cacheable(Object[] argv, int index) {
+		if (StreamingPageDecoder.isStreaming() || argv[index] == null) {
+			return false;
+		}
+		if (argv[index] instanceof String[]) {
+			for (String id : (String[]) argv[index]) {
+				if (id == null) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static Object result(boolean async, Object result) {
+		return async && !(result instanceof CompletableFuture) ? CompletableFuture.completedFuture(result) : result;
+	}
+
+	/**
+	 * {@code (id)} or {@code (id, market)}.
+	 *
+	 * @return the cached entity, or the result of {@code handler}
+	 */
+	private Object getOne(Kind kind, MethodHandler handler, Object[] argv) throws Throwable {
+		Key key = new Key(kind.entityType, (String) argv[0], argv.length > 1 ? (String) argv[1] : null,
+				SingleFlight.scope(argv));
+		Object cached = get(key);
+		if (cached != null) {
+			return cached;
+		}
+		Object result = handler.invoke(argv);
+		if (result instanceof CompletableFuture) {
+			CompletableFuture<?> call = (CompletableFuture<?>) result;
+			return AsyncClient.propagateCancellation(call.thenApply(entity -> {
+				put(key, entity);
+				return entity;
+			}), call);
+		}
+		put(key, result);
+		return result;
+	}
+
+	/**
+	 * {@code (ids...)} or {@code (market, ids...)}.
+	 *
+	 * @return the response, or the future of the response, made of the cached
+	 *         entities and those returned by {@code handler} for the others
+	 */
+	private Object getSeveral(Kind kind, MethodHandler handler, Object[] argv) throws Throwable {
+		String[] ids = (String[]) argv[argv.length - 1];
+		String market = argv.length > 1 ? (String) argv[0] : null;
+		String scope = SingleFlight.scope(argv);
+		Key[] keys = new Key[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			keys[i] = new Key(kind.entityType, ids[i], market, scope);
+		}
+		Object[] items = (Object[]) Array.newInstance(kind.entityType, ids.length);
+		get(keys, items);
+		Set<String> missing = new LinkedHashSet<>();
+		for (int i = 0; i < ids.length; i++) {
+			if (items[i] == null) {
+				missing.add(ids[i]);
+			}
+		}
+		if (missing.isEmpty()) {
+			return kind.wrap.apply(items);
+		}
+
+		String[] requested = missing.toArray(new String[missing.size()]);
+		Object[] missingArgv = argv.clone();
+		missingArgv[argv.length - 1] = requested;
+		Object result = handler.invoke(missingArgv);
+		if (result instanceof CompletableFuture) {
+			CompletableFuture<?> call = (CompletableFuture<?>) result;
+			return AsyncClient.propagateCancellation(
+					call.thenApply(response -> merge(kind, ids, items, requested, response, market, scope)), call);
+		}
+		return merge(kind, ids, items, requested, result, market, scope);
+	}
+
+	/**
+	 * Caches the entities of {@code response} and fills the gaps of
+	 * {@code items} with them. Entities are matched to their IDs by position,
+	 * since a relinked track comes back under another ID.
+	 */
+	private Object merge(Kind kind, String[] ids, Object[] items, String[] requested, Object response, String market,
+			String scope) {
+		Object[] fetched = response == null ? null : kind.items.apply(response);
+		if (fetched == null) {
+			return response;
+		}
+		Map<String, Object> byId = new HashMap<>();
+		for (int i = 0; i < requested.length && i < fetched.length; i++) {
+			if (fetched[i] != null) {
+				byId.put(requested[i], fetched[i]);
+				put(new Key(kind.entityType, requested[i], market, scope), fetched[i]);
+			}
+		}
+		for (int i = 0; i < ids.length; i++) {
+			if (items[i] == null) {
+				items[i] = byId.get(ids[i]);
+			}
+		}
+		return kind.wrap.apply(items);
+	}
+
+	private Object get(Key key) {
+		Segment segment = segment(key);
+		Object value;
+		synchronized (segment) {
+			value = segment.get(key, System.nanoTime());
+		}
+		(value == null ? misses : hits).increment();
+		return copy(value);
+	}
+
+	/**
+	 * Looks up {@code keys} into {@code values}, locking each of their
+	 * segments once.
+	 */
+	private void get(Key[] keys, Object[] values) {
+		Segment[] locks = new Segment[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			locks[i] = segment(keys[i]);
+		}
+		long now = System.nanoTime();
+		for (int i = 0; i < keys.length; i++) {
+			Segment segment = locks[i];
+			if (segment == null) {
+				continue;
+			}
+			synchronized (segment) {
+				for (int j = i; j < keys.length; j++) {
+					if (locks[j] == segment) {
+						values[j] = segment.get(keys[j], now);
+						locks[j] = null;
+					}
+				}
+			}
+		}
+		for (int i = 0; i < values.length; i++) {
+			(values[i] == null ? misses : hits).increment();
+			values[i] = copy(values[i]);
+		}
+	}
+
+	private void put(Key key, Object value) {
+		if (value == null) {
+			return;
+		}
+		value = copy(value);
+		long weight = ENTRY_OVERHEAD + 2L * key.id.length() + EntityWeigher.weigh(value);
+		long now = System.nanoTime();
+		Segment segment = segment(key);
+		boolean admitted;
+		synchronized (segment) {
+			admitted = segment.put(key, new Entry(value, weight, now + timeToLive), now);
+		}
+		if (!admitted) {
+			rejections.increment();
+		}
+	}
+
+	private Object copy(Object value) {
+		return shareInstances ? value : EntityCopier.copy(value);
+	}
+
+	private Segment segment(Key key) {
+		int h = key.hash;
+		return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+	}
+
+	/**
+	 * Share of the entries, guarded by its own monitor.
+	 */
+	private final class Segment {
+
+		private final long budget;
+		private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+		private final FrequencySketch sketch;
+		private long bytes;
+
+		Segment(long budget) {
+			this.budget = budget;
+			this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, budget / AVERAGE_ENTITY_BYTES));
+		}
+
+		Object get(Key key, long now) {
+			sketch.increment(key);
+			Entry entry = entries.get(key);
+			if (entry != null && entry.expiresAt - now > 0) {
+				return entry.value;
+			}
+			if (entry != null) {
+				remove(key);
+			}
+			return null;
+		}
+
+		boolean put(Key key, Entry entry, long now) {
+			remove(key);
+			if (!admit(key, entry.weight, now)) {
+				return false;
+			}
+			entries.put(key, entry);
+			bytes += entry.weight;
+			return true;
+		}
+
+		/**
+		 * Evicts the least recently used entries to make room for
+		 * {@code key}, unless one of them is more frequent and still fresh.
+		 */
+		private boolean admit(Key key, long weight, long now) {
+			if (weight > budget) {
+				return false;
+			}
+			long freed = 0;
+			int victims = 0;
+			int frequency = sketch.frequency(key);
+			Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+			while (bytes - freed + weight > budget && eldest.hasNext()) {
+				Map.Entry<Key, Entry> victim = eldest.next();
+				if (victim.getValue().expiresAt - now > 0 && sketch.frequency(victim.getKey()) >= frequency) {
+					return false;
+				}
+				freed += victim.getValue().weight;
+				victims++;
+			}
+			eldest = entries.entrySet().iterator();
+			for (int i = 0; i < victims; i++) {
+				eldest.next();
+				eldest.remove();
+				evictions.increment();
+			}
+			bytes -= freed;
+			return true;
+		}
+
+		private void remove(Key key) {
+			Entry removed = entries.remove(key);
+			if (removed != null) {
+				bytes -= removed.weight;
+			}
+		}
+	}
+
+	/**
+	 * Cached type with its single and bulk responses.
+	 */
+	private static final class Kind {
+
+		private final Class<?> entityType;
+		private final Class<?> responseType;
+		private final Function<Object, Object[]> items;
+		private final Function<Object[], Object> wrap;
+
+		Kind(Class<?> entityType, Class<?> responseType, Function<Object, Object[]> items,
+				Function<Object[], Object> wrap) {
+			this.entityType = entityType;
+			this.responseType = responseType;
+			this.items = items;
+			this.wrap = wrap;
+		}
+	}
+
+	private static final class Entry {
+
+		private final Object value;
+		private final long weight;
+		private final long expiresAt;
+
+		Entry(Object value, long weight, long expiresAt) {
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static final class Key {
+
+		private final Class<?> type;
+		private final String id;
+		private final String market;
+		private final String scope;
+		private final int hash;
+
+		Key(Class<?> type, String id, String market, String scope) {
+			this.type = type;
+			this.id = id;
+			this.market = market;
+			this.scope = scope;
+			this.hash = 31 * (31 * (31 * type.hashCode() + id.hashCode()) + (market == null ? 0 : market.hashCode()))
+					+ (scope == null ? 0 : scope.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return hash == key.hash && type == key.type && id.equals(key.id)
+					&& (market == null ? key.market == null : market.equals(key.market))
+					&& (scope == null ? key.scope == null : scope.equals(key.scope));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	public static class Builder {
+		private long memoryBytes = 16 * 1024 * 1024;
+		private long timeToLive = TimeUnit.HOURS.toNanos(1);
+		private boolean shareInstances;
+
+		private Builder() {
+		}
+
+		/**
+		 * Budget of the cache, estimated from the fields of the entities.
+		 * Default: 16MB.
+		 */
+		public Builder memoryBytes(long memoryBytes) {
+			this.memoryBytes = memoryBytes;
+			return this;
+		}
+
+		/**
+		 * How long an entity is served after it was fetched. Default: one
+		 * hour.
+		 */
+		public Builder timeToLive(long duration, TimeUnit unit) {
+			this.timeToLive = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Whether every caller gets the cached instances themselves instead of
+		 * copies, which must then never be modified. Default: false.
+		 */
+		public Builder shareInstances(boolean shareInstances) {
+			this.shareInstances = shareInstances;
+			return this;
+		}
+
+		public EntityCache build() {
+			return new EntityCache(this);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.social.spotify.api.Markets;
+
+/**
+ * Deep copies of decoded models, for the {@link EntityCache} to hand each
+ * caller its own: arrays, collections, maps and the fields of the models are
+ * copied, walked reflectively like {@link EntityWeigher} does; strings, boxed
+ * values, enums and {@link Markets} are immutable and shared.
+ */
+final class EntityCopier {
+
+	private static final String MODEL_PACKAGE = "org.springframework.social.spotify.api";
+
+	private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+		@Override
+		protected Constructor<?> computeValue(Class<?> type) {
+			if (!Modifier.isPublic(type.getModifiers())) {
+				// such as the empty and unmodifiable collections
+				return null;
+			}
+			try {
+				Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				return constructor;
+			} catch (NoSuchMethodException e) {
+				return null;
+			}
+		}
+	};
+
+	private EntityCopier() {
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T copy(T value) {
+		if (value == null || value instanceof Enum || value instanceof String || value instanceof Number
+				|| value instanceof Boolean || value instanceof Character || value instanceof Markets) {
+			return value;
+		}
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(type.getComponentType(), length);
+			if (type.getComponentType().isPrimitive()) {
+				System.arraycopy(value, 0, copy, 0, length);
+			} else {
+				for (int i = 0; i < length; i++) {
+					Array.set(copy, i, copy(Array.get(value, i)));
+				}
+			}
+			return (T) copy;
+		}
+		if (value instanceof Map) {
+			Map<Object, Object> copy = (Map<Object, Object>) newInstance(type);
+			if (copy == null) {
+				copy = new LinkedHashMap<>();
+			}
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				copy.put(entry.getKey(), copy(entry.getValue()));
+			}
+			return (T) copy;
+		}
+		if (value instanceof Collection) {
+			Collection<Object> copy = (Collection<Object>) newInstance(type);
+			if (copy == null) {
+				copy = value instanceof Set ? new LinkedHashSet<>() : new ArrayList<>();
+			}
+			for (Object element : (Collection<?>) value) {
+				copy.add(copy(element));
+			}
+			return (T) copy;
+		}
+		if (!type.getName().startsWith(MODEL_PACKAGE)) {
+			return value;
+		}
+		Object copy = newInstance(type);
+		if (copy == null) {
+			return value;
+		}
+		try {
+			for (Field field : EntityWeigher.FIELDS.get(type)) {
+				field.set(copy, copy(field.get(value)));
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+		return (T) copy;
+	}
+
+	/**
+	 * @return a new instance of {@code type}, or {@code null} when it is not
+	 *         public or has no constructor without arguments
+	 */
+	private static Object newInstance(Class<?> type) {
+		Constructor<?> constructor = CONSTRUCTORS.get(type);
+		if (constructor == null) {
+			return null;
+		}
+		try {
+			return constructor.newInstance();
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the heap retained by a decoded model, for the budget of the
+ * {@link EntityCache}: object headers and references, strings by length,
+ * arrays, collections and maps, and the fields of the models, walked
+ * reflectively. Objects referenced twice are counted twice, so the estimate
+ * errs on the high side for deduplicated responses.
+ */
+final class EntityWeigher {
+
+	private static final int HEADER = 16;
+	private static final int REFERENCE = 8;
+	private static final String MODEL_PACKAGE = "org.springframework.social.spotify.api";
+
+	static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+		@Override
+		protected Field[] computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			return fields.toArray(new Field[fields.size()]);
+		}
+	};
+
+	private EntityWeigher() {
+	}
+
+	static long weigh(Object value) {
+		if (value == null || value instanceof Enum) {
+			return 0;
+		}
+		if (value instanceof String) {
+			return HEADER + 24 + 2L * ((String) value).length();
+		}
+		if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+			return HEADER;
+		}
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(value);
+			if (type.getComponentType().isPrimitive()) {
+				return HEADER + (long) length * (type == long[].class || type == double[].class ? 8 : 4);
+			}
+			long weight = HEADER + (long) length * REFERENCE;
+			for (int i = 0; i < length; i++) {
+				weight += weigh(Array.get(value, i));
+			}
+			return weight;
+		}
+		if (value instanceof Collection) {
+			long weight = 2 * HEADER;
+			for (Object element : (Collection<?>) value) {
+				weight += 2 * REFERENCE + weigh(element);
+			}
+			return weight;
+		}
+		if (value instanceof Map) {
+			long weight = 3 * HEADER;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				weight += HEADER + 2 * REFERENCE + weigh(entry.getKey()) + weigh(entry.getValue());
+			}
+			return weight;
+		}
+		if (!type.getName().startsWith(MODEL_PACKAGE)) {
+			return 2 * HEADER;
+		}
+		Field[] fields = FIELDS.get(type);
+		long weight = HEADER + (long) fields.length * REFERENCE;
+		for (Field field : fields) {
+			if (!field.getType().isPrimitive()) {
+				try {
+					weight += weigh(field.get(value));
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		return weight;
+	}
+}
@@ -0,0 +1,79 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch of 4-bit counters, estimating how often keys were seen
+ * recently: every counter is halved once the sketch has recorded ten times
+ * as many keys as it has counters per row, so that past popularity fades.
+ * <p>
+ * Not thread-safe.
+ */
+class FrequencySketch {
+
+	private static final int DEPTH = 4;
+	private static final int MAX_COUNT = 15;
+	private static final int[] SEEDS = { 0x97cb3127, 0xb2d3f1e1, 0xe7f05a5b, 0x8f4c3a39 };
+
+	private final byte[] counters;
+	private final int mask;
+	private final int sampleSize;
+	private int additions;
+
+	/**
+	 * @param capacity
+	 *            expected number of distinct keys worth telling apart
+	 */
+	FrequencySketch(int capacity) {
+		int width = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 24)) - 1) << 1;
+		counters = new byte[DEPTH * width];
+		mask = width - 1;
+		sampleSize = 10 * width;
+	}
+
+	void increment(Object key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int row = 0; row < DEPTH; row++) {
+			int index = index(hash, row);
+			if (counters[index] < MAX_COUNT) {
+				counters[index]++;
+				added = true;
+			}
+		}
+		if (added && ++additions == sampleSize) {
+			reset();
+		}
+	}
+
+	int frequency(Object key) {
+		int hash = spread(key.hashCode());
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			frequency = Math.min(frequency, counters[index(hash, row)]);
+		}
+		return frequency;
+	}
+
+	void clear() {
+		Arrays.fill(counters, (byte) 0);
+		additions = 0;
+	}
+
+	private int index(int hash, int row) {
+		int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+		return row * (mask + 1) + ((h ^ (h >>> 16)) & mask);
+	}
+
+	private void reset() {
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] >>= 1;
+		}
+		additions /= 2;
+	}
+
+	private static int spread(int hash) {
+		int h = hash * 0x85ebca6b;
+		return h ^ (h >>> 15);
+	}
+}
@@ -0,0 +1,96 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+/**
+ * Canonical instances of the entities and strings repeated across decoded
+ * responses, for a {@link DecodingProfile} that deduplicates them: a nested
+ * artist or album resolves to the first instance decoded with its Spotify ID,
+ * an image or an external URL to the first equal one, and {@code type},
+ * {@code uri} and {@code href} strings to the first equal string.
+ * <p>
+ * By default a profile deduplicates within each response. A map given to
+ * {@link DecodingProfile.Builder#deduplicate(IdentityMap)} is shared by every
+ * response of the profile and keeps the first instance of each entity, until
+ * it is evicted: share one only when nested entities can be treated as
+ * read-only and need not be refreshed.
+ */
+public class IdentityMap {
+
+	private final Map<Object, Object> instances;
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * @param maxEntries
+	 *            number of instances kept, least recently used ones are
+	 *            dropped first
+	 */
+	public IdentityMap(int maxEntries) {
+		instances = Collections.synchronizedMap(new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+				return size() > maxEntries;
+			}
+		});
+	}
+
+	/**
+	 * Unbounded map for a single response, used by one thread.
+	 */
+	private IdentityMap() {
+		instances = new HashMap<>();
+	}
+
+	/**
+	 * The map of the response being decoded by {@code context}, or
+	 * {@code shared} when there is one.
+	 */
+	static IdentityMap of(DeserializationContext context, IdentityMap shared) {
+		if (shared != null) {
+			return shared;
+		}
+		IdentityMap map = (IdentityMap) context.getAttribute(IdentityMap.class);
+		if (map == null) {
+			map = new IdentityMap();
+			context.setAttribute(IdentityMap.class, map);
+		}
+		return map;
+	}
+
+	/**
+	 * The instance first registered for {@code key}, or {@code value} which
+	 * becomes it.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T canonical(Object key, T value) {
+		Object existing = instances.putIfAbsent(key, value);
+		if (existing == null) {
+			return value;
+		}
+		hits.increment();
+		return (T) existing;
+	}
+
+	/**
+	 * Decoded instances replaced by a canonical one.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public int size() {
+		return instances.size();
+	}
+
+	public void clear() {
+		instances.clear();
+	}
+}
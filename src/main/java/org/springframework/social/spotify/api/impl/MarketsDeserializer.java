@@ -0,0 +1,56 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.social.spotify.api.Markets;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+/**
+ * Reads an array of country codes into {@link Markets}, straight from the
+ * characters of the parser, without a string per code. Tracks and albums of a
+ * catalog share few distinct sets of markets, so the sets are interned: equal
+ * sets decoded by the same deserializer are the same instance, up to
+ * {@value #MAX_INTERNED} distinct sets.
+ */
+class MarketsDeserializer extends JsonDeserializer<Markets> {
+
+	static final int MAX_INTERNED = 4096;
+
+	private final ConcurrentMap<Markets, Markets> interned = new ConcurrentHashMap<>();
+
+	@Override
+	public Markets deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (!parser.isExpectedStartArrayToken()) {
+			throw context.mappingException(Markets.class);
+		}
+		Markets.Builder markets = Markets.builder();
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+			if (token == JsonToken.VALUE_STRING && parser.getTextLength() == 2) {
+				char[] text = parser.getTextCharacters();
+				int offset = parser.getTextOffset();
+				markets.add(text[offset], text[offset + 1]);
+			} else if (token == null) {
+				throw context.mappingException(Markets.class);
+			}
+		}
+		return intern(markets.build());
+	}
+
+	private Markets intern(Markets markets) {
+		Markets existing = interned.get(markets);
+		if (existing != null) {
+			return existing;
+		}
+		if (interned.size() >= MAX_INTERNED) {
+			return markets;
+		}
+		existing = interned.putIfAbsent(markets, markets);
+		return existing == null ? markets : existing;
+	}
+}
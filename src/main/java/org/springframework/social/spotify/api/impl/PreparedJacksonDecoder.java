@@ -0,0 +1,77 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+/**
+ * Drop-in replacement of Feign's {@code JacksonDecoder} that resolves each
+ * type once: the {@link ObjectReader} of every return type, with its
+ * {@code JavaType} and root deserializer, is built by {@link #prepare(Type)}
+ * when the factory starts and reused by every call. Bodies are read as bytes,
+ * leaving the charset detection to Jackson instead of going through a
+ * {@code Reader}.
+ */
+class PreparedJacksonDecoder implements Decoder {
+
+	private final ObjectMapper mapper;
+	private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	PreparedJacksonDecoder(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Builds the reader of {@code type} ahead of the first call.
+	 */
+	void prepare(Type type) {
+		reader(type);
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException {
+		if (response.status() == 404) {
+			return Util.emptyValueOf(type);
+		}
+		if (response.body() == null) {
+			return null;
+		}
+		try (InputStream body = response.body().asInputStream()) {
+			PushbackInputStream in = new PushbackInputStream(body, 1);
+			int first = in.read();
+			if (first == -1) {
+				return null;
+			}
+			in.unread(first);
+			return reader(type).readValue(in);
+		} catch (RuntimeJsonMappingException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private ObjectReader reader(Type type) {
+		ObjectReader reader = readers.get(type);
+		if (reader == null) {
+			reader = mapper.readerFor(mapper.constructType(type));
+			ObjectReader raced = readers.putIfAbsent(type, reader);
+			if (raced != null) {
+				reader = raced;
+			}
+		}
+		return reader;
+	}
+}
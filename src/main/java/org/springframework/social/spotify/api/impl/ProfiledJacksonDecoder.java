@@ -0,0 +1,87 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.social.spotify.api.impl.http.ETagCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Decodes each response with the {@link PreparedJacksonDecoder} of the
+ * {@link DecodingProfile} named by the {@link ETagCache#VARIANT} header of its
+ * request, or with the full one. Every profile has its own copy of the
+ * mapper, whose readers are built when the profile is registered.
+ */
+class ProfiledJacksonDecoder implements Decoder {
+
+	private final PreparedJacksonDecoder full;
+	private final ObjectMapper mapper;
+	private final Collection<Type> types;
+	private final ConcurrentMap<String, Profiled> profiles = new ConcurrentHashMap<>();
+
+	/**
+	 * @param types
+	 *            types prepared for every profile
+	 */
+	ProfiledJacksonDecoder(PreparedJacksonDecoder full, ObjectMapper mapper, Collection<Type> types) {
+		this.full = full;
+		this.mapper = mapper;
+		this.types = types;
+		for (Type type : types) {
+			full.prepare(type);
+		}
+	}
+
+	/**
+	 * Prepares the decoder of {@code profile}, unless it has one already.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a different profile has the same name
+	 */
+	void register(DecodingProfile profile) {
+		if (profile.equals(DecodingProfile.FULL)) {
+			return;
+		}
+		Profiled profiled = profiles.get(profile.getName());
+		if (profiled == null) {
+			PreparedJacksonDecoder decoder = new PreparedJacksonDecoder(
+					mapper.copy().registerModule(profile.module()));
+			for (Type type : types) {
+				decoder.prepare(type);
+			}
+			Profiled raced = profiles.putIfAbsent(profile.getName(), profiled = new Profiled(profile, decoder));
+			if (raced != null) {
+				profiled = raced;
+			}
+		}
+		if (!profiled.profile.equals(profile)) {
+			throw new IllegalArgumentException(
+					"Another decoding profile is named " + profile.getName() + ": " + profiled.profile);
+		}
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException {
+		Collection<String> variant = response.request() == null ? null
+				: response.request().headers().get(ETagCache.VARIANT);
+		Profiled profiled = variant == null || variant.isEmpty() ? null : profiles.get(variant.iterator().next());
+		return (profiled == null ? full : profiled.decoder).decode(response, type);
+	}
+
+	private static class Profiled {
+		final DecodingProfile profile;
+		final PreparedJacksonDecoder decoder;
+
+		Profiled(DecodingProfile profile, PreparedJacksonDecoder decoder) {
+			this.profile = profile;
+			this.decoder = decoder;
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.paging.StreamingPageDecoder;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+
+/**
+ * Coalesces identical concurrent catalog calls: while a call is in flight,
+ * callers with the same method and arguments wait for it and get its decoded
+ * result instead of sending their own request. Only results are shared: when
+ * the call fails, for example because the token of its caller was revoked or
+ * hit a rate limit, or takes longer than the request timeout, every waiting
+ * caller sends its own request with its own token.
+ * <p>
+ * Catalog responses do not depend on the access token, so calls of different
+ * users are coalesced too, except when {@code market=from_token} makes the
+ * token part of the request. Calls decoded with different
+ * {@link DecodingProfile}s are kept apart. A completed call is forgotten
+ * right away: caching is left to the {@code ResponseCache} and
+ * {@code ETagCache} underneath, and to the {@link EntityCache} in front.
+ * Calls streaming their items through {@link StreamingPageDecoder} are not
+ * coalesced.
+ */
+public class SingleFlight {
+
+	private static final String FROM_TOKEN = "from_token";
+
+	private final ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+	private final long timeoutMillis;
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder reissued = new LongAdder();
+
+	public SingleFlight() {
+		this(new Request.Options());
+	}
+
+	/**
+	 * @param options
+	 *            timeouts of the coalesced calls, bounding how long a caller
+	 *            waits for the call of another
+	 */
+	SingleFlight(Request.Options options) {
+		this.timeoutMillis = (long) options.connectTimeoutMillis() + options.readTimeoutMillis();
+	}
+
+	/**
+	 * Calls that went through the single-flight layer.
+	 */
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	/**
+	 * Calls served by the request of another caller.
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Coalesced calls that sent their own request after the call they waited
+	 * for failed or timed out.
+	 */
+	public long getReissued() {
+		return reissued.sum();
+	}
+
+	/**
+	 * Calls currently in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	MethodHandler coalesce(Method method, MethodHandler handler) {
+		if (method.getReturnType() == CompletableFuture.class) {
+			return argv -> invokeAsync(key(method, argv), handler, argv);
+		}
+		return argv -> invoke(key(method, argv), handler, argv);
+	}
+
+	private Object invoke(Key key, MethodHandler handler, Object[] argv) throws Throwable {
+		if (StreamingPageDecoder.isStreaming()) {
+			// the items go to this caller's consumer only
+			return handler.invoke(argv);
+		}
+		calls.increment();
+		Flight flight = new Flight();
+		Flight leader = join(key, flight);
+		if (leader != null) {
+			coalesced.increment();
+			try {
+				return leader.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (ExecutionException | TimeoutException | CancellationException e) {
+				reissued.increment();
+				return handler.invoke(argv);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+			}
+		}
+
+		try {
+			Object result = handler.invoke(argv);
+			flight.result.complete(result);
+			return result;
+		} catch (Throwable e) {
+			flight.result.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Every caller gets its own future, so that one of them cancelling does
+	 * not affect the others. The call itself is cancelled once every caller
+	 * has cancelled.
+	 */
+	private Object invokeAsync(Key key, MethodHandler handler, Object[] argv) throws Throwable {
+		calls.increment();
+		Flight flight = new Flight();
+		Flight leader = join(key, flight);
+		if (leader != null) {
+			coalesced.increment();
+			return follow(key, leader, handler, argv);
+		}
+
+		CompletableFuture<?> result;
+		try {
+			result = (CompletableFuture<?>) handler.invoke(argv);
+		} catch (Throwable e) {
+			inFlight.remove(key, flight);
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+		flight.call = result;
+		result.whenComplete((value, e) -> {
+			inFlight.remove(key, flight);
+			if (e != null) {
+				flight.result.completeExceptionally(unwrap(e));
+			} else {
+				flight.result.complete(value);
+			}
+		});
+		return copy(key, flight);
+	}
+
+	/**
+	 * Registers {@code flight} for {@code key}, unless another caller's flight
+	 * can be joined.
+	 *
+	 * @return the joined flight, or {@code null} if {@code flight} leads
+	 */
+	private Flight join(Key key, Flight flight) {
+		while (true) {
+			Flight leader = inFlight.putIfAbsent(key, flight);
+			if (leader == null) {
+				return null;
+			}
+			if (leader.join()) {
+				return leader;
+			}
+			// every caller of the leader cancelled
+			inFlight.remove(key, leader);
+		}
+	}
+
+	/**
+	 * Copy of the result of {@code flight} for a follower, which sends its own
+	 * request, bound to its own token and profile, if the flight fails.
+	 */
+	private CompletableFuture<Object> follow(Key key, Flight flight, MethodHandler handler, Object[] argv) {
+		String accessToken = AccessTokenContext.current();
+		DecodingProfile profile = DecodingProfileContext.current();
+		CompletableFuture<Object> copy = new CompletableFuture<>();
+		flight.result.whenComplete((value, failure) -> {
+			if (failure == null) {
+				copy.complete(value);
+			} else if (!copy.isDone()) {
+				reissued.increment();
+				reissue(accessToken, profile, handler, argv, copy);
+			}
+		});
+		return cancelOnLastCaller(key, flight, copy);
+	}
+
+	private static void reissue(String accessToken, DecodingProfile profile, MethodHandler handler, Object[] argv,
+			CompletableFuture<Object> copy) {
+		String previous = AccessTokenContext.bind(accessToken);
+		DecodingProfile previousProfile = DecodingProfileContext.bind(profile);
+		try {
+			CompletableFuture<?> own = (CompletableFuture<?>) handler.invoke(argv);
+			AsyncClient.propagateCancellation(copy, own);
+			own.whenComplete((value, e) -> {
+				if (e != null) {
+					copy.completeExceptionally(unwrap(e));
+				} else {
+					copy.complete(value);
+				}
+			});
+		} catch (Throwable e) {
+			copy.completeExceptionally(e);
+		} finally {
+			DecodingProfileContext.restore(previousProfile);
+			AccessTokenContext.restore(previous);
+		}
+	}
+
+	private CompletableFuture<Object> copy(Key key, Flight flight) {
+		return cancelOnLastCaller(key, flight, flight.result.thenApply(value -> value));
+	}
+
+	private CompletableFuture<Object> cancelOnLastCaller(Key key, Flight flight, CompletableFuture<Object> copy) {
+		copy.whenComplete((value, e) -> {
+			if (copy.isCancelled() && flight.callers.decrementAndGet() == 0) {
+				inFlight.remove(key, flight);
+				flight.call.cancel(true);
+			}
+		});
+		return copy;
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+	}
+
+	private static Key key(Method method, Object[] argv) {
+		Object[] args = argv == null ? new Object[0] : argv;
+		return new Key(method, args, scope(args));
+	}
+
+	/**
+	 * Part of the request besides the arguments: the access token when
+	 * {@code market=from_token} is sent, and the {@link DecodingProfile}.
+	 *
+	 * @return {@code null} when the result is the same for every caller
+	 */
+	static String scope(Object[] args) {
+		String scope = null;
+		for (Object arg : args) {
+			if (FROM_TOKEN.equals(arg)) {
+				scope = AccessTokenContext.current();
+			}
+		}
+		DecodingProfile profile = DecodingProfileContext.current();
+		if (!profile.equals(DecodingProfile.FULL)) {
+			scope = profile.getName() + ' ' + (profile.isMarketFromToken() ? AccessTokenContext.current() : scope);
+		}
+		return scope;
+	}
+
+	/**
+	 * A call in flight, with the number of callers still waiting for it.
+	 */
+	private static final class Flight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+		private final AtomicInteger callers = new AtomicInteger(1);
+		private volatile Future<?> call;
+
+		/**
+		 * @return false if every caller cancelled already
+		 */
+		boolean join() {
+			for (int count = callers.get(); count > 0; count = callers.get()) {
+				if (callers.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class Key {
+
+		private final Method method;
+		private final Object[] args;
+		private final String scope;
+		private final int hash;
+
+		Key(Method method, Object[] args, String scope) {
+			this.method = method;
+			this.args = args;
+			this.scope = scope;
+			this.hash = 31 * (31 * method.hashCode() + Arrays.deepHashCode(args))
+					+ (scope == null ? 0 : scope.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return hash == key.hash && method.equals(key.method) && Arrays.deepEquals(args, key.args)
+					&& (scope == null ? key.scope == null : scope.equals(key.scope));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
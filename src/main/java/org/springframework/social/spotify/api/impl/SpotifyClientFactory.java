@@ -0,0 +1,531 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.social.spotify.api.SpotifyClientError;
+import org.springframework.social.spotify.api.SpotifyErrorDecoder;
+import org.springframework.social.spotify.api.impl.http.ApacheAsyncClient;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.impl.http.CompressionStats;
+import org.springframework.social.spotify.api.impl.http.ETagCache;
+import org.springframework.social.spotify.api.impl.http.Endpoints;
+import org.springframework.social.spotify.api.impl.http.GzipClient;
+import org.springframework.social.spotify.api.impl.http.PooledHttpClient;
+import org.springframework.social.spotify.api.impl.http.RateLimiter;
+import org.springframework.social.spotify.api.impl.http.ResponseCache;
+import org.springframework.social.spotify.api.operations.AlbumsOperations;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncAlbumsOperations;
+import org.springframework.social.spotify.api.operations.AsyncArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncBrowseOperations;
+import org.springframework.social.spotify.api.operations.AsyncFollowOperations;
+import org.springframework.social.spotify.api.operations.AsyncLibraryOperations;
+import org.springframework.social.spotify.api.operations.AsyncPersonalizationOperations;
+import org.springframework.social.spotify.api.operations.AsyncProfilesOperations;
+import org.springframework.social.spotify.api.operations.AsyncTracksOperations;
+import org.springframework.social.spotify.api.operations.BrowseOperations;
+import org.springframework.social.spotify.api.operations.FollowOperations;
+import org.springframework.social.spotify.api.operations.LibraryOperations;
+import org.springframework.social.spotify.api.operations.PersonalizationOperations;
+import org.springframework.social.spotify.api.operations.ProfilesOperations;
+import org.springframework.social.spotify.api.operations.TracksOperations;
+import org.springframework.social.spotify.api.paging.StreamingPageDecoder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import feign.Client;
+import feign.Contract;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.Retryer;
+import feign.Target;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import feign.jackson.JacksonEncoder;
+
+/**
+ * Long-lived, thread-safe source of the Feign clients used by
+ * {@link SpotifyTemplate}.
+ * <p>
+ * Jackson is configured and the Feign contract of every operations interface is
+ * parsed once, when the factory is created. A {@link SpotifyTemplate} built on
+ * top of a factory only keeps its access token, and binds it to the shared
+ * clients on each call. Create one factory per application and reuse it for
+ * every user.
+ * <p>
+ * Unless other transports are given, requests go through a
+ * {@link PooledHttpClient} and the {@code Async*Operations} through an
+ * {@link ApacheAsyncClient}, both with their default settings and released by
+ * {@link #close()}. The responses of the {@code Async*Operations} are decoded
+ * on {@link Builder#decodeExecutor(Executor)}, not on the threads of their
+ * transport. Either way responses are negotiated and inflated by a
+ * {@link GzipClient}, so the given transports must not decompress bodies
+ * themselves. Fresh responses are served by a {@link ResponseCache} and stale
+ * ones revalidated through an {@link ETagCache}. Requests that reach the
+ * network share a {@link RateLimiter}; a {@code 429} is retried once the
+ * limiter lets requests through again. Unless one is given to
+ * {@link Builder#rateLimiter(RateLimiter)}, the limiter does not cap the rate
+ * of requests: it only holds them for the {@code Retry-After} of a
+ * {@code 429}. Identical concurrent calls to the
+ * catalog interfaces share a single request through {@link SingleFlight}.
+ * An {@link EntityCache}, if given, serves the tracks, albums and artists
+ * already decoded.
+ * Each template decodes with its {@link DecodingProfile}.
+ */
+public class SpotifyClientFactory implements Closeable {
+
+	private static final Class<?>[] OPERATIONS = { ProfilesOperations.class, AlbumsOperations.class,
+			ArtistsOperations.class, BrowseOperations.class, FollowOperations.class, LibraryOperations.class,
+			PersonalizationOperations.class, TracksOperations.class };
+
+	/**
+	 * Catalog interfaces, whose identical concurrent calls are coalesced, and
+	 * whose entities are cached by the {@link EntityCache}.
+	 */
+	private static final List<Class<?>> CATALOG_OPERATIONS = Arrays.asList(AlbumsOperations.class,
+			ArtistsOperations.class, TracksOperations.class, AsyncAlbumsOperations.class,
+			AsyncArtistsOperations.class, AsyncTracksOperations.class);
+
+	private static final Class<?>[] ASYNC_OPERATIONS = { AsyncProfilesOperations.class, AsyncAlbumsOperations.class,
+			AsyncArtistsOperations.class, AsyncBrowseOperations.class, AsyncFollowOperations.class,
+			AsyncLibraryOperations.class, AsyncPersonalizationOperations.class, AsyncTracksOperations.class };
+
+	/**
+	 * Attempts per call, so that a {@code 429} or an I/O error is retried
+	 * twice.
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	/**
+	 * Delay before the first retry, growing by half with each further one up
+	 * to {@link #MAX_RETRY_PERIOD_MILLIS}, unless a {@code Retry-After} says
+	 * otherwise.
+	 */
+	private static final long RETRY_PERIOD_MILLIS = 100;
+	private static final long MAX_RETRY_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+	/**
+	 * Timeouts of every request, also bounding how long a coalesced call
+	 * waits for another.
+	 */
+	private static final Request.Options OPTIONS = new Request.Options();
+
+	private final ObjectMapper mapper;
+	private final Decoder decoder;
+	private final Encoder encoder;
+	private final ErrorDecoder errorDecoder;
+	private final Client client;
+	private final AsyncClient asyncClient;
+	private final Client transport;
+	private final AsyncClient asyncTransport;
+	private final CompressionStats compressionStats = new CompressionStats();
+	private final ETagCache eTagCache = new ETagCache();
+	private final ResponseCache responseCache;
+	private final RateLimiter rateLimiter;
+	private final boolean ownsRateLimiter;
+	private final boolean ownsResponseCache;
+	private final SingleFlight singleFlight = new SingleFlight(OPTIONS);
+	private final EntityCache entityCache;
+	private final Executor decodeExecutor;
+	private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "spotify-async-retry");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final boolean ownsClient;
+	private final boolean ownsAsyncClient;
+	private final ProfiledJacksonDecoder profiledDecoder;
+	private final List<RequestInterceptor> interceptors;
+
+	private final Map<Class<?>, OperationsBinding<?>> bindings = new HashMap<>();
+
+	public SpotifyClientFactory() {
+		this(builder());
+	}
+
+	/**
+	 * @param client
+	 *            transport used by every operations interface, for example a
+	 *            {@link PooledHttpClient} with custom limits. It is not closed
+	 *            by {@link #close()}.
+	 */
+	public SpotifyClientFactory(Client client) {
+		this(builder().client(client));
+	}
+
+	/**
+	 * @param client
+	 *            transport used by the synchronous operations interfaces
+	 * @param asyncClient
+	 *            transport used by the {@code Async*Operations} interfaces
+	 *            <p>
+	 *            Neither is closed by {@link #close()}.
+	 */
+	public SpotifyClientFactory(Client client, AsyncClient asyncClient) {
+		this(builder().client(client).asyncClient(asyncClient));
+	}
+
+	private SpotifyClientFactory(Builder builder) {
+		this.ownsClient = builder.client == null;
+		this.transport = ownsClient ? PooledHttpClient.builder().build() : builder.client;
+		this.ownsAsyncClient = builder.asyncClient == null;
+		this.asyncTransport = ownsAsyncClient ? ApacheAsyncClient.builder().build() : builder.asyncClient;
+		this.ownsResponseCache = builder.responseCache == null;
+		this.responseCache = ownsResponseCache ? ResponseCache.builder().build() : builder.responseCache;
+		this.ownsRateLimiter = builder.rateLimiter == null;
+		this.rateLimiter = ownsRateLimiter ? RateLimiter.builder().permitsPerSecond(Double.POSITIVE_INFINITY).build()
+				: builder.rateLimiter;
+		this.entityCache = builder.entityCache;
+		this.decodeExecutor = builder.decodeExecutor;
+
+		this.client = eTagCache.client(
+				responseCache.client(rateLimiter.client(new GzipClient(transport, compressionStats))));
+		this.asyncClient = eTagCache.asyncClient(responseCache
+				.asyncClient(rateLimiter.asyncClient(new GzipClient.Async(asyncTransport, compressionStats))));
+
+		mapper = new ObjectMapper();
+		mapper.setPropertyNamingStrategy(PropertyNamingStrategy.CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES);
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		mapper.registerModule(new AfterburnerModule());
+		PreparedJacksonDecoder jacksonDecoder = new PreparedJacksonDecoder(mapper);
+		Set<Type> returnTypes = new LinkedHashSet<>();
+		Set<String> marketEndpoints = new HashSet<>();
+		for (Class<?> type : OPERATIONS) {
+			returnTypes.addAll(returnTypes(type));
+			marketEndpoints.addAll(marketEndpoints(type));
+		}
+		for (Class<?> type : ASYNC_OPERATIONS) {
+			returnTypes.addAll(returnTypes(type));
+			marketEndpoints.addAll(marketEndpoints(type));
+		}
+		profiledDecoder = new ProfiledJacksonDecoder(jacksonDecoder, mapper, returnTypes);
+		decoder = new StreamingPageDecoder(mapper, eTagCache.decoder(profiledDecoder));
+		encoder = new JacksonEncoder(mapper);
+
+		errorDecoder = new SpotifyErrorDecoder(jacksonDecoder);
+		jacksonDecoder.prepare(SpotifyClientError.class);
+
+		interceptors = Arrays.asList(new BoundTokenRequestInterceptor(),
+				new DecodingProfileRequestInterceptor(marketEndpoints));
+
+		for (Class<?> type : OPERATIONS) {
+			bindings.put(type, binding(type));
+		}
+		for (Class<?> type : ASYNC_OPERATIONS) {
+			bindings.put(type, asyncBinding(type));
+		}
+	}
+
+	/**
+	 * Returns a view of the shared client for {@code type} that sends
+	 * {@code accessToken} with every request and decodes the responses with
+	 * {@code profile}.
+	 */
+	<T> T bind(Class<T> type, String accessToken, DecodingProfile profile) {
+		@SuppressWarnings("unchecked")
+		OperationsBinding<T> binding = (OperationsBinding<T>) bindings.get(type);
+		if (binding == null) {
+			throw new IllegalArgumentException("Not an operations interface: " + type.getName());
+		}
+		profiledDecoder.register(profile);
+		return binding.bind(accessToken, profile);
+	}
+
+	/**
+	 * Bytes saved by response compression, per endpoint.
+	 */
+	public CompressionStats getCompressionStats() {
+		return compressionStats;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Conditional request cache shared by every template of this factory.
+	 */
+	public ETagCache getETagCache() {
+		return eTagCache;
+	}
+
+	/**
+	 * {@code Cache-Control} response cache shared by every template of this
+	 * factory.
+	 */
+	public ResponseCache getResponseCache() {
+		return responseCache;
+	}
+
+	/**
+	 * Rate limiter shared by every template of this factory.
+	 */
+	public RateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Coalescing of identical concurrent catalog calls over every template of
+	 * this factory.
+	 */
+	public SingleFlight getSingleFlight() {
+		return singleFlight;
+	}
+
+	/**
+	 * Cache of tracks, albums and artists shared by every template of this
+	 * factory, or {@code null}.
+	 */
+	public EntityCache getEntityCache() {
+		return entityCache;
+	}
+
+	ObjectMapper mapper() {
+		return mapper;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (ownsClient && transport instanceof Closeable) {
+			((Closeable) transport).close();
+		}
+		if (ownsAsyncClient && asyncTransport instanceof Closeable) {
+			((Closeable) asyncTransport).close();
+		}
+		if (ownsRateLimiter) {
+			rateLimiter.close();
+		}
+		if (ownsResponseCache) {
+			responseCache.close();
+		}
+		retryScheduler.shutdownNow();
+	}
+
+	private Feign.Builder feignBuilder() {
+		return Feign.builder().client(client).options(OPTIONS).errorDecoder(errorDecoder).decoder(decoder)
+				.encoder(encoder)
+				.retryer(new Retryer.Default(RETRY_PERIOD_MILLIS, MAX_RETRY_PERIOD_MILLIS, MAX_ATTEMPTS))
+				.requestInterceptors(interceptors);
+	}
+
+	private <T> OperationsBinding<T> binding(Class<T> type) {
+		DispatchCapture capture = new DispatchCapture();
+		feignBuilder().invocationHandlerFactory(capture).target(type, SpotifyTemplate.BASE_URL);
+
+		return new OperationsBinding<>(type, coalesce(type, capture.dispatch));
+	}
+
+	private <T> OperationsBinding<T> asyncBinding(Class<T> type) {
+		Target<T> target = new Target.HardCodedTarget<>(type, SpotifyTemplate.BASE_URL);
+
+		Map<String, MethodMetadata> metadata = new HashMap<>();
+		for (MethodMetadata md : new Contract.Default().parseAndValidatateMetadata(type)) {
+			metadata.put(md.configKey(), md);
+		}
+
+		Map<Method, MethodHandler> dispatch = new HashMap<>();
+		for (Method method : type.getMethods()) {
+			if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			dispatch.put(method, new AsyncMethodHandler(metadata.get(Feign.configKey(type, method)), target,
+					asyncClient, OPTIONS, interceptors, encoder, decoder, errorDecoder, MAX_ATTEMPTS, RETRY_PERIOD_MILLIS,
+					MAX_RETRY_PERIOD_MILLIS, decodeExecutor, retryScheduler));
+		}
+		return new OperationsBinding<>(type, coalesce(type, dispatch));
+	}
+
+	/**
+	 * Types returned by the methods of {@code type}, or by their futures,
+	 * whose readers are built ahead of the first call.
+	 */
+	private static List<Type> returnTypes(Class<?> type) {
+		List<Type> returnTypes = new ArrayList<>();
+		for (Method method : type.getMethods()) {
+			Type returnType = method.getGenericReturnType();
+			if (returnType instanceof ParameterizedType
+					&& ((ParameterizedType) returnType).getRawType() == CompletableFuture.class) {
+				returnType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+			}
+			if (returnType != void.class && returnType != Void.class) {
+				returnTypes.add(returnType);
+			}
+		}
+		return returnTypes;
+	}
+
+	/**
+	 * Endpoints of {@code type} taking a {@code market}, to which a
+	 * {@link DecodingProfile} may add {@code market=from_token}.
+	 */
+	private static Set<String> marketEndpoints(Class<?> type) {
+		Set<String> endpoints = new HashSet<>();
+		for (MethodMetadata md : new Contract.Default().parseAndValidatateMetadata(type)) {
+			if (md.template().queries().containsKey("market")) {
+				endpoints.add(Endpoints.of(md.template().method(), md.template().url()));
+			}
+		}
+		return endpoints;
+	}
+
+	private Map<Method, MethodHandler> coalesce(Class<?> type, Map<Method, MethodHandler> dispatch) {
+		if (!CATALOG_OPERATIONS.contains(type)) {
+			return dispatch;
+		}
+		Map<Method, MethodHandler> coalesced = new HashMap<>();
+		for (Map.Entry<Method, MethodHandler> handler : dispatch.entrySet()) {
+			MethodHandler coalescing = singleFlight.coalesce(handler.getKey(), handler.getValue());
+			coalesced.put(handler.getKey(),
+					entityCache == null ? coalescing : entityCache.cache(handler.getKey(), coalescing));
+		}
+		return coalesced;
+	}
+
+	private static class DispatchCapture implements InvocationHandlerFactory {
+
+		private final InvocationHandlerFactory delegate = new InvocationHandlerFactory.Default();
+		private Map<Method, MethodHandler> dispatch;
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
+			this.dispatch = dispatch;
+			return delegate.create(target, dispatch);
+		}
+
+	}
+
+	private static class OperationsBinding<T> {
+
+		private final Class<T> type;
+		private final Map<Method, MethodHandler> dispatch;
+		private final Constructor<?> proxyConstructor;
+
+		OperationsBinding(Class<T> type, Map<Method, MethodHandler> dispatch) {
+			this.type = type;
+			this.dispatch = dispatch;
+			try {
+				this.proxyConstructor = Proxy.getProxyClass(type.getClassLoader(), type)
+						.getConstructor(InvocationHandler.class);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		T bind(String accessToken, DecodingProfile profile) {
+			try {
+				return type.cast(proxyConstructor
+						.newInstance(new TokenBoundInvocationHandler(type, dispatch, accessToken, profile)));
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	public static class Builder {
+		private Client client;
+		private AsyncClient asyncClient;
+		private ResponseCache responseCache;
+		private RateLimiter rateLimiter;
+		private EntityCache entityCache;
+		private Executor decodeExecutor = ForkJoinPool.commonPool();
+
+		private Builder() {
+		}
+
+		/**
+		 * Transport of the synchronous operations interfaces, not closed by
+		 * {@link SpotifyClientFactory#close()}. Default: a
+		 * {@link PooledHttpClient}, owned by the factory.
+		 */
+		public Builder client(Client client) {
+			this.client = client;
+			return this;
+		}
+
+		/**
+		 * Transport of the {@code Async*Operations} interfaces, not closed by
+		 * {@link SpotifyClientFactory#close()}. Default: an
+		 * {@link ApacheAsyncClient}, owned by the factory.
+		 */
+		public Builder asyncClient(AsyncClient asyncClient) {
+			this.asyncClient = asyncClient;
+			return this;
+		}
+
+		/**
+		 * Response cache, for example with a disk tier. It is not closed by
+		 * {@link SpotifyClientFactory#close()}. Default: a 16MB memory-only
+		 * {@link ResponseCache}, owned by the factory.
+		 */
+		public Builder responseCache(ResponseCache responseCache) {
+			this.responseCache = responseCache;
+			return this;
+		}
+
+		/**
+		 * Rate limiter, for example sized to the quota of the application or
+		 * shared with other factories. It is not closed by
+		 * {@link SpotifyClientFactory#close()}. Default: a {@link RateLimiter}
+		 * without a rate, holding requests only after a {@code 429}, owned by
+		 * the factory.
+		 */
+		public Builder rateLimiter(RateLimiter rateLimiter) {
+			this.rateLimiter = rateLimiter;
+			return this;
+		}
+
+		/**
+		 * Cache of the tracks, albums and artists of the catalog interfaces,
+		 * for example shared with other factories. Default: none.
+		 */
+		public Builder entityCache(EntityCache entityCache) {
+			this.entityCache = entityCache;
+			return this;
+		}
+
+		/**
+		 * Executor decoding the responses of the {@code Async*Operations},
+		 * and completing their futures, off the threads of the async
+		 * transport. Default: {@link ForkJoinPool#commonPool()}.
+		 */
+		public Builder decodeExecutor(Executor decodeExecutor) {
+			this.decodeExecutor = decodeExecutor;
+			return this;
+		}
+
+		public SpotifyClientFactory build() {
+			return new SpotifyClientFactory(this);
+		}
+	}
+}
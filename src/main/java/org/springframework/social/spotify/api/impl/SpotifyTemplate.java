@@ -1,27 +1,31 @@
 package org.springframework.social.spotify.api.impl;
 
-import org.springframework.social.oauth2.AbstractOAuth2ApiBinding;
 import org.springframework.social.spotify.api.Spotify;
-import org.springframework.social.spotify.api.SpotifyErrorDecoder;
 import org.springframework.social.spotify.api.operations.AlbumsOperations;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncAlbumsOperations;
+import org.springframework.social.spotify.api.operations.AsyncArtistsOperations;
+import org.springframework.social.spotify.api.operations.AsyncBrowseOperations;
+import org.springframework.social.spotify.api.operations.AsyncFollowOperations;
+import org.springframework.social.spotify.api.operations.AsyncLibraryOperations;
+import org.springframework.social.spotify.api.operations.AsyncPersonalizationOperations;
+import org.springframework.social.spotify.api.operations.AsyncProfilesOperations;
+import org.springframework.social.spotify.api.operations.AsyncTracksOperations;
+import org.springframework.social.spotify.api.operations.BrowseOperations;
+import org.springframework.social.spotify.api.operations.FollowOperations;
+import org.springframework.social.spotify.api.operations.LibraryOperations;
 import org.springframework.social.spotify.api.operations.PersonalizationOperations;
 import org.springframework.social.spotify.api.operations.ProfilesOperations;
+import org.springframework.social.spotify.api.operations.TracksOperations;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategy;
-
-import feign.Feign;
-import feign.Logger;
-import feign.RequestInterceptor;
-import feign.codec.Decoder;
-import feign.codec.Encoder;
-import feign.codec.ErrorDecoder;
-import feign.jackson.JacksonDecoder;
-import feign.jackson.JacksonEncoder;
 import lombok.Getter;
 
-public class SpotifyTemplate extends AbstractOAuth2ApiBinding implements Spotify {
+/**
+ * Per-token view over the clients of a {@link SpotifyClientFactory}. Creating a
+ * template on top of an existing factory only stores the token; operations are
+ * bound to it the first time they are requested.
+ */
+public class SpotifyTemplate implements Spotify {
 	public static final String BASE_URL = "https://api.spotify.com";
 
 	@Getter
@@ -29,53 +33,207 @@ public class SpotifyTemplate extends AbstractOAuth2ApiBinding implements Spotify
 	@Getter
 	private String accessToken;
 
+	private final SpotifyClientFactory clientFactory;
+
+	@Getter
+	private final DecodingProfile decodingProfile;
+
 	private ProfilesOperations userOperations;
 
 	private AlbumsOperations albumOperations;
 
+	private ArtistsOperations artistsOperations;
+
+	private BrowseOperations browseOperations;
+
+	private FollowOperations followOperations;
+
+	private LibraryOperations libraryOperations;
+
 	private PersonalizationOperations personalizationOperations;
 
-	public SpotifyTemplate(String clientId, String accessToken) {
-		super(accessToken);
-		this.clientId = clientId;
-		this.accessToken = accessToken;
+	private TracksOperations tracksOperations;
+
+	private AsyncProfilesOperations asyncUserOperations;
+
+	private AsyncAlbumsOperations asyncAlbumOperations;
+
+	private AsyncArtistsOperations asyncArtistsOperations;
 
-		RequestInterceptor interceptor = new AuthRequestInterceptor(accessToken);
-		
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.setPropertyNamingStrategy(PropertyNamingStrategy.CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES);
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		Decoder decoder = new JacksonDecoder(mapper);
-		Encoder encoder = new JacksonEncoder(mapper);
+	private AsyncBrowseOperations asyncBrowseOperations;
 
-		ErrorDecoder errorDecoder = new SpotifyErrorDecoder(decoder);
+	private AsyncFollowOperations asyncFollowOperations;
 
-		userOperations = Feign.builder().errorDecoder(errorDecoder).decoder(decoder).encoder(encoder).requestInterceptor(interceptor)
-				.target(ProfilesOperations.class, BASE_URL);
+	private AsyncLibraryOperations asyncLibraryOperations;
 
-		albumOperations = Feign.builder().errorDecoder(errorDecoder)
-				.logger(new Logger.JavaLogger().appendToFile("albumOperations.log")).logLevel(Logger.Level.FULL)
-				.decoder(decoder).encoder(encoder).requestInterceptor(interceptor).target(AlbumsOperations.class, BASE_URL);
+	private AsyncPersonalizationOperations asyncPersonalizationOperations;
 
-		personalizationOperations = Feign.builder().errorDecoder(errorDecoder)
-				.logger(new Logger.JavaLogger().appendToFile("albumOperations.log")).logLevel(Logger.Level.FULL)
-				.decoder(decoder).encoder(encoder).requestInterceptor(interceptor).target(PersonalizationOperations.class, BASE_URL);
+	private AsyncTracksOperations asyncTracksOperations;
 
+	/**
+	 * Creates a template on a factory shared by every template built with this
+	 * constructor.
+	 */
+	public SpotifyTemplate(String clientId, String accessToken) {
+		this(clientId, accessToken, DefaultClientFactory.INSTANCE);
+	}
+
+	public SpotifyTemplate(String clientId, String accessToken, SpotifyClientFactory clientFactory) {
+		this(clientId, accessToken, clientFactory, DecodingProfile.FULL);
+	}
+
+	public SpotifyTemplate(String clientId, String accessToken, SpotifyClientFactory clientFactory,
+			DecodingProfile decodingProfile) {
+		this.clientId = clientId;
+		this.accessToken = accessToken;
+		this.clientFactory = clientFactory;
+		this.decodingProfile = decodingProfile;
+	}
+
+	/**
+	 * Returns a template for the same token and factory that decodes with
+	 * {@code profile}. It is cheap enough to be created for a single call.
+	 */
+	public SpotifyTemplate withDecodingProfile(DecodingProfile profile) {
+		return new SpotifyTemplate(clientId, accessToken, clientFactory, profile);
+	}
+
+	@Override
+	public boolean isAuthorized() {
+		return accessToken != null;
 	}
 
 	@Override
 	public ProfilesOperations profilesOperations() {
+		if (userOperations == null) {
+			userOperations = clientFactory.bind(ProfilesOperations.class, accessToken, decodingProfile);
+		}
 		return userOperations;
 	}
 
 	@Override
 	public AlbumsOperations albumOperations() {
+		if (albumOperations == null) {
+			albumOperations = clientFactory.bind(AlbumsOperations.class, accessToken, decodingProfile);
+		}
 		return albumOperations;
 	}
 
+	@Override
+	public ArtistsOperations artistsOperations() {
+		if (artistsOperations == null) {
+			artistsOperations = clientFactory.bind(ArtistsOperations.class, accessToken, decodingProfile);
+		}
+		return artistsOperations;
+	}
+
+	@Override
+	public BrowseOperations browseOperations() {
+		if (browseOperations == null) {
+			browseOperations = clientFactory.bind(BrowseOperations.class, accessToken, decodingProfile);
+		}
+		return browseOperations;
+	}
+
+	@Override
+	public FollowOperations followOperations() {
+		if (followOperations == null) {
+			followOperations = clientFactory.bind(FollowOperations.class, accessToken, decodingProfile);
+		}
+		return followOperations;
+	}
+
+	@Override
+	public LibraryOperations libraryOperations() {
+		if (libraryOperations == null) {
+			libraryOperations = clientFactory.bind(LibraryOperations.class, accessToken, decodingProfile);
+		}
+		return libraryOperations;
+	}
+
 	@Override
 	public PersonalizationOperations personalizationOperations() {
+		if (personalizationOperations == null) {
+			personalizationOperations = clientFactory.bind(PersonalizationOperations.class, accessToken, decodingProfile);
+		}
 		return personalizationOperations;
 	}
 
+	@Override
+	public TracksOperations tracksOperations() {
+		if (tracksOperations == null) {
+			tracksOperations = clientFactory.bind(TracksOperations.class, accessToken, decodingProfile);
+		}
+		return tracksOperations;
+	}
+
+	@Override
+	public AsyncProfilesOperations asyncProfilesOperations() {
+		if (asyncUserOperations == null) {
+			asyncUserOperations = clientFactory.bind(AsyncProfilesOperations.class, accessToken, decodingProfile);
+		}
+		return asyncUserOperations;
+	}
+
+	@Override
+	public AsyncAlbumsOperations asyncAlbumOperations() {
+		if (asyncAlbumOperations == null) {
+			asyncAlbumOperations = clientFactory.bind(AsyncAlbumsOperations.class, accessToken, decodingProfile);
+		}
+		return asyncAlbumOperations;
+	}
+
+	@Override
+	public AsyncArtistsOperations asyncArtistsOperations() {
+		if (asyncArtistsOperations == null) {
+			asyncArtistsOperations = clientFactory.bind(AsyncArtistsOperations.class, accessToken, decodingProfile);
+		}
+		return asyncArtistsOperations;
+	}
+
+	@Override
+	public AsyncBrowseOperations asyncBrowseOperations() {
+		if (asyncBrowseOperations == null) {
+			asyncBrowseOperations = clientFactory.bind(AsyncBrowseOperations.class, accessToken, decodingProfile);
+		}
+		return asyncBrowseOperations;
+	}
+
+	@Override
+	public AsyncFollowOperations asyncFollowOperations() {
+		if (asyncFollowOperations == null) {
+			asyncFollowOperations = clientFactory.bind(AsyncFollowOperations.class, accessToken, decodingProfile);
+		}
+		return asyncFollowOperations;
+	}
+
+	@Override
+	public AsyncLibraryOperations asyncLibraryOperations() {
+		if (asyncLibraryOperations == null) {
+			asyncLibraryOperations = clientFactory.bind(AsyncLibraryOperations.class, accessToken, decodingProfile);
+		}
+		return asyncLibraryOperations;
+	}
+
+	@Override
+	public AsyncPersonalizationOperations asyncPersonalizationOperations() {
+		if (asyncPersonalizationOperations == null) {
+			asyncPersonalizationOperations = clientFactory.bind(AsyncPersonalizationOperations.class, accessToken,
+					decodingProfile);
+		}
+		return asyncPersonalizationOperations;
+	}
+
+	@Override
+	public AsyncTracksOperations asyncTracksOperations() {
+		if (asyncTracksOperations == null) {
+			asyncTracksOperations = clientFactory.bind(AsyncTracksOperations.class, accessToken, decodingProfile);
+		}
+		return asyncTracksOperations;
+	}
+
+	private static class DefaultClientFactory {
+		private static final SpotifyClientFactory INSTANCE = new SpotifyClientFactory();
+	}
+
 }
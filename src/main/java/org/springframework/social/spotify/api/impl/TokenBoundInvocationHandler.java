@@ -0,0 +1,60 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+
+/**
+ * Per-token view over the method handlers Feign built once for an operations
+ * interface. The token and the {@link DecodingProfile} are bound to the
+ * calling thread for the duration of the call and the shared handler is
+ * invoked directly, without going through the shared Feign proxy.
+ */
+class TokenBoundInvocationHandler implements InvocationHandler {
+
+	private final Class<?> type;
+	private final Map<Method, MethodHandler> dispatch;
+	private final String accessToken;
+	private final DecodingProfile profile;
+
+	TokenBoundInvocationHandler(Class<?> type, Map<Method, MethodHandler> dispatch, String accessToken,
+			DecodingProfile profile) {
+		this.type = type;
+		this.dispatch = dispatch;
+		this.accessToken = accessToken;
+		this.profile = profile;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		MethodHandler handler = dispatch.get(method);
+		if (handler == null) {
+			return invokeObjectMethod(proxy, method, args);
+		}
+
+		String previous = AccessTokenContext.bind(accessToken);
+		DecodingProfile previousProfile = DecodingProfileContext.bind(profile);
+		try {
+			return handler.invoke(args);
+		} finally {
+			DecodingProfileContext.restore(previousProfile);
+			AccessTokenContext.restore(previous);
+		}
+	}
+
+	private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return type.getSimpleName() + "(token bound)";
+		default:
+			throw new UnsupportedOperationException(method.toString());
+		}
+	}
+
+}
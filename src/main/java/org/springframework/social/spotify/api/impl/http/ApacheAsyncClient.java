@@ -0,0 +1,206 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.EntityUtils;
+
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Non-blocking {@link AsyncClient} on Apache HttpAsyncClient. A handful of I/O
+ * reactor threads serve every in-flight request, so the number of concurrent
+ * calls is bounded by the connection pool, not by threads.
+ * <p>
+ * The reactor is started by the first request. Futures are completed on the
+ * reactor threads: chain blocking work with the {@code *Async} methods of
+ * {@link CompletableFuture}. Close the client to stop the reactor.
+ */
+public class ApacheAsyncClient implements AsyncClient, Closeable {
+
+	private final CloseableHttpAsyncClient httpClient;
+	private final PoolingNHttpClientConnectionManager connectionManager;
+
+	private ApacheAsyncClient(Builder builder) {
+		try {
+			connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(
+					IOReactorConfig.custom().setIoThreadCount(builder.ioThreads)
+							.setConnectTimeout(builder.connectTimeoutMillis)
+							.setSoTimeout(builder.readTimeoutMillis).build()));
+		} catch (IOReactorException e) {
+			throw new IllegalStateException(e);
+		}
+		connectionManager.setMaxTotal(builder.maxConnectionsTotal);
+		connectionManager.setDefaultMaxPerRoute(builder.maxConnectionsPerRoute);
+
+		httpClient = HttpAsyncClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(builder.connectTimeoutMillis)
+						.setSocketTimeout(builder.readTimeoutMillis).build())
+				.build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public CompletableFuture<Response> execute(Request request, Options options) {
+		start();
+
+		CompletableFuture<Response> response = new CompletableFuture<>();
+		Future<HttpResponse> exchange = httpClient.execute(toHttpRequest(request), new FutureCallback<HttpResponse>() {
+
+			@Override
+			public void completed(HttpResponse result) {
+				try {
+					response.complete(toResponse(request, result));
+				} catch (IOException | RuntimeException e) {
+					response.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Exception e) {
+				response.completeExceptionally(e);
+			}
+
+			@Override
+			public void cancelled() {
+				response.cancel(false);
+			}
+		});
+		response.whenComplete((result, e) -> {
+			if (e instanceof CancellationException) {
+				exchange.cancel(true);
+			}
+		});
+		return response;
+	}
+
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+	}
+
+	private void start() {
+		if (!httpClient.isRunning()) {
+			synchronized (httpClient) {
+				if (!httpClient.isRunning()) {
+					httpClient.start();
+				}
+			}
+		}
+	}
+
+	private static HttpUriRequest toHttpRequest(Request request) {
+		RequestBuilder builder = RequestBuilder.create(request.method()).setUri(request.url());
+		for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+			if (Util.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+				continue;
+			}
+			for (String value : header.getValue()) {
+				builder.addHeader(header.getKey(), value);
+			}
+		}
+		if (request.body() != null) {
+			builder.setEntity(new ByteArrayEntity(request.body()));
+		}
+		return builder.build();
+	}
+
+	private static Response toResponse(Request request, HttpResponse httpResponse) throws IOException {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		for (Header header : httpResponse.getAllHeaders()) {
+			headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+		}
+
+		HttpEntity entity = httpResponse.getEntity();
+		Response.Builder response = Response.builder().status(httpResponse.getStatusLine().getStatusCode())
+				.reason(httpResponse.getStatusLine().getReasonPhrase()).headers(headers).request(request);
+		if (entity != null) {
+			response.body(EntityUtils.toByteArray(entity));
+		}
+		return response.build();
+	}
+
+	public static class Builder {
+		private int maxConnectionsPerRoute = 100;
+		private int maxConnectionsTotal = 500;
+		private int connectTimeoutMillis = 10 * 1000;
+		private int readTimeoutMillis = 60 * 1000;
+		private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+		private Builder() {
+		}
+
+		/**
+		 * Maximum number of connections to a single host. Requests beyond it
+		 * wait in the pool without holding a thread. Default: 100.
+		 */
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		/**
+		 * Maximum number of connections over all hosts. Default: 500.
+		 */
+		public Builder maxConnectionsTotal(int maxConnectionsTotal) {
+			this.maxConnectionsTotal = maxConnectionsTotal;
+			return this;
+		}
+
+		/**
+		 * Connect timeout. Default: 10s.
+		 */
+		public Builder connectTimeout(long duration, TimeUnit unit) {
+			this.connectTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Read timeout. Default: 60s.
+		 */
+		public Builder readTimeout(long duration, TimeUnit unit) {
+			this.readTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Number of I/O reactor threads. Default: number of processors.
+		 */
+		public Builder ioThreads(int ioThreads) {
+			this.ioThreads = ioThreads;
+			return this;
+		}
+
+		public ApacheAsyncClient build() {
+			return new ApacheAsyncClient(this);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * Asynchronous counterpart of Feign's {@link Client}, used by the
+ * {@code Async*Operations} interfaces.
+ */
+public interface AsyncClient {
+
+	/**
+	 * Sends the request. The returned future completes with the response, or
+	 * exceptionally with the {@link IOException} that prevented it.
+	 */
+	CompletableFuture<Response> execute(Request request, Options options);
+
+	/**
+	 * Cancels {@code upstream} when {@code future}, computed from it, is
+	 * cancelled, so that cancelling a call reaches the transport through
+	 * every layer.
+	 *
+	 * @return {@code future}
+	 */
+	static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> future, Future<?> upstream) {
+		future.whenComplete((value, e) -> {
+			if (future.isCancelled()) {
+				upstream.cancel(true);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Runs a blocking {@link Client} on an executor. Every in-flight request
+	 * holds one of the executor's threads; prefer {@link ApacheAsyncClient}
+	 * for large fan-outs.
+	 */
+	class Default implements AsyncClient {
+
+		private final Client client;
+		private final Executor executor;
+
+		public Default(Client client, Executor executor) {
+			this.client = client;
+			this.executor = executor;
+		}
+
+		@Override
+		public CompletableFuture<Response> execute(Request request, Options options) {
+			CompletableFuture<Response> future = new CompletableFuture<>();
+			executor.execute(() -> {
+				try {
+					future.complete(client.execute(request, options));
+				} catch (IOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+			return future;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+/**
+ * {@link DnsResolver} that keeps resolved addresses for a fixed time, so new
+ * pooled connections to the same host do not each pay for a lookup.
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+	private final DnsResolver delegate;
+	private final long ttlMillis;
+	private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+	public CachingDnsResolver(long ttlMillis) {
+		this(SystemDefaultDnsResolver.INSTANCE, ttlMillis);
+	}
+
+	public CachingDnsResolver(DnsResolver delegate, long ttlMillis) {
+		this.delegate = delegate;
+		this.ttlMillis = ttlMillis;
+	}
+
+	@Override
+	public InetAddress[] resolve(String host) throws UnknownHostException {
+		long now = System.currentTimeMillis();
+		Entry entry = cache.get(host);
+		if (entry == null || entry.expiresAt < now) {
+			entry = new Entry(delegate.resolve(host), now + ttlMillis);
+			cache.put(host, entry);
+		}
+		return entry.addresses.clone();
+	}
+
+	private static class Entry {
+		private final InetAddress[] addresses;
+		private final long expiresAt;
+
+		Entry(InetAddress[] addresses, long expiresAt) {
+			this.addresses = addresses;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
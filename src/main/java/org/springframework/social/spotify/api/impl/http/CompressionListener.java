@@ -0,0 +1,22 @@
+package org.springframework.social.spotify.api.impl.http;
+
+/**
+ * Notified by {@link GzipClient} each time the body of a compressed response
+ * has been consumed.
+ */
+@FunctionalInterface
+public interface CompressionListener {
+
+	/**
+	 * @param endpoint
+	 *            the endpoint, as grouped by {@link Endpoints}
+	 * @param encoding
+	 *            the content coding of the response, {@code gzip} or
+	 *            {@code deflate}
+	 * @param wireBytes
+	 *            compressed bytes read from the connection
+	 * @param decodedBytes
+	 *            bytes handed to the decoder
+	 */
+	void onResponse(String endpoint, String encoding, long wireBytes, long decodedBytes);
+}
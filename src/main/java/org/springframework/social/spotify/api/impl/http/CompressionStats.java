@@ -0,0 +1,79 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CompressionListener} keeping running totals per endpoint.
+ */
+public class CompressionStats implements CompressionListener {
+
+	private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	@Override
+	public void onResponse(String endpoint, String encoding, long wireBytes, long decodedBytes) {
+		Endpoint stats = endpoints.computeIfAbsent(endpoint, Endpoint::new);
+		stats.responses.increment();
+		stats.wireBytes.add(wireBytes);
+		stats.decodedBytes.add(decodedBytes);
+	}
+
+	/**
+	 * Totals per endpoint, sorted by endpoint.
+	 */
+	public Map<String, Endpoint> getEndpoints() {
+		return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+	}
+
+	/**
+	 * Bytes saved over all endpoints.
+	 */
+	public long getBytesSaved() {
+		long saved = 0;
+		for (Endpoint endpoint : endpoints.values()) {
+			saved += endpoint.getBytesSaved();
+		}
+		return saved;
+	}
+
+	public static class Endpoint {
+		private final String name;
+		private final LongAdder responses = new LongAdder();
+		private final LongAdder wireBytes = new LongAdder();
+		private final LongAdder decodedBytes = new LongAdder();
+
+		Endpoint(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getResponses() {
+			return responses.sum();
+		}
+
+		public long getWireBytes() {
+			return wireBytes.sum();
+		}
+
+		public long getDecodedBytes() {
+			return decodedBytes.sum();
+		}
+
+		public long getBytesSaved() {
+			return getDecodedBytes() - getWireBytes();
+		}
+
+		@Override
+		public String toString() {
+			return name + ": " + getResponses() + " responses, " + getWireBytes() + " bytes received for "
+					+ getDecodedBytes() + " decoded";
+		}
+	}
+}
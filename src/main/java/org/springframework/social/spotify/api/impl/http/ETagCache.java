@@ -0,0 +1,236 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+/**
+ * Conditional request cache: keeps the {@code ETag} and the body of the latest
+ * {@code 200} response to each {@code GET} that decoded successfully, sends
+ * {@code If-None-Match} on the next request to the same URL and answers a
+ * {@code 304} with the cached body. The body is decoded again for every such
+ * answer, so no two callers share the objects they get.
+ * <p>
+ * Entries are scoped by access token for the endpoints of the current user
+ * ({@code /v1/me}) and for requests with {@code market=from_token}; other
+ * entries are shared by every token. The cache works as a pair of decorators,
+ * {@link #client(Client)} (or {@link #asyncClient(AsyncClient)}) around the
+ * transport and {@link #decoder(Decoder)} around the decoder, both required.
+ * <p>
+ * Requests carrying a {@link #VARIANT} header are cached apart from the
+ * others, under the value of the header. The header is removed before the
+ * request reaches the transport.
+ */
+public class ETagCache {
+
+	static final String ETAG = "ETag";
+	static final String IF_NONE_MATCH = "If-None-Match";
+
+	/**
+	 * Names the shape the response is decoded into, when it differs from the
+	 * full model, as with the profiles of a {@code SpotifyClientFactory}.
+	 * Never sent to Spotify.
+	 */
+	public static final String VARIANT = "X-Cache-Variant";
+
+	private final Map<String, Entry> entries;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public ETagCache() {
+		this(10000);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            number of URLs remembered, least recently used ones are
+	 *            dropped first
+	 */
+	public ETagCache(int maxEntries) {
+		entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		});
+	}
+
+	public Client client(Client delegate) {
+		return (request, options) -> {
+			String key = key(request);
+			Entry entry = key == null ? null : entries.get(key);
+			Response response = delegate.execute(conditional(request, entry), options);
+			return revalidated(request, key, entry, response);
+		};
+	}
+
+	public AsyncClient asyncClient(AsyncClient delegate) {
+		return new AsyncClient() {
+			@Override
+			public CompletableFuture<Response> execute(Request request, Options options) {
+				String key = key(request);
+				Entry entry = key == null ? null : entries.get(key);
+				CompletableFuture<Response> exchange = delegate.execute(conditional(request, entry), options);
+				return AsyncClient.propagateCancellation(
+						exchange.thenApply(response -> revalidated(request, key, entry, response)), exchange);
+			}
+		};
+	}
+
+	public Decoder decoder(Decoder delegate) {
+		return (response, type) -> {
+			String etag = Headers.first(response.headers(), ETAG);
+			String key = response.request() == null ? null : key(response.request());
+			if (etag == null || key == null || response.status() != 200 || response.body() == null
+					|| response.body() instanceof NotModifiedBody) {
+				return delegate.decode(response, type);
+			}
+			byte[] body;
+			try {
+				body = Util.toByteArray(response.body().asInputStream());
+			} finally {
+				response.close();
+			}
+			Object value = delegate.decode(response.toBuilder().body(body).build(), type);
+			if (value != null) {
+				entries.put(key, new Entry(etag, body));
+			}
+			return value;
+		};
+	}
+
+	/**
+	 * Whether the response is a {@code 304} answered with the cached body.
+	 */
+	public static boolean isNotModified(Response response) {
+		return response.body() instanceof NotModifiedBody;
+	}
+
+	/**
+	 * Requests answered from the cache after a {@code 304}.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Cacheable requests that had to be decoded.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * The request to send: with {@code If-None-Match} when there is an entry,
+	 * without {@link #VARIANT}.
+	 */
+	private static Request conditional(Request request, Entry entry) {
+		if (entry == null && !request.headers().containsKey(VARIANT)) {
+			return request;
+		}
+		Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+		headers.remove(VARIANT);
+		if (entry != null) {
+			headers.put(IF_NONE_MATCH, Collections.singletonList(entry.etag));
+		}
+		return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+	}
+
+	/**
+	 * Turns a {@code 304} into a {@code 200} with the cached body. The
+	 * response keeps the request of the caller, {@link #VARIANT} included.
+	 */
+	private Response revalidated(Request request, String key, Entry entry, Response response) {
+		if (response.status() != 304 || entry == null) {
+			if (response.status() >= 200 && response.status() < 300 && key != null) {
+				misses.increment();
+			}
+			return response.request() == request ? response : response.toBuilder().request(request).build();
+		}
+		response.close();
+		hits.increment();
+		return Response.builder().status(200).reason("OK").headers(response.headers()).request(request)
+				.body(new NotModifiedBody(entry)).build();
+	}
+
+	private static String key(Request request) {
+		if (!"GET".equals(request.method())) {
+			return null;
+		}
+		String path = URI.create(request.url()).getRawPath();
+		String key = request.url();
+		if (path.startsWith("/v1/me") || request.url().contains("from_token")) {
+			key = Headers.first(request.headers(), "Authorization") + ' ' + key;
+		}
+		String variant = Headers.first(request.headers(), VARIANT);
+		return variant == null ? key : variant + ' ' + key;
+	}
+
+	private static class Entry {
+		final String etag;
+		final byte[] body;
+
+		Entry(String etag, byte[] body) {
+			this.etag = etag;
+			this.body = body;
+		}
+	}
+
+	private static class NotModifiedBody implements Response.Body {
+
+		final Entry entry;
+
+		NotModifiedBody(Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public Integer length() {
+			return entry.body.length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public InputStream asInputStream() {
+			return new ByteArrayInputStream(entry.body);
+		}
+
+		@Override
+		public Reader asReader() {
+			return new InputStreamReader(asInputStream(), Util.UTF_8);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.net.URI;
+import java.util.regex.Pattern;
+
+import feign.Request;
+
+/**
+ * Groups requests by endpoint for statistics: method and path, without the
+ * query, with Spotify IDs and user IDs replaced by placeholders, such as
+ * {@code GET /v1/albums/{id}/tracks}.
+ */
+public final class Endpoints {
+
+	private static final Pattern SPOTIFY_ID = Pattern.compile("[0-9A-Za-z]{22}");
+
+	private Endpoints() {
+	}
+
+	public static String of(Request request) {
+		return of(request.method(), request.url());
+	}
+
+	/**
+	 * @param url
+	 *            absolute URL or path, possibly a Feign template such as
+	 *            {@code /v1/albums/{id}/tracks}
+	 */
+	public static String of(String method, String url) {
+		String path = url.startsWith("/") ? url : URI.create(url).getRawPath();
+		int query = path.indexOf('?');
+		if (query >= 0) {
+			path = path.substring(0, query);
+		}
+		StringBuilder endpoint = new StringBuilder(method).append(' ');
+		String previous = null;
+		for (String segment : path.split("/")) {
+			if (segment.isEmpty()) {
+				continue;
+			}
+			endpoint.append('/');
+			if ("users".equals(previous)) {
+				endpoint.append("{user_id}");
+			} else if (SPOTIFY_ID.matcher(segment).matches() || segment.startsWith("{")) {
+				endpoint.append("{id}");
+			} else {
+				endpoint.append(segment);
+			}
+			previous = segment;
+		}
+		return endpoint.toString();
+	}
+}
@@ -0,0 +1,232 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * {@link Client} decorator negotiating compressed responses.
+ * <p>
+ * Requests without an {@code Accept-Encoding} header ask for
+ * {@code gzip, deflate}. A compressed response body is inflated while the
+ * decoder reads it, without being buffered; its {@code Content-Encoding} and
+ * {@code Content-Length} headers are removed. When the body is closed, the
+ * optional {@link CompressionListener} gets the compressed and decoded sizes.
+ * <p>
+ * The delegate must hand over response bodies as received: disable any
+ * decompression of its own.
+ */
+public class GzipClient implements Client {
+
+	static final String ACCEPT_ENCODING = "Accept-Encoding";
+	static final String CONTENT_ENCODING = "Content-Encoding";
+	static final String CONTENT_LENGTH = "Content-Length";
+	static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+
+	private final Client delegate;
+	private final CompressionListener listener;
+
+	public GzipClient(Client delegate) {
+		this(delegate, null);
+	}
+
+	public GzipClient(Client delegate, CompressionListener listener) {
+		this.delegate = delegate;
+		this.listener = listener;
+	}
+
+	@Override
+	public Response execute(Request request, Options options) throws IOException {
+		Response response = delegate.execute(negotiate(request), options);
+		return decode(request, response, listener);
+	}
+
+	static Request negotiate(Request request) {
+		if (Headers.first(request.headers(), ACCEPT_ENCODING) != null) {
+			return request;
+		}
+		Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+		headers.put(ACCEPT_ENCODING, Collections.singletonList(SUPPORTED_ENCODINGS));
+		return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+	}
+
+	static Response decode(Request request, Response response, CompressionListener listener) throws IOException {
+		String encoding = Headers.first(response.headers(), CONTENT_ENCODING);
+		if (encoding == null || response.body() == null) {
+			return response;
+		}
+		encoding = encoding.trim().toLowerCase();
+		if (!"gzip".equals(encoding) && !"deflate".equals(encoding)) {
+			return response;
+		}
+
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+			if (!CONTENT_ENCODING.equalsIgnoreCase(header.getKey())
+					&& !CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+				headers.put(header.getKey(), header.getValue());
+			}
+		}
+
+		CountingInputStream wire = new CountingInputStream(response.body().asInputStream());
+		PushbackInputStream peek = new PushbackInputStream(wire, 2);
+		byte[] head = new byte[2];
+		int read = 0;
+		for (int n; read < 2 && (n = peek.read(head, read, 2 - read)) != -1;) {
+			read += n;
+		}
+		if (read == 0) {
+			peek.close();
+			return Response.builder().status(response.status()).reason(response.reason()).headers(headers)
+					.request(request).body(new byte[0]).build();
+		}
+		peek.unread(head, 0, read);
+
+		InputStream inflated;
+		if ("gzip".equals(encoding)) {
+			inflated = new GZIPInputStream(peek);
+		} else {
+			inflated = new DeflateInputStream(peek, read == 2 && isZlibHeader(head[0], head[1]));
+		}
+		InputStream body = new ReportingInputStream(inflated, wire, listener, request, encoding);
+		return Response.builder().status(response.status()).reason(response.reason()).headers(headers)
+				.request(request).body(body, null).build();
+	}
+
+	/**
+	 * Servers disagree on what {@code deflate} means: a zlib stream as the
+	 * specification says, or raw deflate data. Tells them apart by the zlib
+	 * header.
+	 */
+	private static boolean isZlibHeader(byte first, byte second) {
+		return (first & 0x0F) == 8 && (((first & 0xFF) << 8) | (second & 0xFF)) % 31 == 0;
+	}
+
+	/**
+	 * Same negotiation for an {@link AsyncClient}. Bodies arrive buffered, so
+	 * only their inflation is streamed.
+	 */
+	public static class Async implements AsyncClient {
+
+		private final AsyncClient delegate;
+		private final CompressionListener listener;
+
+		public Async(AsyncClient delegate) {
+			this(delegate, null);
+		}
+
+		public Async(AsyncClient delegate, CompressionListener listener) {
+			this.delegate = delegate;
+			this.listener = listener;
+		}
+
+		@Override
+		public CompletableFuture<Response> execute(Request request, Options options) {
+			CompletableFuture<Response> exchange = delegate.execute(negotiate(request), options);
+			return AsyncClient.propagateCancellation(exchange.thenCompose(response -> {
+				CompletableFuture<Response> decoded = new CompletableFuture<>();
+				try {
+					decoded.complete(decode(request, response, listener));
+				} catch (IOException e) {
+					decoded.completeExceptionally(e);
+				}
+				return decoded;
+			}), exchange);
+		}
+	}
+
+	private static class DeflateInputStream extends InflaterInputStream {
+
+		DeflateInputStream(InputStream in, boolean zlib) {
+			super(in, new Inflater(!zlib));
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				inf.end();
+			}
+		}
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	private static class ReportingInputStream extends CountingInputStream {
+		private final CountingInputStream wire;
+		private final CompressionListener listener;
+		private final Request request;
+		private final String encoding;
+		private boolean closed;
+
+		ReportingInputStream(InputStream inflated, CountingInputStream wire, CompressionListener listener,
+				Request request, String encoding) {
+			super(inflated);
+			this.wire = wire;
+			this.listener = listener;
+			this.request = request;
+			this.encoding = encoding;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				super.close();
+			} finally {
+				if (listener != null) {
+					listener.onResponse(Endpoints.of(request), encoding, wire.count, count);
+				}
+			}
+		}
+	}
+}
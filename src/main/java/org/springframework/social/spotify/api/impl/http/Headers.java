@@ -0,0 +1,26 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Case-insensitive lookups in Feign header maps.
+ */
+final class Headers {
+
+	private Headers() {
+	}
+
+	/**
+	 * First value of the header {@code name}, or {@code null}.
+	 */
+	static String first(Map<String, Collection<String>> headers, String name) {
+		for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null
+					&& !header.getValue().isEmpty()) {
+				return header.getValue().iterator().next();
+			}
+		}
+		return null;
+	}
+}
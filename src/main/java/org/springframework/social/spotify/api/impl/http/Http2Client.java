@@ -0,0 +1,188 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import okhttp3.ConnectionPool;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+/**
+ * {@link Client} that multiplexes concurrent requests to the same host over a
+ * few HTTP/2 connections, falling back to HTTP/1.1 when the server does not
+ * negotiate HTTP/2.
+ * <p>
+ * Built on OkHttp, which must be added to the classpath: the library still
+ * targets Java 8, so {@code java.net.http.HttpClient} cannot be used. Pass an
+ * instance to {@code new SpotifyClientFactory(client)} to select it. Close the
+ * client to release its connections.
+ * <p>
+ * The timeouts of the builder apply unless a request is executed with other
+ * {@link Options} than Feign's defaults, which then take precedence.
+ */
+public class Http2Client implements Client, Closeable {
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+	private static final Options DEFAULT_OPTIONS = new Options();
+
+	private final OkHttpClient httpClient;
+
+	private Http2Client(Builder builder) {
+		httpClient = new OkHttpClient.Builder()
+				.protocols(builder.priorKnowledge ? Arrays.asList(Protocol.H2_PRIOR_KNOWLEDGE)
+						: Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+				.connectionPool(new ConnectionPool(builder.maxIdleConnections, builder.keepAliveMillis,
+						TimeUnit.MILLISECONDS))
+				.connectTimeout(builder.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+				.readTimeout(builder.readTimeoutMillis, TimeUnit.MILLISECONDS).followRedirects(false).build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public Response execute(Request request, Options options) throws IOException {
+		okhttp3.Response response = client(options).newCall(toOkHttpRequest(request)).execute();
+		ResponseBody body = response.body();
+		long length = body.contentLength();
+
+		return Response.builder().status(response.code()).reason(response.message())
+				.headers(new HashMap<String, Collection<String>>(response.headers().toMultimap())).request(request)
+				.body(body.byteStream(), length < 0 || length > Integer.MAX_VALUE ? null : (int) length).build();
+	}
+
+	/**
+	 * Connections currently open, busy or idle.
+	 */
+	public int getOpenConnections() {
+		return httpClient.connectionPool().connectionCount();
+	}
+
+	@Override
+	public void close() {
+		httpClient.dispatcher().executorService().shutdown();
+		httpClient.connectionPool().evictAll();
+	}
+
+	/**
+	 * The client, with the timeouts of {@code options} when they are not
+	 * Feign's defaults. Derived clients share the connections and threads of
+	 * this one.
+	 */
+	private OkHttpClient client(Options options) {
+		if (options == null || options.connectTimeoutMillis() == DEFAULT_OPTIONS.connectTimeoutMillis()
+				&& options.readTimeoutMillis() == DEFAULT_OPTIONS.readTimeoutMillis()) {
+			return httpClient;
+		}
+		return httpClient.newBuilder().connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+				.readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS).build();
+	}
+
+	private static okhttp3.Request toOkHttpRequest(Request request) {
+		Headers.Builder headers = new Headers.Builder();
+		MediaType contentType = null;
+		for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+			for (String value : header.getValue()) {
+				headers.add(header.getKey(), value);
+				if ("Content-Type".equalsIgnoreCase(header.getKey())) {
+					contentType = MediaType.parse(value);
+				}
+			}
+		}
+
+		String method = request.method();
+		byte[] body = permitsRequestBody(method) ? request.body() : null;
+		if (body == null && requiresRequestBody(method)) {
+			body = EMPTY_BODY;
+		}
+
+		return new okhttp3.Request.Builder().url(request.url()).headers(headers.build())
+				.method(method, body == null ? null : RequestBody.create(contentType, body)).build();
+	}
+
+	/**
+	 * Methods OkHttp sends with a body, as with {@code GET} and {@code HEAD}
+	 * it rejects one.
+	 */
+	private static boolean permitsRequestBody(String method) {
+		return !("GET".equals(method) || "HEAD".equals(method));
+	}
+
+	/**
+	 * Methods OkHttp only sends with a body, empty if need be.
+	 */
+	private static boolean requiresRequestBody(String method) {
+		return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)
+				|| "PROPPATCH".equals(method) || "REPORT".equals(method);
+	}
+
+	public static class Builder {
+		private int maxIdleConnections = 5;
+		private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+		private int connectTimeoutMillis = 10 * 1000;
+		private int readTimeoutMillis = 60 * 1000;
+		private boolean priorKnowledge;
+
+		private Builder() {
+		}
+
+		/**
+		 * Maximum number of idle connections kept in the pool. Default: 5.
+		 */
+		public Builder maxIdleConnections(int maxIdleConnections) {
+			this.maxIdleConnections = maxIdleConnections;
+			return this;
+		}
+
+		/**
+		 * Time after which an idle connection is closed. Default: 5min.
+		 */
+		public Builder keepAlive(long duration, TimeUnit unit) {
+			this.keepAliveMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Connect timeout. Default: 10s.
+		 */
+		public Builder connectTimeout(long duration, TimeUnit unit) {
+			this.connectTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Read timeout. Default: 60s.
+		 */
+		public Builder readTimeout(long duration, TimeUnit unit) {
+			this.readTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Speaks cleartext HTTP/2 without negotiation, for servers known to
+		 * support it such as local proxies or stubs. Default: false.
+		 */
+		public Builder priorKnowledge(boolean priorKnowledge) {
+			this.priorKnowledge = priorKnowledge;
+			return this;
+		}
+
+		public Http2Client build() {
+			return new Http2Client(this);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.httpclient.ApacheHttpClient;
+
+/**
+ * Keep-alive {@link Client} backed by a pool of Apache HttpClient connections.
+ * <p>
+ * Connections are reused across requests and capped per route, idle ones are
+ * reaped in the background and host lookups are cached. The connect and read
+ * timeouts configured here apply to every request, whatever options Feign
+ * passes. Response bodies are left compressed, for {@link GzipClient} to
+ * inflate. Close the client to release the pool.
+ */
+public class PooledHttpClient implements Client, Closeable {
+
+	private final CloseableHttpClient httpClient;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final Client delegate;
+	private final Options options;
+
+	private PooledHttpClient(Builder builder) {
+		connectionManager = new PoolingHttpClientConnectionManager(
+				RegistryBuilder.<ConnectionSocketFactory> create()
+						.register("http", PlainConnectionSocketFactory.getSocketFactory())
+						.register("https", SSLConnectionSocketFactory.getSocketFactory()).build(),
+				null, null, new CachingDnsResolver(builder.dnsCacheTtlMillis), builder.connectionTimeToLiveMillis,
+				TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(builder.maxConnectionsTotal);
+		connectionManager.setDefaultMaxPerRoute(builder.maxConnectionsPerRoute);
+		connectionManager.setValidateAfterInactivity(builder.validateAfterInactivityMillis);
+
+		options = new Options(builder.connectTimeoutMillis, builder.readTimeoutMillis);
+
+		httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(builder.connectTimeoutMillis)
+						.setSocketTimeout(builder.readTimeoutMillis)
+						.setConnectionRequestTimeout(builder.connectTimeoutMillis).build())
+				.disableContentCompression().evictExpiredConnections().evictIdleConnections(builder.maxIdleMillis, TimeUnit.MILLISECONDS)
+				.build();
+		delegate = new ApacheHttpClient(httpClient);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public Response execute(Request request, Options ignored) throws IOException {
+		return delegate.execute(request, options);
+	}
+
+	/**
+	 * Connections currently leased plus those kept alive in the pool.
+	 */
+	public int getOpenConnections() {
+		return connectionManager.getTotalStats().getLeased() + connectionManager.getTotalStats().getAvailable();
+	}
+
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+	}
+
+	public static class Builder {
+		private int maxConnectionsPerRoute = 20;
+		private int maxConnectionsTotal = 200;
+		private long maxIdleMillis = TimeUnit.SECONDS.toMillis(30);
+		private long connectionTimeToLiveMillis = TimeUnit.MINUTES.toMillis(5);
+		private int validateAfterInactivityMillis = 2000;
+		private int connectTimeoutMillis = 10 * 1000;
+		private int readTimeoutMillis = 60 * 1000;
+		private long dnsCacheTtlMillis = TimeUnit.MINUTES.toMillis(1);
+
+		private Builder() {
+		}
+
+		/**
+		 * Maximum number of connections to a single host. Default: 20.
+		 */
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		/**
+		 * Maximum number of connections over all hosts. Default: 200.
+		 */
+		public Builder maxConnectionsTotal(int maxConnectionsTotal) {
+			this.maxConnectionsTotal = maxConnectionsTotal;
+			return this;
+		}
+
+		/**
+		 * Time after which an unused connection is closed. Default: 30s.
+		 */
+		public Builder maxIdle(long duration, TimeUnit unit) {
+			this.maxIdleMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Maximum lifetime of a connection, used or not. Default: 5min.
+		 */
+		public Builder connectionTimeToLive(long duration, TimeUnit unit) {
+			this.connectionTimeToLiveMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Idle time after which a pooled connection is checked before being
+		 * reused. Default: 2s.
+		 */
+		public Builder validateAfterInactivity(long duration, TimeUnit unit) {
+			this.validateAfterInactivityMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Connect timeout, also used while waiting for a free pooled
+		 * connection. Default: 10s.
+		 */
+		public Builder connectTimeout(long duration, TimeUnit unit) {
+			this.connectTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * Socket read timeout. Default: 60s.
+		 */
+		public Builder readTimeout(long duration, TimeUnit unit) {
+			this.readTimeoutMillis = (int) unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * How long resolved host addresses are reused. Default: 1min.
+		 */
+		public Builder dnsCacheTtl(long duration, TimeUnit unit) {
+			this.dnsCacheTtlMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		public PooledHttpClient build() {
+			return new PooledHttpClient(this);
+		}
+	}
+}
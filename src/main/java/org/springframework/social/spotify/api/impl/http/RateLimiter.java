@@ -0,0 +1,352 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.Closeable;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+
+/**
+ * App-wide token bucket in front of the transport, adapting to the quota of
+ * the Spotify application.
+ * <p>
+ * Requests are let through at {@link Builder#permitsPerSecond(double)}, with
+ * bursts of up to {@link Builder#burst(int)}, and queue for their turn beyond
+ * that. A {@code 429 Too Many Requests} halves the rate, down to
+ * {@link Builder#minPermitsPerSecond(double)}, and holds every request until
+ * its {@code Retry-After} has elapsed; each successful response then adds
+ * back a small fraction of the rate, up to the configured one.
+ * <p>
+ * Synchronous requests wait by parking their thread. Asynchronous ones are
+ * sent from a single scheduler thread when their turn comes, without holding
+ * a thread meanwhile. Close the limiter to stop that thread.
+ */
+public class RateLimiter implements Closeable {
+
+	static final String RETRY_AFTER = "Retry-After";
+	static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+
+	private final double maxPermitsPerSecond;
+	private final double minPermitsPerSecond;
+	private final double increasePerSuccess;
+	private final int burst;
+
+	private double permitsPerSecond;
+	private long nextFreeNanos;
+	private long pausedUntilNanos;
+
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder delayed = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+	private final LongAdder waitedNanos = new LongAdder();
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "spotify-rate-limiter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private RateLimiter(Builder builder) {
+		this.maxPermitsPerSecond = builder.permitsPerSecond;
+		this.minPermitsPerSecond = Math.min(builder.minPermitsPerSecond, builder.permitsPerSecond);
+		this.increasePerSuccess = builder.permitsPerSecond / 100;
+		this.burst = builder.burst;
+		this.permitsPerSecond = builder.permitsPerSecond;
+		this.nextFreeNanos = System.nanoTime();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Client client(Client delegate) {
+		return (request, options) -> {
+			acquire();
+			return record(delegate.execute(request, options));
+		};
+	}
+
+	public AsyncClient asyncClient(AsyncClient delegate) {
+		return new AsyncClient() {
+			@Override
+			public CompletableFuture<Response> execute(Request request, Options options) {
+				// the permit until it is granted, then the exchange
+				AtomicReference<Future<?>> upstream = new AtomicReference<>();
+				CompletableFuture<Void> permit = acquireAsync();
+				upstream.set(permit);
+				CompletableFuture<Response> response = permit.thenCompose(ignored -> {
+					CompletableFuture<Response> exchange = delegate.execute(request, options);
+					if (upstream.getAndSet(exchange) == null) {
+						exchange.cancel(true);
+					}
+					return exchange;
+				}).thenApply(RateLimiter.this::record);
+				response.whenComplete((value, e) -> {
+					if (response.isCancelled()) {
+						upstream.getAndSet(null).cancel(true);
+					}
+				});
+				return response;
+			}
+		};
+	}
+
+	/**
+	 * Waits for a permit, parking the calling thread.
+	 */
+	public void acquire() {
+		long delay = reserve();
+		if (delay <= 0) {
+			return;
+		}
+		waiting.incrementAndGet();
+		try {
+			do {
+				TimeUnit.NANOSECONDS.sleep(delay);
+				delay = reserveIfPaused();
+			} while (delay > 0);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a permit", e);
+		} finally {
+			waiting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns a future completed when a permit is available, on the scheduler
+	 * thread unless one is available right away.
+	 */
+	public CompletableFuture<Void> acquireAsync() {
+		long delay = reserve();
+		if (delay <= 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> permit = new CompletableFuture<>();
+		waiting.incrementAndGet();
+		schedule(permit, delay);
+		return permit;
+	}
+
+	/**
+	 * Slows down after a {@code 429}: halves the rate and holds every request
+	 * for {@code retryAfterMillis}.
+	 */
+	public synchronized void onThrottled(long retryAfterMillis) {
+		throttled.increment();
+		permitsPerSecond = Math.max(minPermitsPerSecond, permitsPerSecond / 2);
+		long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+		if (until - pausedUntilNanos > 0) {
+			pausedUntilNanos = until;
+		}
+		// no burst when the pause ends
+		long resume = pausedUntilNanos + tolerance();
+		if (resume - nextFreeNanos > 0) {
+			nextFreeNanos = resume;
+		}
+	}
+
+	public synchronized void onSuccess() {
+		permitsPerSecond = Math.min(maxPermitsPerSecond, permitsPerSecond + increasePerSuccess);
+	}
+
+	/**
+	 * Current rate, between the minimum and the configured one.
+	 */
+	public synchronized double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public double getMaxPermitsPerSecond() {
+		return maxPermitsPerSecond;
+	}
+
+	/**
+	 * Time left before requests are let through again after a {@code 429}, or
+	 * zero.
+	 */
+	public synchronized long getPausedMillis() {
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime()));
+	}
+
+	/**
+	 * Requests currently waiting for a permit.
+	 */
+	public int getWaiting() {
+		return waiting.get();
+	}
+
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	/**
+	 * Requests that had to wait for a permit.
+	 */
+	public long getDelayed() {
+		return delayed.sum();
+	}
+
+	/**
+	 * {@code 429} responses received.
+	 */
+	public long getThrottled() {
+		return throttled.sum();
+	}
+
+	public long getWaitedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(waitedNanos.sum());
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Delay of a {@code Retry-After} header, in seconds or as an HTTP date, or
+	 * the default of one second.
+	 */
+	static long retryAfterMillis(String retryAfter) {
+		if (retryAfter != null) {
+			try {
+				return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+			} catch (NumberFormatException e) {
+				try {
+					long at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+							.toEpochMilli();
+					return Math.max(0, at - System.currentTimeMillis());
+				} catch (DateTimeParseException invalid) {
+					// falls back to the default
+				}
+			}
+		}
+		return DEFAULT_RETRY_AFTER_MILLIS;
+	}
+
+	private Response record(Response response) {
+		if (response.status() == 429) {
+			onThrottled(retryAfterMillis(Headers.first(response.headers(), RETRY_AFTER)));
+		} else {
+			onSuccess();
+		}
+		return response;
+	}
+
+	private void schedule(CompletableFuture<Void> permit, long delay) {
+		scheduler.schedule(() -> {
+			long next = reserveIfPaused();
+			if (next > 0) {
+				schedule(permit, next);
+			} else {
+				waiting.decrementAndGet();
+				permit.complete(null);
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+	}
+
+	private long reserve() {
+		requests.increment();
+		long delay = slot();
+		if (delay > 0) {
+			delayed.increment();
+		}
+		return delay;
+	}
+
+	/**
+	 * A request whose turn came during a pause that started after it was
+	 * scheduled goes back in line.
+	 */
+	private long reserveIfPaused() {
+		synchronized (this) {
+			if (pausedUntilNanos - System.nanoTime() <= 0) {
+				return 0;
+			}
+		}
+		return slot();
+	}
+
+	/**
+	 * Takes the next slot of the schedule and returns how long to wait for it.
+	 * Up to {@code burst} slots can be taken ahead of time.
+	 */
+	private synchronized long slot() {
+		long now = System.nanoTime();
+		if (now - nextFreeNanos > 0) {
+			nextFreeNanos = now;
+		}
+		long allowedAt = Math.max(0, nextFreeNanos - tolerance() - now) + now;
+		if (pausedUntilNanos - allowedAt > 0) {
+			allowedAt = pausedUntilNanos;
+		}
+		nextFreeNanos = Math.max(nextFreeNanos, allowedAt) + interval();
+		long delay = allowedAt - now;
+		if (delay > 0) {
+			waitedNanos.add(delay);
+		}
+		return delay;
+	}
+
+	private long interval() {
+		return (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+	}
+
+	private long tolerance() {
+		return (burst - 1) * interval();
+	}
+
+	public static class Builder {
+		private double permitsPerSecond = 10;
+		private double minPermitsPerSecond = 1;
+		private int burst = 10;
+
+		private Builder() {
+		}
+
+		/**
+		 * Steady rate of requests, over every template.
+		 * {@link Double#POSITIVE_INFINITY} lets every request through at
+		 * once, except while holding them after a {@code 429}. Default: 10.
+		 */
+		public Builder permitsPerSecond(double permitsPerSecond) {
+			this.permitsPerSecond = permitsPerSecond;
+			return this;
+		}
+
+		/**
+		 * Rate below which {@code 429} responses do not slow down further.
+		 * Default: 1.
+		 */
+		public Builder minPermitsPerSecond(double minPermitsPerSecond) {
+			this.minPermitsPerSecond = minPermitsPerSecond;
+			return this;
+		}
+
+		/**
+		 * Number of requests let through at once after a quiet period.
+		 * Default: 10.
+		 */
+		public Builder burst(int burst) {
+			this.burst = burst;
+			return this;
+		}
+
+		public RateLimiter build() {
+			return new RateLimiter(this);
+		}
+	}
+}
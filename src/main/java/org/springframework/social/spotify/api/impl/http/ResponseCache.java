@@ -0,0 +1,638 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import feign.Client;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Response cache honoring {@code Cache-Control: max-age}, in front of the
+ * transport.
+ * <p>
+ * Successful {@code GET} responses with a positive {@code max-age} are kept
+ * until they expire and served without a request. Entries live in a memory
+ * tier bounded by {@link Builder#memoryBytes(long)}; least recently used
+ * entries, and entries too large for the memory tier, move to the optional
+ * disk tier, bounded by {@link Builder#disk(Path, long)}. A disk hit moves the
+ * entry back to memory, unless it is too large for it, so that every entry
+ * lives in one tier.
+ * <p>
+ * Catalog endpoints ({@code /v1/albums}, {@code /v1/artists},
+ * {@code /v1/tracks}) are shared by every access token, unless they ask for
+ * {@code market=from_token} or their response is {@code Cache-Control:
+ * private}. Every other endpoint, {@code /v1/me} included, is cached per
+ * access token.
+ * <p>
+ * Closing the cache drops its entries and deletes the files of its disk tier.
+ */
+public class ResponseCache implements Closeable {
+
+	private static final String[] SHARED_PATHS = { "/v1/albums", "/v1/artists", "/v1/tracks" };
+	private static final String CACHE_CONTROL = "Cache-Control";
+	private static final String AGE = "Age";
+
+	private final MemoryTier memory;
+	private final DiskTier disk;
+
+	private final LongAdder memoryHits = new LongAdder();
+	private final LongAdder diskHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder memoryEvictions = new LongAdder();
+	private final LongAdder diskEvictions = new LongAdder();
+
+	private ResponseCache(Builder builder) {
+		memory = new MemoryTier(builder.memoryBytes);
+		try {
+			disk = builder.diskDirectory == null ? null : new DiskTier(builder.diskDirectory, builder.diskBytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Client client(Client delegate) {
+		return (request, options) -> {
+			String key = key(request);
+			if (key == null) {
+				return delegate.execute(request, options);
+			}
+			Entry cached = get(key, request);
+			if (cached != null) {
+				return cached.toResponse(request);
+			}
+			return store(key, request, delegate.execute(request, options));
+		};
+	}
+
+	public AsyncClient asyncClient(AsyncClient delegate) {
+		return new AsyncClient() {
+			@Override
+			public CompletableFuture<Response> execute(Request request, Options options) {
+				String key = key(request);
+				if (key == null) {
+					return delegate.execute(request, options);
+				}
+				Entry cached = get(key, request);
+				if (cached != null) {
+					return CompletableFuture.completedFuture(cached.toResponse(request));
+				}
+				CompletableFuture<Response> exchange = delegate.execute(request, options);
+				return AsyncClient.propagateCancellation(exchange.thenCompose(response -> {
+					CompletableFuture<Response> stored = new CompletableFuture<>();
+					try {
+						stored.complete(store(key, request, response));
+					} catch (IOException e) {
+						stored.completeExceptionally(e);
+					}
+					return stored;
+				}), exchange);
+			}
+		};
+	}
+
+	public long getMemoryHits() {
+		return memoryHits.sum();
+	}
+
+	public long getDiskHits() {
+		return diskHits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Entries moved out of the memory tier to stay within its budget, whether
+	 * or not a disk tier took them.
+	 */
+	public long getMemoryEvictions() {
+		return memoryEvictions.sum();
+	}
+
+	/**
+	 * Entries deleted from the disk tier to stay within its budget.
+	 */
+	public long getDiskEvictions() {
+		return diskEvictions.sum();
+	}
+
+	public long getMemoryBytes() {
+		return memory.bytes();
+	}
+
+	public long getDiskBytes() {
+		return disk == null ? 0 : disk.bytes();
+	}
+
+	/**
+	 * Drops every entry and deletes the files of the disk tier.
+	 */
+	@Override
+	public void close() {
+		memory.clear();
+		if (disk != null) {
+			disk.clear();
+		}
+	}
+
+	/**
+	 * Looks up {@code key}, then the entry of the access token for a shared
+	 * key whose response was private.
+	 */
+	private Entry get(String key, Request request) {
+		long now = System.currentTimeMillis();
+		Entry entry = find(key, now);
+		if (entry == null && key.equals(request.url())) {
+			entry = find(privateKey(request), now);
+		}
+		if (entry == null) {
+			misses.increment();
+		}
+		return entry;
+	}
+
+	private Entry find(String key, long now) {
+		Entry entry = memory.get(key, now);
+		if (entry != null) {
+			memoryHits.increment();
+			return entry;
+		}
+		if (disk != null) {
+			entry = disk.get(key, now, memory.budget);
+			if (entry != null) {
+				diskHits.increment();
+				if (entry.size <= memory.budget) {
+					put(key, entry);
+				}
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	private Response store(String key, Request request, Response response) throws IOException {
+		long maxAge = response.status() == 200 && response.body() != null ? maxAgeMillis(response.headers()) : 0;
+		if (maxAge <= 0) {
+			return response;
+		}
+		if (key.equals(request.url()) && isPrivate(response.headers())) {
+			key = privateKey(request);
+		}
+		byte[] body;
+		try {
+			body = Util.toByteArray(response.body().asInputStream());
+		} finally {
+			response.close();
+		}
+		Entry entry = new Entry(key, response.status(), response.reason(), response.headers(), body,
+				System.currentTimeMillis() + maxAge);
+		put(key, entry);
+		return entry.toResponse(request);
+	}
+
+	private void put(String key, Entry entry) {
+		List<Entry> spilled = new ArrayList<>();
+		if (entry.size > memory.budget) {
+			spilled.add(entry);
+		} else {
+			List<Entry> evicted = memory.put(key, entry);
+			memoryEvictions.add(evicted.size());
+			spilled.addAll(evicted);
+		}
+		if (disk != null) {
+			long now = System.currentTimeMillis();
+			for (Entry spill : spilled) {
+				if (spill.expiresAt > now) {
+					diskEvictions.add(disk.put(spill));
+				}
+			}
+		}
+	}
+
+	static long maxAgeMillis(Map<String, Collection<String>> headers) {
+		String cacheControl = Headers.first(headers, CACHE_CONTROL);
+		if (cacheControl == null) {
+			return 0;
+		}
+		long maxAge = 0;
+		for (String directive : cacheControl.split(",")) {
+			directive = directive.trim().toLowerCase();
+			if (directive.equals("no-store") || directive.equals("no-cache")) {
+				return 0;
+			}
+			if (directive.startsWith("max-age=")) {
+				try {
+					maxAge = Long.parseLong(directive.substring("max-age=".length()).trim());
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		String age = Headers.first(headers, AGE);
+		if (age != null) {
+			try {
+				maxAge -= Long.parseLong(age.trim());
+			} catch (NumberFormatException e) {
+				// an invalid Age is ignored
+			}
+		}
+		return TimeUnit.SECONDS.toMillis(maxAge);
+	}
+
+	/**
+	 * Whether {@code Cache-Control} restricts the response to one user.
+	 */
+	static boolean isPrivate(Map<String, Collection<String>> headers) {
+		String cacheControl = Headers.first(headers, CACHE_CONTROL);
+		if (cacheControl != null) {
+			for (String directive : cacheControl.split(",")) {
+				if (directive.trim().toLowerCase().startsWith("private")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Key of the response, {@code null} when it is not cached: the URL for the
+	 * shared endpoints, otherwise {@link #privateKey(Request)}.
+	 */
+	private static String key(Request request) {
+		if (!"GET".equals(request.method())) {
+			return null;
+		}
+		String path = URI.create(request.url()).getRawPath();
+		if (!request.url().contains("from_token")) {
+			for (String shared : SHARED_PATHS) {
+				if (path.equals(shared) || path.startsWith(shared + "/")) {
+					return request.url();
+				}
+			}
+		}
+		return privateKey(request);
+	}
+
+	private static String privateKey(Request request) {
+		return Headers.first(request.headers(), "Authorization") + ' ' + request.url();
+	}
+
+	static class Entry {
+		final String key;
+		final int status;
+		final String reason;
+		final Map<String, Collection<String>> headers;
+		final byte[] body;
+		final long expiresAt;
+		final long size;
+
+		Entry(String key, int status, String reason, Map<String, Collection<String>> headers, byte[] body,
+				long expiresAt) {
+			this.key = key;
+			this.status = status;
+			this.reason = reason;
+			this.headers = new LinkedHashMap<>(headers);
+			this.body = body;
+			this.expiresAt = expiresAt;
+
+			long size = 64 + 2 * key.length() + body.length;
+			for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+				size += 2 * header.getKey().length();
+				for (String value : header.getValue()) {
+					size += 2 * value.length();
+				}
+			}
+			this.size = size;
+		}
+
+		Response toResponse(Request request) {
+			return Response.builder().status(status).reason(reason).headers(headers).request(request).body(body)
+					.build();
+		}
+	}
+
+	private class MemoryTier {
+		private final long budget;
+		private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+		private long bytes;
+
+		MemoryTier(long budget) {
+			this.budget = budget;
+		}
+
+		synchronized Entry get(String key, long now) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.expiresAt <= now) {
+				remove(key);
+				return null;
+			}
+			return entry;
+		}
+
+		/**
+		 * Returns the least recently used entries evicted to make room.
+		 */
+		synchronized List<Entry> put(String key, Entry entry) {
+			List<Entry> evicted = new ArrayList<>();
+			remove(key);
+			entries.put(key, entry);
+			bytes += entry.size;
+			Iterator<Entry> eldest = entries.values().iterator();
+			while (bytes > budget && eldest.hasNext()) {
+				Entry next = eldest.next();
+				eldest.remove();
+				bytes -= next.size;
+				evicted.add(next);
+			}
+			return evicted;
+		}
+
+		synchronized long bytes() {
+			return bytes;
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			bytes = 0;
+		}
+
+		private void remove(String key) {
+			Entry removed = entries.remove(key);
+			if (removed != null) {
+				bytes -= removed.size;
+			}
+		}
+	}
+
+	/**
+	 * One file per entry, under a name derived from its key. The index only
+	 * lives in memory: files left by a previous run are deleted on startup.
+	 */
+	private static class DiskTier {
+		private static final String SUFFIX = ".entry";
+		private static final String TEMP_PREFIX = "write";
+		private static final String TEMP_SUFFIX = ".tmp";
+
+		private final Path directory;
+		private final long budget;
+		private final LinkedHashMap<String, DiskEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+		private long bytes;
+
+		DiskTier(Path directory, long budget) throws IOException {
+			this.directory = Files.createDirectories(directory);
+			this.budget = budget;
+			deleteFiles();
+		}
+
+		/**
+		 * Reads the entry and, unless it is larger than {@code memoryBudget},
+		 * removes it: it moves to the memory tier, which spills it back when
+		 * evicted.
+		 */
+		Entry get(String key, long now, long memoryBudget) {
+			DiskEntry diskEntry;
+			boolean take;
+			synchronized (this) {
+				diskEntry = index.get(key);
+				if (diskEntry == null) {
+					return null;
+				}
+				if (diskEntry.expiresAt <= now) {
+					remove(key);
+					return null;
+				}
+				take = diskEntry.size <= memoryBudget;
+				if (take) {
+					index.remove(key);
+					bytes -= diskEntry.size;
+				}
+			}
+			try {
+				return read(key, diskEntry.file);
+			} catch (IOException e) {
+				if (!take) {
+					synchronized (this) {
+						remove(key);
+					}
+				}
+				return null;
+			} finally {
+				if (take) {
+					delete(diskEntry.file);
+				}
+			}
+		}
+
+		/**
+		 * Writes the entry and returns the number of entries deleted to stay
+		 * within the budget.
+		 */
+		int put(Entry entry) {
+			if (entry.size > budget) {
+				return 0;
+			}
+			Path file = directory.resolve(fileName(entry.key));
+			Path temp = null;
+			try {
+				temp = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(temp)))) {
+					write(entry, out);
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				delete(temp);
+				return 0;
+			}
+
+			List<Path> deleted = new ArrayList<>();
+			synchronized (this) {
+				DiskEntry previous = index.put(entry.key, new DiskEntry(file, entry.size, entry.expiresAt));
+				if (previous != null) {
+					bytes -= previous.size;
+				}
+				bytes += entry.size;
+				Iterator<DiskEntry> eldest = index.values().iterator();
+				while (bytes > budget && eldest.hasNext()) {
+					DiskEntry next = eldest.next();
+					eldest.remove();
+					bytes -= next.size;
+					deleted.add(next.file);
+				}
+			}
+			for (Path evicted : deleted) {
+				delete(evicted);
+			}
+			return deleted.size();
+		}
+
+		synchronized long bytes() {
+			return bytes;
+		}
+
+		synchronized void clear() {
+			index.clear();
+			bytes = 0;
+			try {
+				deleteFiles();
+			} catch (IOException e) {
+				// left for the next startup
+			}
+		}
+
+		private void remove(String key) {
+			DiskEntry removed = index.remove(key);
+			if (removed != null) {
+				bytes -= removed.size;
+				delete(removed.file);
+			}
+		}
+
+		/**
+		 * Deletes the entry files and the temporary files of unfinished
+		 * writes.
+		 */
+		private void deleteFiles() throws IOException {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+					"{*" + SUFFIX + "," + TEMP_PREFIX + "*" + TEMP_SUFFIX + "}")) {
+				for (Path file : files) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+
+		private static void delete(Path file) {
+			if (file != null) {
+				try {
+					Files.deleteIfExists(file);
+				} catch (IOException e) {
+					// left for the next startup
+				}
+			}
+		}
+
+		private static void write(Entry entry, DataOutputStream out) throws IOException {
+			out.writeLong(entry.expiresAt);
+			out.writeInt(entry.status);
+			out.writeUTF(entry.reason == null ? "" : entry.reason);
+			out.writeInt(entry.headers.size());
+			for (Map.Entry<String, Collection<String>> header : entry.headers.entrySet()) {
+				out.writeUTF(header.getKey());
+				out.writeInt(header.getValue().size());
+				for (String value : header.getValue()) {
+					out.writeUTF(value);
+				}
+			}
+			out.writeInt(entry.body.length);
+			out.write(entry.body);
+		}
+
+		private static Entry read(String key, Path file) throws IOException {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+				long expiresAt = in.readLong();
+				int status = in.readInt();
+				String reason = in.readUTF();
+				int headerCount = in.readInt();
+				Map<String, Collection<String>> headers = new LinkedHashMap<>();
+				for (int i = 0; i < headerCount; i++) {
+					String name = in.readUTF();
+					int valueCount = in.readInt();
+					List<String> values = new ArrayList<>(valueCount);
+					for (int j = 0; j < valueCount; j++) {
+						values.add(in.readUTF());
+					}
+					headers.put(name, values);
+				}
+				byte[] body = new byte[in.readInt()];
+				in.readFully(body);
+				return new Entry(key, status, reason, headers, body, expiresAt);
+			}
+		}
+
+		private static String fileName(String key) {
+			try {
+				StringBuilder name = new StringBuilder();
+				for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+					name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+				}
+				return name.append(SUFFIX).toString();
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static class DiskEntry {
+		final Path file;
+		final long size;
+		final long expiresAt;
+
+		DiskEntry(Path file, long size, long expiresAt) {
+			this.file = file;
+			this.size = size;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	public static class Builder {
+		private long memoryBytes = 16 * 1024 * 1024;
+		private Path diskDirectory;
+		private long diskBytes;
+
+		private Builder() {
+		}
+
+		/**
+		 * Budget of the memory tier, estimated from body and header sizes.
+		 * Default: 16MB.
+		 */
+		public Builder memoryBytes(long memoryBytes) {
+			this.memoryBytes = memoryBytes;
+			return this;
+		}
+
+		/**
+		 * Enables the disk tier in {@code directory}, with a budget of
+		 * {@code bytes}. Default: no disk tier.
+		 */
+		public Builder disk(Path directory, long bytes) {
+			this.diskDirectory = directory;
+			this.diskBytes = bytes;
+			return this;
+		}
+
+		public ResponseCache build() {
+			return new ResponseCache(this);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Albums;
+import org.springframework.social.spotify.api.ArrayToStringExpander;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.TrackSimplified;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link AlbumsOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see AlbumsOperations
+ */
+public interface AsyncAlbumsOperations {
+
+	@RequestLine("GET /v1/albums/{id}")
+	CompletableFuture<Album> getAlbum(@Param("id") String id);
+
+	@RequestLine("GET /v1/albums/{id}?market={market}")
+	CompletableFuture<Album> getAlbum(@Param("id") String albumId, @Param("market") String market);
+
+	@RequestLine("GET /v1/albums/?ids={ids}")
+	CompletableFuture<Albums> getSeveralAlbums(@Param(value = "ids", expander = ArrayToStringExpander.class) String... albunsIds);
+
+	@RequestLine("GET /v1/albums/?ids={ids}&market={market}")
+	CompletableFuture<Albums> getSeveralAlbumsMarket(@Param("market") String market,
+			@Param(value = "ids", expander = ArrayToStringExpander.class) String... albunsIds);
+
+	@RequestLine("GET /v1/albums/{id}/tracks")
+	CompletableFuture<Paging<TrackSimplified>> getAlbumTracks(@Param("id") String albumId);
+
+	@RequestLine("GET /v1/albums/{id}/tracks?market={market}")
+	CompletableFuture<Paging<TrackSimplified>> getAlbumTracks(@Param("id") String albumId,
+			@Param("market") String market);
+
+	@RequestLine("GET /v1/albums/{id}/tracks?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<TrackSimplified>> getAlbumTracks(@Param("id") String albumId, @Param("limit") Integer limit,
+			@Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/albums/{id}/tracks?limit={limit}&offset={offset}&market={market}")
+	CompletableFuture<Paging<TrackSimplified>> getAlbumTracks(@Param("id") String albumId, @Param("limit") Integer limit,
+			@Param("offset") Integer offset, @Param("market") String market);
+}
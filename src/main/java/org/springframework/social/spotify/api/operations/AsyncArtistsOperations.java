@@ -0,0 +1,70 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.AlbumSimplified;
+import org.springframework.social.spotify.api.AlbumType;
+import org.springframework.social.spotify.api.ArrayToStringExpander;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Artists;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.Tracks;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link ArtistsOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see ArtistsOperations
+ */
+public interface AsyncArtistsOperations {
+
+	@RequestLine("GET /v1/artists/{id}")
+	CompletableFuture<Artist> getArtist(@Param("id") String artistId);
+
+	@RequestLine("GET /v1/artists/?ids={ids}")
+	CompletableFuture<Artists> getSeveralArtists(@Param(value = "ids", expander = ArrayToStringExpander.class) String... artistsIds);
+
+	@RequestLine("GET /v1/artists/{id}/albums")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId);
+
+	@RequestLine("GET /v1/artists/{id}/albums?album_type={albumType}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param(value = "albumType", expander = ArrayToStringExpander.class) AlbumType... albumType);
+
+	@RequestLine("GET /v1/artists/{id}/albums?market={market}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("market") String market);
+
+	@RequestLine("GET /v1/artists/{id}/albums?market={market}&album_type={albumType}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("market") String market,
+			@Param(value = "albumType", expander = ArrayToStringExpander.class) AlbumType... albumType);
+
+	@RequestLine("GET /v1/artists/{id}/albums?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/artists/{id}/albums?limit={limit}&offset={offset}&album_type={albumType}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("limit") Integer limit, @Param("offset") Integer offset,
+			@Param(value = "albumType", expander = ArrayToStringExpander.class) AlbumType... albumType);
+
+	@RequestLine("GET /v1/artists/{id}/albums?limit={limit}&offset={offset}&market={market}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("limit") Integer limit, @Param("offset") Integer offset, @Param("market") String market);
+
+	@RequestLine("GET /v1/artists/{id}/albums?limit={limit}&offset={offset}&market={market}&album_type={albumType}")
+	CompletableFuture<Paging<AlbumSimplified>> getArtistAlbums(@Param("id") String artistId,
+			@Param("limit") Integer limit, @Param("offset") Integer offset, @Param("market") String market,
+			@Param(value = "albumType", expander = ArrayToStringExpander.class) AlbumType... albumType);
+
+	@RequestLine("GET /v1/artists/{id}/top-tracks?country={country}")
+	CompletableFuture<Tracks> getTopTracks(@Param("id") String artistId, @Param("country") String country);
+
+	@RequestLine("GET /v1/artists/{id}/related-artists")
+	CompletableFuture<Artists> getRelatedArtists(@Param("id") String artistId);
+}
@@ -0,0 +1,80 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.AlbumSimplified;
+import org.springframework.social.spotify.api.Categories;
+import org.springframework.social.spotify.api.Category;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.Playlists;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link BrowseOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see BrowseOperations
+ */
+public interface AsyncBrowseOperations {
+
+	@RequestLine("GET /v1/browse/featured-playlists")
+	CompletableFuture<Playlists> featuredPlaylists();
+
+	@RequestLine("GET /v1/browse/featured-playlists?limit={limit}&offset={offset}")
+	CompletableFuture<Playlists> featuredPlaylists(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/featured-playlists?locale={locale}&country={country}")
+	CompletableFuture<Playlists> featuredPlaylists(@Param("locale") String locale, @Param("country") String country);
+
+	@RequestLine("GET /v1/browse/new-releases")
+	CompletableFuture<Paging<AlbumSimplified>> newReleases();
+
+	@RequestLine("GET /v1/browse/new-releases?country={country}")
+	CompletableFuture<Paging<AlbumSimplified>> newReleases(@Param("country") String country);
+
+	@RequestLine("GET /v1/browse/new-releases?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<AlbumSimplified>> newReleases(@Param("limit") Integer limit,
+			@Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/new-releases?country={country}&limit={limit}&offset={offset}")
+	CompletableFuture<Paging<AlbumSimplified>> newReleases(@Param("country") String country,
+			@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/categories")
+	CompletableFuture<Categories> categories();
+
+	@RequestLine("GET /v1/browse/categories?locale={locale}&country={country}")
+	CompletableFuture<Categories> categories(@Param("locale") String locale, @Param("country") String country);
+
+	@RequestLine("GET /v1/browse/categories?limit={limit}&offset={offset}")
+	CompletableFuture<Categories> categories(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/categories?locale={locale}&country={country}&limit={limit}&offset={offset}")
+	CompletableFuture<Categories> categories(@Param("locale") String locale, @Param("country") String country,
+			@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}")
+	CompletableFuture<Category> category(@Param("category_id") String categoryId);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}?locale={locale}&country={country}")
+	CompletableFuture<Category> category(@Param("category_id") String categoryId, @Param("locale") String locale,
+			@Param("country") String country);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}/playlists")
+	CompletableFuture<Playlists> categoryPlaylists(@Param("category_id") String categoryId);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}/playlists?country={country}")
+	CompletableFuture<Playlists> categoryPlaylists(@Param("category_id") String categoryId,
+			@Param("country") String country);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}/playlists?limit={limit}&offset={offset}")
+	CompletableFuture<Playlists> categoryPlaylists(@Param("category_id") String categoryId,
+			@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/browse/categories/{category_id}/playlists?country={country}&limit={limit}&offset={offset}")
+	CompletableFuture<Playlists> categoryPlaylists(@Param("category_id") String categoryId,
+			@Param("country") String country, @Param("limit") Integer limit, @Param("offset") Integer offset);
+}
@@ -0,0 +1,60 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.ArrayToStringExpander;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.CursorPaging;
+
+import feign.Body;
+import feign.Headers;
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link FollowOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see FollowOperations
+ */
+public interface AsyncFollowOperations {
+
+	@RequestLine("GET /v1/me/following?type=artist")
+	CompletableFuture<CursorPaging<Artist>> followingArtists();
+
+	@RequestLine("GET /v1/me/following?type=artist&limit={limit}&after={after}")
+	CompletableFuture<CursorPaging<Artist>> followingArtists(@Param("limit") Integer limit, @Param("after") String after);
+
+	@RequestLine("PUT /v1/me/following?type=artist&ids={ids}")
+	CompletableFuture<Void> followArtist(@Param(value = "ids", expander = ArrayToStringExpander.class) String... artistIds);
+
+	@RequestLine("DELETE /v1/me/following?type=artist&ids={ids}")
+	CompletableFuture<Void> unfollowArtist(@Param(value = "ids", expander = ArrayToStringExpander.class) String... artistIds);
+
+	@RequestLine("GET /v1/me/following/contains?type=artist&ids={ids}")
+	CompletableFuture<Boolean[]> isFollowingArtist(@Param(value = "ids", expander = ArrayToStringExpander.class) String... artistIds);
+
+	@RequestLine("PUT /v1/me/following?type=user&ids={ids}")
+	CompletableFuture<Void> followUser(@Param(value = "ids", expander = ArrayToStringExpander.class) String... userIds);
+
+	@RequestLine("DELETE /v1/me/following?type=user&ids={ids}")
+	CompletableFuture<Void> unfollowUser(@Param(value = "ids", expander = ArrayToStringExpander.class) String... userIds);
+
+	@RequestLine("GET /v1/me/following/contains?type=user&ids={ids}")
+	CompletableFuture<Boolean[]> isFollowingUser(@Param(value = "ids", expander = ArrayToStringExpander.class) String... userIds);
+
+	@RequestLine("PUT /v1/users/{owner_id}/playlists/{playlist_id}/followers")
+	@Headers("Content-Type: application/json")
+	@Body("%7B\"public\": {publicFollowing} %7D")
+	CompletableFuture<Void> followPlaylist(@Param("owner_id") String ownerId, @Param("playlist_id") String playlistId,
+			@Param("publicFollowing") Boolean publicFollowing);
+
+	@RequestLine("DELETE /v1/users/{owner_id}/playlists/{playlist_id}/followers")
+	CompletableFuture<Void> unfollowPlaylist(@Param("owner_id") String ownerId, @Param("playlist_id") String playlistId);
+
+	@RequestLine("GET /v1/users/{owner_id}/playlists/{playlist_id}/followers/contains?ids={ids}")
+	CompletableFuture<Boolean[]> isFollowingPlaylist(@Param("owner_id") String ownerId,
+			@Param("playlist_id") String playlistId,
+			@Param(value = "ids", expander = ArrayToStringExpander.class) String... userIds);
+}
@@ -0,0 +1,65 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.ArrayToStringExpander;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.SavedAlbum;
+import org.springframework.social.spotify.api.SavedTrack;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link LibraryOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see LibraryOperations
+ */
+public interface AsyncLibraryOperations {
+
+	@RequestLine("PUT /v1/me/tracks?ids={ids}")
+	CompletableFuture<Void> saveTracks(@Param(value = "ids", expander = ArrayToStringExpander.class) String... tracksIds);
+
+	@RequestLine("GET /v1/me/tracks")
+	CompletableFuture<Paging<SavedTrack>> getSavedTracks();
+
+	@RequestLine("GET /v1/me/tracks?market={market}")
+	CompletableFuture<Paging<SavedTrack>> getSavedTracks(@Param("market") String market);
+
+	@RequestLine("GET /v1/me/tracks?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<SavedTrack>> getSavedTracks(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/tracks?limit={limit}&offset={offset}&market={market}")
+	CompletableFuture<Paging<SavedTrack>> getSavedTracks(@Param("limit") Integer limit, @Param("offset") Integer offset,
+			@Param("market") String market);
+
+	@RequestLine("DELETE /v1/me/tracks?ids={ids}")
+	CompletableFuture<Void> removeSavedTracks(@Param(value = "ids", expander = ArrayToStringExpander.class) String... tracksIds);
+
+	@RequestLine("GET /v1/me/tracks/contains?ids={ids}")
+	CompletableFuture<Boolean[]> isSavedTracks(@Param(value = "ids", expander = ArrayToStringExpander.class) String... tracksIds);
+
+	@RequestLine("PUT /v1/me/albums?ids={ids}")
+	CompletableFuture<Void> saveAlbums(@Param(value = "ids", expander = ArrayToStringExpander.class) String... albumsIds);
+
+	@RequestLine("GET /v1/me/albums")
+	CompletableFuture<Paging<SavedAlbum>> getSavedAlbums();
+
+	@RequestLine("GET /v1/me/albums?market={market}")
+	CompletableFuture<Paging<SavedAlbum>> getSavedAlbums(@Param("market") String market);
+
+	@RequestLine("GET /v1/me/albums?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<SavedAlbum>> getSavedAlbums(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/albums?limit={limit}&offset={offset}&market={market}")
+	CompletableFuture<Paging<SavedAlbum>> getSavedAlbums(@Param("limit") Integer limit, @Param("offset") Integer offset,
+			@Param("market") String market);
+
+	@RequestLine("DELETE /v1/me/albums?ids={ids}")
+	CompletableFuture<Void> removeSavedAlbums(@Param(value = "ids", expander = ArrayToStringExpander.class) String... albumsIds);
+
+	@RequestLine("GET /v1/me/albums/contains?ids={ids}")
+	CompletableFuture<Boolean[]> isSavedAlbums(@Param(value = "ids", expander = ArrayToStringExpander.class) String... albumsIds);
+}
@@ -0,0 +1,55 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.PlayHistory;
+import org.springframework.social.spotify.api.TimeRange;
+import org.springframework.social.spotify.api.Track;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link PersonalizationOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see PersonalizationOperations
+ */
+public interface AsyncPersonalizationOperations {
+
+	@RequestLine("GET /v1/me/top/artists")
+	CompletableFuture<Paging<Artist>> topArtists();
+
+	@RequestLine("GET /v1/me/top/artists?time_range={time_range}")
+	CompletableFuture<Paging<Artist>> topArtists(@Param("time_range") TimeRange timeRange);
+
+	@RequestLine("GET /v1/me/top/artists?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<Artist>> topArtists(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/top/artists?time_range={time_range}&limit={limit}&offset={offset}")
+	CompletableFuture<Paging<Artist>> topArtists(@Param("time_range") TimeRange timeRange, @Param("limit") Integer limit,
+			@Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/top/tracks")
+	CompletableFuture<Paging<Track>> topTracks();
+
+	@RequestLine("GET /v1/me/top/tracks?time_range={time_range}")
+	CompletableFuture<Paging<Track>> topTracks(@Param("time_range") TimeRange timeRange);
+
+	@RequestLine("GET /v1/me/top/tracks?limit={limit}&offset={offset}")
+	CompletableFuture<Paging<Track>> topTracks(@Param("limit") Integer limit, @Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/top/tracks?time_range={time_range}&limit={limit}&offset={offset}")
+	CompletableFuture<Paging<Track>> topTracks(@Param("time_range") TimeRange timeRange, @Param("limit") Integer limit,
+			@Param("offset") Integer offset);
+
+	@RequestLine("GET /v1/me/player/recently-played")
+	CompletableFuture<CursorPaging<PlayHistory>> recentPlayed();
+
+	@RequestLine("GET /v1/me/player/recently-played?limit={limit}&before={before}")
+	CompletableFuture<CursorPaging<PlayHistory>> recentPlayed(@Param("limit") Integer limit, @Param("before") String before);
+}
@@ -0,0 +1,25 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.UserPrivate;
+import org.springframework.social.spotify.api.UserPublic;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link ProfilesOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see ProfilesOperations
+ */
+public interface AsyncProfilesOperations {
+
+	@RequestLine("GET /v1/me")
+	CompletableFuture<UserPrivate> me();
+
+	@RequestLine("GET /v1/users/{id}")
+	CompletableFuture<UserPublic> getUser(@Param("id") String userId);
+}
@@ -0,0 +1,33 @@
+package org.springframework.social.spotify.api.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.social.spotify.api.ArrayToStringExpander;
+import org.springframework.social.spotify.api.Track;
+import org.springframework.social.spotify.api.Tracks;
+
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Asynchronous counterpart of {@link TracksOperations}: same endpoints and
+ * parameters, with results completed by a non-blocking transport instead of
+ * the calling thread.
+ *
+ * @see TracksOperations
+ */
+public interface AsyncTracksOperations {
+
+	@RequestLine("GET /v1/tracks/{id}")
+	CompletableFuture<Track> getTrack(@Param("id") String trackId);
+
+	@RequestLine("GET /v1/tracks/{id}?market={market}")
+	CompletableFuture<Track> getTrack(@Param("id") String trackId, @Param("market") String market);
+
+	@RequestLine("GET /v1/tracks/?ids={ids}")
+	CompletableFuture<Tracks> getTracks(@Param(value = "ids", expander = ArrayToStringExpander.class) String... tracks);
+
+	@RequestLine("GET /v1/tracks/?ids={ids}&market={market}")
+	CompletableFuture<Tracks> getTracks(@Param("market") String market,
+			@Param(value = "ids", expander = ArrayToStringExpander.class) String... tracks);
+}
@@ -42,4 +42,7 @@ public interface PersonalizationOperations {
 	// FIXME user-read-recently-played
 	@RequestLine("GET /v1/me/player/recently-played")
 	CursorPaging<PlayHistory> recentPlayed();
+
+	@RequestLine("GET /v1/me/player/recently-played?limit={limit}&before={before}")
+	CursorPaging<PlayHistory> recentPlayed(@Param("limit") Integer limit, @Param("before") String before);
 }
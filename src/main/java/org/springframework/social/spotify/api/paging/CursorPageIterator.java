@@ -0,0 +1,114 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.reactive.CursorPageFetcher;
+
+/**
+ * Iterator over every item of a cursor-paged endpoint, following the cursor
+ * picked from each page, such as {@link Cursor#getAfter()}. As soon as a page
+ * arrives the next one is requested. Closing the iterator cancels the page in
+ * flight.
+ * <p>
+ * {@link #getResumeToken()} tells where the iteration stands: a new iterator
+ * created with that token starts with the next item. At the end, the token
+ * points past the last item of the last page, so resuming from it later
+ * reads only what was added since.
+ * <p>
+ * Not thread-safe, like any iterator.
+ */
+public class CursorPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+	private final CursorPageFetcher<T> fetcher;
+	private final int pageSize;
+	private final Function<Cursor, String> cursor;
+
+	private CompletableFuture<CursorPaging<T>> prefetch;
+	private String prefetchCursor;
+	private String pageCursor;
+	private String nextCursor;
+	private T[] items;
+	private int index;
+	private int skip;
+	private boolean started;
+	private boolean closed;
+
+	CursorPageIterator(CursorPageFetcher<T> fetcher, int pageSize, Function<Cursor, String> cursor,
+			ResumeToken from) {
+		this.fetcher = fetcher;
+		this.pageSize = pageSize;
+		this.cursor = cursor;
+		this.pageCursor = from.getCursor();
+		this.skip = from.getSkip();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		while (items == null || index >= items.length) {
+			if (prefetch == null) {
+				if (started) {
+					return false;
+				}
+				started = true;
+				request(pageCursor);
+			}
+			CursorPaging<T> page = OffsetPageIterator.await(prefetch);
+			pageCursor = prefetchCursor;
+			prefetch = null;
+			items = page.getItems();
+			index = Math.min(skip, items == null ? 0 : items.length);
+			skip = 0;
+			nextCursor = page.getNext() == null || page.getCursors() == null ? null
+					: cursor.apply(page.getCursors());
+			if (nextCursor != null && items != null && items.length > 0) {
+				request(nextCursor);
+			} else if (items == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return items[index++];
+	}
+
+	/**
+	 * Position after the last item returned by {@link #next()}.
+	 */
+	public ResumeToken getResumeToken() {
+		if (items == null) {
+			return new ResumeToken(pageCursor, skip);
+		}
+		if (index >= items.length && nextCursor != null) {
+			return new ResumeToken(nextCursor, 0);
+		}
+		return new ResumeToken(pageCursor, index);
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		if (prefetch != null) {
+			prefetch.cancel(false);
+			prefetch = null;
+		}
+	}
+
+	private void request(String from) {
+		prefetchCursor = from;
+		prefetch = fetcher.fetch(pageSize, from).toCompletableFuture();
+	}
+}
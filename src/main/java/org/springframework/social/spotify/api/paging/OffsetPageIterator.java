@@ -0,0 +1,128 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.reactive.OffsetPageFetcher;
+
+/**
+ * Iterator over every item of an offset-paged endpoint, requesting pages of
+ * {@code pageSize} items. As soon as a page arrives the next one is
+ * requested, so it is on its way while the items of the current one are
+ * consumed. Closing the iterator cancels the page in flight.
+ * <p>
+ * Not thread-safe, like any iterator.
+ */
+public class OffsetPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+	private final OffsetPageFetcher<T> fetcher;
+	private final int pageSize;
+
+	private CompletableFuture<Paging<T>> prefetch;
+	private T[] items;
+	private int index;
+	private int nextOffset;
+	private Integer total;
+	private long consumed;
+	private boolean started;
+	private boolean closed;
+
+	OffsetPageIterator(OffsetPageFetcher<T> fetcher, int pageSize) {
+		this.fetcher = fetcher;
+		this.pageSize = pageSize;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		while (items == null || index >= items.length) {
+			if (prefetch == null) {
+				if (started) {
+					return false;
+				}
+				started = true;
+				request();
+			}
+			Paging<T> page = await(prefetch);
+			prefetch = null;
+			items = page.getItems();
+			index = 0;
+			total = page.getTotal();
+			// offsets are positions, whether or not every item of a page is returned
+			nextOffset += page.getLimit() == null || page.getLimit() <= 0 ? pageSize : page.getLimit();
+			if (page.getNext() != null) {
+				request();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		consumed++;
+		return items[index++];
+	}
+
+	/**
+	 * Items not consumed yet according to the {@code total} of the last page,
+	 * or {@code Long.MAX_VALUE} before the first page.
+	 */
+	public long estimateRemaining() {
+		return total == null ? Long.MAX_VALUE : Math.max(0, total - consumed);
+	}
+
+	/**
+	 * Takes the items of the current page not consumed yet, fetching a page
+	 * first if none is buffered.
+	 *
+	 * @return the items, or {@code null} at the end
+	 */
+	T[] drainPage() {
+		if (!hasNext()) {
+			return null;
+		}
+		T[] page = Arrays.copyOfRange(items, index, items.length);
+		consumed += page.length;
+		index = items.length;
+		return page;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		if (prefetch != null) {
+			prefetch.cancel(false);
+			prefetch = null;
+		}
+	}
+
+	private void request() {
+		prefetch = fetcher.fetch(pageSize, nextOffset).toCompletableFuture();
+	}
+
+	static <P> P await(CompletableFuture<P> page) {
+		try {
+			return page.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		} catch (CancellationException e) {
+			throw new IllegalStateException("Page request cancelled", e);
+		}
+	}
+}
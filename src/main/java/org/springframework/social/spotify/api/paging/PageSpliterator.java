@@ -0,0 +1,50 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over an {@link OffsetPageIterator}. Its size is estimated from
+ * the {@code total} of the pages, but not reported as exact because the total
+ * may change between pages; splits hand off the rest of the buffered page.
+ * Items may be null, like the unavailable tracks of a playlist.
+ */
+class PageSpliterator<T> implements Spliterator<T> {
+
+	private final OffsetPageIterator<T> pages;
+
+	PageSpliterator(OffsetPageIterator<T> pages) {
+		this.pages = pages;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (!pages.hasNext()) {
+			return false;
+		}
+		action.accept(pages.next());
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		pages.forEachRemaining(action);
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		T[] page = pages.drainPage();
+		return page == null ? null : Spliterators.spliterator(page, ORDERED);
+	}
+
+	@Override
+	public long estimateSize() {
+		return pages.estimateRemaining();
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED;
+	}
+}
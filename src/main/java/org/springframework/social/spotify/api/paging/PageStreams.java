@@ -0,0 +1,126 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.concurrent.FanOut;
+import org.springframework.social.spotify.api.reactive.CursorPageFetcher;
+import org.springframework.social.spotify.api.reactive.OffsetPageFetcher;
+
+/**
+ * Streams and iterators over every item of a paged endpoint, for example
+ * with the {@code Async*Operations} of a binding:
+ *
+ * <pre>
+ * try (Stream&lt;SavedTrack&gt; tracks = PageStreams.offset(spotify.asyncLibraryOperations()::getSavedTracks)) {
+ * 	tracks.filter(...).forEach(...);
+ * }
+ * </pre>
+ *
+ * Pages of {@value #MAX_PAGE_SIZE} items are requested, the next one while
+ * the current one is consumed. Nothing is requested before the terminal
+ * operation of a stream; close it, or the iterator, to cancel the page in
+ * flight when stopping early.
+ * <p>
+ * Null items of a page, such as playlist tracks that are no longer
+ * available, are kept, so streams do not report {@link Spliterator#NONNULL}.
+ * <p>
+ * When every item is needed anyway, {@link #fetchAll} requests the pages in
+ * parallel instead of one after the other.
+ */
+public final class PageStreams {
+
+	/**
+	 * Largest page size accepted by the paged endpoints.
+	 */
+	public static final int MAX_PAGE_SIZE = 50;
+
+	private PageStreams() {
+	}
+
+	private static <T> List<T> items(Paging<T> page) {
+		return page.getItems() == null ? Collections.<T> emptyList() : Arrays.asList(page.getItems());
+	}
+
+	public static <T> OffsetPageIterator<T> offsetIterator(OffsetPageFetcher<T> fetcher) {
+		return new OffsetPageIterator<>(fetcher, MAX_PAGE_SIZE);
+	}
+
+	/**
+	 * Fetches every item at once: the first page gives the {@code total}, then
+	 * the requests for all the other pages are sent with at most
+	 * {@code parallelism} of them in flight. The items are returned in order.
+	 * <p>
+	 * Fails with a {@link ConcurrentModificationException} when a page reports
+	 * another total than the first, since items were then added or removed
+	 * while reading and some may be missing or repeated.
+	 */
+	public static <T> CompletableFuture<List<T>> fetchAll(OffsetPageFetcher<T> fetcher, int parallelism) {
+		return fetcher.fetch(MAX_PAGE_SIZE, 0).toCompletableFuture().thenCompose(first -> {
+			List<T> items = new ArrayList<>(items(first));
+			Integer total = first.getTotal();
+			if (first.getNext() == null || total == null || items.isEmpty()) {
+				return CompletableFuture.completedFuture(items);
+			}
+
+			// offsets are positions, whether or not every item of a page is returned
+			int limit = first.getLimit() == null ? MAX_PAGE_SIZE : first.getLimit();
+			List<Integer> offsets = new ArrayList<>();
+			for (int offset = limit; offset < total; offset += limit) {
+				offsets.add(offset);
+			}
+			return FanOut.mapAsync(offsets, parallelism, offset -> fetcher.fetch(limit, offset))
+					.thenApply(pages -> {
+						for (Paging<T> page : pages) {
+							if (!total.equals(page.getTotal())) {
+								throw new ConcurrentModificationException(
+										"Total changed from " + total + " to " + page.getTotal() + " while fetching");
+							}
+							items.addAll(items(page));
+						}
+						return items;
+					});
+		});
+	}
+
+	/**
+	 * Iterator following the cursor that {@code cursor} picks from each page,
+	 * for example
+	 * {@code cursorIterator(spotify.asyncFollowOperations()::followingArtists, Cursor::getAfter, token)}.
+	 *
+	 * @param from
+	 *            where to start, {@link ResumeToken#START} or the token of an
+	 *            earlier iterator
+	 */
+	public static <T> CursorPageIterator<T> cursorIterator(CursorPageFetcher<T> fetcher,
+			Function<Cursor, String> cursor, ResumeToken from) {
+		return new CursorPageIterator<>(fetcher, MAX_PAGE_SIZE, cursor, from);
+	}
+
+	/**
+	 * Stream over a cursor-paged endpoint, from the start. Use
+	 * {@link #cursorIterator} to resume later.
+	 */
+	public static <T> Stream<T> cursor(CursorPageFetcher<T> fetcher, Function<Cursor, String> cursor) {
+		CursorPageIterator<T> pages = cursorIterator(fetcher, cursor, ResumeToken.START);
+		return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED),
+				Spliterator.ORDERED, false).onClose(pages::close);
+	}
+
+	public static <T> Stream<T> offset(OffsetPageFetcher<T> fetcher) {
+		OffsetPageIterator<T> pages = offsetIterator(fetcher);
+		return StreamSupport.stream(() -> new PageSpliterator<>(pages), Spliterator.ORDERED, false)
+				.onClose(pages::close);
+	}
+}
@@ -0,0 +1,81 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.io.Serializable;
+
+/**
+ * Position of a {@link CursorPageIterator}: the cursor of the page being read
+ * and the number of its items already consumed. A job can store it, as is or
+ * {@linkplain #encode() encoded}, and resume from it later without reading
+ * the earlier pages again.
+ */
+public final class ResumeToken implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Token of the first page.
+	 */
+	public static final ResumeToken START = new ResumeToken(null, 0);
+
+	private final String cursor;
+	private final int skip;
+
+	ResumeToken(String cursor, int skip) {
+		this.cursor = cursor;
+		this.skip = skip;
+	}
+
+	/**
+	 * Cursor of the page to request, {@code null} for the first page.
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Items of that page already consumed.
+	 */
+	public int getSkip() {
+		return skip;
+	}
+
+	/**
+	 * The token as a string, for {@link #decode(String)}.
+	 */
+	public String encode() {
+		return skip + ":" + (cursor == null ? "" : cursor);
+	}
+
+	public static ResumeToken decode(String token) {
+		int separator = token.indexOf(':');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Not a resume token: " + token);
+		}
+		try {
+			String cursor = token.substring(separator + 1);
+			return new ResumeToken(cursor.isEmpty() ? null : cursor,
+					Integer.parseInt(token.substring(0, separator)));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a resume token: " + token, e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof ResumeToken)) {
+			return false;
+		}
+		ResumeToken token = (ResumeToken) other;
+		return skip == token.skip && (cursor == null ? token.cursor == null : cursor.equals(token.cursor));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * skip + (cursor == null ? 0 : cursor.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "ResumeToken(" + encode() + ")";
+	}
+}
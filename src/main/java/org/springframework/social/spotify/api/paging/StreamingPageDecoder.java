@@ -0,0 +1,237 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.impl.http.ETagCache;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Decodes the items of a page one at a time, handing each to a consumer as
+ * soon as it is parsed instead of building the {@code items} array:
+ *
+ * <pre>
+ * Paging&lt;SavedTrack&gt; page = StreamingPageDecoder.forEach(SavedTrack.class, tracks::add,
+ * 		() -&gt; spotify.libraryOperations().getSavedTracks(50, offset));
+ * </pre>
+ *
+ * The page returned by the call has every field but {@code items}, which is
+ * {@code null}. Pages wrapped in an object, such as
+ * {@code {"albums": {...}}}, are unwrapped.
+ * <p>
+ * Streaming applies to the synchronous operations called by {@code call} on
+ * the calling thread, and only when the factory decodes through this decoder,
+ * as {@code SpotifyClientFactory} does. A page answered by a {@code 304} from
+ * the {@link ETagCache} is streamed from the cached body. Such calls are never
+ * coalesced with others.
+ */
+public class StreamingPageDecoder implements Decoder {
+
+	private static final ThreadLocal<Sink<?>> SINK = new ThreadLocal<>();
+
+	private final ObjectMapper mapper;
+	private final Decoder delegate;
+
+	/**
+	 * @param delegate
+	 *            decoder of everything else
+	 */
+	public StreamingPageDecoder(ObjectMapper mapper, Decoder delegate) {
+		this.mapper = mapper;
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Runs {@code call} with the items of its page decoded into
+	 * {@code items}.
+	 */
+	public static <T, P> P forEach(Class<T> itemType, Consumer<? super T> items, Supplier<P> call) {
+		Sink<?> previous = SINK.get();
+		SINK.set(new Sink<>(itemType, items));
+		try {
+			return call.get();
+		} finally {
+			if (previous == null) {
+				SINK.remove();
+			} else {
+				SINK.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Whether the current thread is inside {@link #forEach}.
+	 */
+	public static boolean isStreaming() {
+		return SINK.get() != null;
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException {
+		Sink<?> sink = SINK.get();
+		Class<?> raw = type instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) type).getRawType()
+				: type instanceof Class ? (Class<?>) type : null;
+		if (sink == null || (raw != Paging.class && raw != CursorPaging.class)) {
+			return delegate.decode(response, type);
+		}
+		if (response.body() == null) {
+			return null;
+		}
+		try (InputStream in = response.body().asInputStream(); JsonParser parser = mapper.getFactory().createParser(in)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return null;
+			}
+			return sink.parse(mapper, parser, raw == Paging.class ? new PageFields(new Paging<>())
+					: new PageFields(new CursorPaging<>()));
+		}
+	}
+
+	private static class Sink<T> {
+
+		private final Class<T> itemType;
+		private final Consumer<? super T> items;
+
+		Sink(Class<T> itemType, Consumer<? super T> items) {
+			this.itemType = itemType;
+			this.items = items;
+		}
+
+		/**
+		 * Parses the fields of the object the parser is at, streaming
+		 * {@code items} and descending into a wrapper object.
+		 */
+		Object parse(ObjectMapper mapper, JsonParser parser, PageFields page) throws IOException {
+			ObjectReader reader = mapper.readerFor(itemType);
+			boolean paging = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+					paging = true;
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						items.accept(value(reader, parser));
+					}
+				} else if (page.set(mapper, field, parser)) {
+					paging = true;
+				} else if (value == JsonToken.START_OBJECT && !paging) {
+					Object wrapped = parse(mapper, parser, page);
+					if (wrapped != null) {
+						return wrapped;
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+			return paging ? page.page : null;
+		}
+
+		private T value(ObjectReader reader, JsonParser parser) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : reader.readValue(parser);
+		}
+	}
+
+	/**
+	 * Sets the fields of a {@link Paging} or a {@link CursorPaging} other than
+	 * {@code items}.
+	 */
+	private static class PageFields {
+
+		private final Object page;
+
+		PageFields(Object page) {
+			this.page = page;
+		}
+
+		boolean set(ObjectMapper mapper, String field, JsonParser parser) throws IOException {
+			switch (field) {
+			case "href":
+				href(text(parser));
+				return true;
+			case "next":
+				next(text(parser));
+				return true;
+			case "limit":
+				limit(number(parser));
+				return true;
+			case "total":
+				total(number(parser));
+				return true;
+			case "offset":
+				if (page instanceof Paging) {
+					((Paging<?>) page).setOffset(number(parser));
+					return true;
+				}
+				return false;
+			case "previous":
+				if (page instanceof Paging) {
+					((Paging<?>) page).setPrevious(text(parser));
+					return true;
+				}
+				return false;
+			case "cursors":
+				if (page instanceof CursorPaging) {
+					((CursorPaging<?>) page).setCursors(parser.getCurrentToken() == JsonToken.VALUE_NULL ? null
+							: mapper.readValue(parser, Cursor.class));
+					return true;
+				}
+				return false;
+			default:
+				return false;
+			}
+		}
+
+		private void href(String href) {
+			if (page instanceof Paging) {
+				((Paging<?>) page).setHref(href);
+			} else {
+				((CursorPaging<?>) page).setHref(href);
+			}
+		}
+
+		private void next(String next) {
+			if (page instanceof Paging) {
+				((Paging<?>) page).setNext(next);
+			} else {
+				((CursorPaging<?>) page).setNext(next);
+			}
+		}
+
+		private void limit(Integer limit) {
+			if (page instanceof Paging) {
+				((Paging<?>) page).setLimit(limit);
+			} else {
+				((CursorPaging<?>) page).setLimit(limit);
+			}
+		}
+
+		private void total(Integer total) {
+			if (page instanceof Paging) {
+				((Paging<?>) page).setTotal(total);
+			} else {
+				((CursorPaging<?>) page).setTotal(total);
+			}
+		}
+
+		private static String text(JsonParser parser) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+		}
+
+		private static Integer number(JsonParser parser) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.springframework.social.spotify.api.primitive;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * Reads an ISO 8601 timestamp, such as the {@code added_at} of a saved track,
+ * into milliseconds since the epoch. UTC timestamps, the form Spotify sends,
+ * are parsed straight from the characters of the parser; other offsets go
+ * through {@link OffsetDateTime}. A {@code null} is
+ * {@link PrimitiveModels#UNKNOWN_TIME}.
+ * <p>
+ * The value is returned as a {@link Long}, a new one for any real timestamp,
+ * and unboxed into the {@code long} field it is bound to.
+ */
+public class EpochMillisDeserializer extends StdScalarDeserializer<Long> {
+
+	private static final long serialVersionUID = 1L;
+
+	public EpochMillisDeserializer() {
+		super(Long.class);
+	}
+
+	@Override
+	public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if (token == JsonToken.VALUE_NUMBER_INT) {
+			return parser.getLongValue();
+		}
+		if (token != JsonToken.VALUE_STRING) {
+			throw context.mappingException(Long.class, token);
+		}
+		long millis = parseUtc(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+		if (millis != PrimitiveModels.UNKNOWN_TIME) {
+			return millis;
+		}
+		String text = parser.getText();
+		try {
+			return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			throw context.weirdStringException(text, Long.class, e.getMessage());
+		}
+	}
+
+	@Override
+	public Long getNullValue(DeserializationContext context) {
+		return PrimitiveModels.UNKNOWN_TIME;
+	}
+
+	/**
+	 * Parses {@code yyyy-MM-ddTHH:mm:ss[.fraction]Z}.
+	 *
+	 * @return {@link PrimitiveModels#UNKNOWN_TIME} for any other form
+	 */
+	static long parseUtc(char[] text, int offset, int length) {
+		if (length < 20 || text[offset + length - 1] != 'Z' || text[offset + 4] != '-' || text[offset + 7] != '-'
+				|| text[offset + 10] != 'T' || text[offset + 13] != ':' || text[offset + 16] != ':') {
+			return PrimitiveModels.UNKNOWN_TIME;
+		}
+		int year = digits(text, offset, 4);
+		int month = digits(text, offset + 5, 2);
+		int day = digits(text, offset + 8, 2);
+		int hour = digits(text, offset + 11, 2);
+		int minute = digits(text, offset + 14, 2);
+		int second = digits(text, offset + 17, 2);
+		int millis = 0;
+		int end = offset + length - 1;
+		if (offset + 19 < end) {
+			if (text[offset + 19] != '.' || offset + 20 == end) {
+				return PrimitiveModels.UNKNOWN_TIME;
+			}
+			for (int i = offset + 20, scale = 100; i < end; i++, scale /= 10) {
+				int digit = text[i] - '0';
+				if (digit < 0 || digit > 9) {
+					return PrimitiveModels.UNKNOWN_TIME;
+				}
+				millis += digit * scale;
+			}
+		}
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23 || minute < 0
+				|| minute > 59 || second < 0 || second > 59) {
+			return PrimitiveModels.UNKNOWN_TIME;
+		}
+		return ((epochDay(year, month, day) * 24 + hour) * 60 + minute) * 60_000L + second * 1000L + millis;
+	}
+
+	/**
+	 * Days from 1970-01-01 to the date of the proleptic Gregorian calendar.
+	 */
+	private static long epochDay(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = y / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	/**
+	 * @return the decimal number, or -1 if a character is not a digit
+	 */
+	private static int digits(char[] text, int offset, int count) {
+		int value = 0;
+		for (int i = offset; i < offset + count; i++) {
+			int digit = text[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+}
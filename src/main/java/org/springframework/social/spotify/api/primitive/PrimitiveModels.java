@@ -0,0 +1,74 @@
+package org.springframework.social.spotify.api.primitive;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.paging.StreamingPageDecoder;
+
+/**
+ * Pages of primitive-backed models, for sorting, filtering and aggregating
+ * large libraries without boxing numbers or reparsing timestamps:
+ *
+ * <pre>
+ * Paging&lt;PrimitiveSavedTrack&gt; page = PrimitiveModels.page(PrimitiveSavedTrack.class,
+ * 		() -&gt; spotify.libraryOperations().getSavedTracks(50, offset));
+ * </pre>
+ *
+ * The items are decoded by the {@link StreamingPageDecoder} of the factory
+ * straight into the given type, whatever the item type declared by the
+ * operation; the same restrictions apply. Only the decoded items are free of
+ * boxes: decoding itself boxes each number once, since Jackson deserializers
+ * return objects, and the box is garbage as soon as its field is set.
+ */
+public final class PrimitiveModels {
+
+	/**
+	 * Value of a number missing from the response.
+	 */
+	public static final int UNKNOWN = -1;
+
+	/**
+	 * Value of a timestamp missing from the response.
+	 */
+	public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+	private PrimitiveModels() {
+	}
+
+	/**
+	 * Runs {@code call} with the items of its page decoded as
+	 * {@code itemType}.
+	 */
+	public static <T> Paging<T> page(Class<T> itemType, Supplier<? extends Paging<?>> call) {
+		List<T> items = new ArrayList<>();
+		@SuppressWarnings("unchecked")
+		Paging<T> page = (Paging<T>) StreamingPageDecoder.forEach(itemType, items::add, call);
+		if (page != null) {
+			page.setItems(toArray(itemType, items));
+		}
+		return page;
+	}
+
+	/**
+	 * Runs {@code call} with the items of its cursor page decoded as
+	 * {@code itemType}.
+	 */
+	public static <T> CursorPaging<T> cursorPage(Class<T> itemType, Supplier<? extends CursorPaging<?>> call) {
+		List<T> items = new ArrayList<>();
+		@SuppressWarnings("unchecked")
+		CursorPaging<T> page = (CursorPaging<T>) StreamingPageDecoder.forEach(itemType, items::add, call);
+		if (page != null) {
+			page.setItems(toArray(itemType, items));
+		}
+		return page;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] toArray(Class<T> itemType, List<T> items) {
+		return items.toArray((T[]) Array.newInstance(itemType, items.size()));
+	}
+}
@@ -0,0 +1,15 @@
+package org.springframework.social.spotify.api.primitive;
+
+import org.springframework.social.spotify.api.Context;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import lombok.Data;
+
+@Data
+public class PrimitivePlayHistory {
+	private PrimitiveTrack track;
+	@JsonDeserialize(using = EpochMillisDeserializer.class)
+	private long playedAt = PrimitiveModels.UNKNOWN_TIME;
+	private Context context;
+}
@@ -0,0 +1,14 @@
+package org.springframework.social.spotify.api.primitive;
+
+import org.springframework.social.spotify.api.Album;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import lombok.Data;
+
+@Data
+public class PrimitiveSavedAlbum {
+	@JsonDeserialize(using = EpochMillisDeserializer.class)
+	private long addedAt = PrimitiveModels.UNKNOWN_TIME;
+	private Album album;
+}
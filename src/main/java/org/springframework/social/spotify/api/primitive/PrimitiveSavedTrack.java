@@ -0,0 +1,12 @@
+package org.springframework.social.spotify.api.primitive;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import lombok.Data;
+
+@Data
+public class PrimitiveSavedTrack {
+	@JsonDeserialize(using = EpochMillisDeserializer.class)
+	private long addedAt = PrimitiveModels.UNKNOWN_TIME;
+	private PrimitiveTrack track;
+}
@@ -0,0 +1,33 @@
+package org.springframework.social.spotify.api.primitive;
+
+import org.springframework.social.spotify.api.AlbumSimplified;
+import org.springframework.social.spotify.api.ArtistSimplified;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import lombok.Data;
+
+/**
+ * Track with its numbers held unboxed. A number missing from the response or
+ * {@code null}, such as the {@code popularity} of a simplified track, is
+ * {@link PrimitiveModels#UNKNOWN}; a missing {@code explicit} is false.
+ */
+@Data
+public class PrimitiveTrack {
+	private AlbumSimplified album;
+	private ArtistSimplified[] artists;
+	@JsonDeserialize(using = UnknownIntDeserializer.class)
+	private int discNumber = PrimitiveModels.UNKNOWN;
+	@JsonDeserialize(using = UnknownIntDeserializer.class)
+	private int durationMs = PrimitiveModels.UNKNOWN;
+	private boolean explicit;
+	private String href;
+	private String id;
+	private String name;
+	@JsonDeserialize(using = UnknownIntDeserializer.class)
+	private int popularity = PrimitiveModels.UNKNOWN;
+	@JsonDeserialize(using = UnknownIntDeserializer.class)
+	private int trackNumber = PrimitiveModels.UNKNOWN;
+	private String type;
+	private String uri;
+}
@@ -0,0 +1,34 @@
+package org.springframework.social.spotify.api.primitive;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * Reads an {@code int} as Jackson does, except that a {@code null} is
+ * {@link PrimitiveModels#UNKNOWN} instead of {@code 0}.
+ * <p>
+ * Unlike the plain {@code int} properties that Afterburner sets directly, a
+ * property with this deserializer gets its value as an {@link Integer},
+ * allocated for values outside the cache of {@link Integer#valueOf(int)}.
+ */
+public class UnknownIntDeserializer extends StdScalarDeserializer<Integer> {
+
+	private static final long serialVersionUID = 1L;
+
+	public UnknownIntDeserializer() {
+		super(Integer.class);
+	}
+
+	@Override
+	public Integer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		return _parseInteger(parser, context);
+	}
+
+	@Override
+	public Integer getNullValue(DeserializationContext context) {
+		return PrimitiveModels.UNKNOWN;
+	}
+}
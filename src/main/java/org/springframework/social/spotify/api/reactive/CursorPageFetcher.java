@@ -0,0 +1,15 @@
+package org.springframework.social.spotify.api.reactive;
+
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.social.spotify.api.CursorPaging;
+
+/**
+ * Fetches one page of a cursor-paged endpoint. The cursor is {@code null} for
+ * the first page.
+ */
+@FunctionalInterface
+public interface CursorPageFetcher<T> {
+
+	CompletionStage<CursorPaging<T>> fetch(int limit, String cursor);
+}
@@ -0,0 +1,15 @@
+package org.springframework.social.spotify.api.reactive;
+
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.social.spotify.api.Paging;
+
+/**
+ * Fetches one page of an offset-paged endpoint, for example
+ * {@code (limit, offset) -> library.getSavedTracks(limit, offset)}.
+ */
+@FunctionalInterface
+public interface OffsetPageFetcher<T> {
+
+	CompletionStage<Paging<T>> fetch(int limit, int offset);
+}
@@ -0,0 +1,215 @@
+package org.springframework.social.spotify.api.reactive;
+
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+
+/**
+ * Cold {@link Publisher} of the items of a paged endpoint.
+ * <p>
+ * Pages are fetched one at a time and only when the items already fetched do
+ * not cover the subscriber's outstanding demand, so at most one page is held
+ * in memory per subscription whatever the size of the collection. Each
+ * subscription starts again from the first page.
+ * <p>
+ * Null items, such as the tracks of a playlist that are no longer available,
+ * are skipped, since Reactive Streams forbids signalling {@code null}.
+ */
+public class PagePublisher<T> implements Publisher<T> {
+
+	private final Function<Object, CompletionStage<Page<T>>> fetcher;
+
+	private PagePublisher(Function<Object, CompletionStage<Page<T>>> fetcher) {
+		this.fetcher = fetcher;
+	}
+
+	/**
+	 * Publisher over an endpoint paged by {@code limit} and {@code offset}. It
+	 * completes after the page without a {@code next} link. Offsets are
+	 * positions: a page with fewer items than its limit, such as one missing
+	 * unavailable tracks, does not move the following one.
+	 */
+	public static <T> PagePublisher<T> offset(int limit, OffsetPageFetcher<T> fetcher) {
+		return new PagePublisher<>(offset -> fetcher.fetch(limit, offset == null ? 0 : (Integer) offset)
+				.thenApply(paging -> {
+					int step = paging.getLimit() == null || paging.getLimit() <= 0 ? limit : paging.getLimit();
+					int next = (offset == null ? 0 : (Integer) offset) + step;
+					return new Page<>(paging.getItems(), paging.getNext() == null ? null : next);
+				}));
+	}
+
+	/**
+	 * Publisher over a cursor-paged endpoint. {@code nextCursor} picks the
+	 * cursor that leads to the following page, such as {@link Cursor#getAfter}
+	 * for followed artists or {@link Cursor#getBefore} for the recently played
+	 * tracks. It completes after the page without a {@code next} link.
+	 */
+	public static <T> PagePublisher<T> cursor(int limit, CursorPageFetcher<T> fetcher,
+			Function<Cursor, String> nextCursor) {
+		return new PagePublisher<>(cursor -> fetcher.fetch(limit, (String) cursor).thenApply(paging -> {
+			// an empty page would lead back to the same cursor
+			String next = paging.getNext() == null || paging.getCursors() == null || length(paging.getItems()) == 0
+					? null : nextCursor.apply(paging.getCursors());
+			return new Page<>(paging.getItems(), next);
+		}));
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber");
+		}
+		PageSubscription<T> subscription = new PageSubscription<>(subscriber, fetcher);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private static int length(Object[] items) {
+		return items == null ? 0 : items.length;
+	}
+
+	/**
+	 * Items of one page and the token to fetch the following one, or
+	 * {@code null} on the last page.
+	 */
+	static class Page<T> {
+		final T[] items;
+		final Object next;
+
+		Page(T[] items, Object next) {
+			this.items = items;
+			this.next = next;
+		}
+	}
+
+	private static class PageSubscription<T> implements Subscription {
+
+		private final Subscriber<? super T> subscriber;
+		private final Function<Object, CompletionStage<Page<T>>> fetcher;
+		private final Queue<T> items = new ConcurrentLinkedQueue<>();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private Object next;
+		private volatile boolean fetching;
+		private volatile boolean exhausted;
+		private volatile boolean cancelled;
+		private volatile Throwable error;
+
+		PageSubscription(Subscriber<? super T> subscriber, Function<Object, CompletionStage<Page<T>>> fetcher) {
+			this.subscriber = subscriber;
+			this.fetcher = fetcher;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("Non-positive request: " + n);
+			} else {
+				long current;
+				do {
+					current = requested.get();
+					if (current == Long.MAX_VALUE) {
+						break;
+					}
+				} while (!requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			drain();
+		}
+
+		/**
+		 * Emits what is buffered and demanded, then fetches the next page when
+		 * the buffer is empty and demand is left. Runs on one thread at a
+		 * time: a thread entering while another drains only marks the work as
+		 * missed.
+		 */
+		private void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				if (cancelled) {
+					items.clear();
+					return;
+				}
+				if (error != null) {
+					cancelled = true;
+					items.clear();
+					subscriber.onError(error);
+					return;
+				}
+
+				long demand = requested.get();
+				long emitted = 0;
+				T item;
+				while (emitted != demand && !cancelled && (item = items.poll()) != null) {
+					subscriber.onNext(item);
+					emitted++;
+				}
+				if (emitted != 0 && demand != Long.MAX_VALUE) {
+					demand = requested.addAndGet(-emitted);
+				}
+
+				if (!cancelled && items.isEmpty() && !fetching) {
+					if (exhausted) {
+						cancelled = true;
+						subscriber.onComplete();
+						return;
+					}
+					if (demand > 0) {
+						fetch();
+					}
+				}
+
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void fetch() {
+			fetching = true;
+			CompletionStage<Page<T>> page;
+			try {
+				page = fetcher.apply(next);
+			} catch (RuntimeException e) {
+				onPage(null, e);
+				return;
+			}
+			page.whenComplete(this::onPage);
+		}
+
+		private void onPage(Page<T> page, Throwable e) {
+			if (e != null) {
+				error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			} else {
+				if (page.items != null) {
+					for (T item : page.items) {
+						if (item != null) {
+							items.add(item);
+						}
+					}
+				}
+				next = page.next;
+				exhausted = page.next == null;
+			}
+			fetching = false;
+			drain();
+		}
+	}
+}
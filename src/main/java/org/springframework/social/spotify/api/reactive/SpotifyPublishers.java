@@ -0,0 +1,119 @@
+package org.springframework.social.spotify.api.reactive;
+
+import org.reactivestreams.Publisher;
+import org.springframework.social.spotify.api.AlbumSimplified;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Categories;
+import org.springframework.social.spotify.api.Category;
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.PlayHistory;
+import org.springframework.social.spotify.api.PlaylistSimplified;
+import org.springframework.social.spotify.api.Playlists;
+import org.springframework.social.spotify.api.SavedAlbum;
+import org.springframework.social.spotify.api.SavedTrack;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.Track;
+import org.springframework.social.spotify.api.TrackSimplified;
+
+/**
+ * Reactive Streams view of the paged endpoints of a {@link Spotify} binding.
+ * <p>
+ * Every publisher is cold and demand-driven: a page is requested through the
+ * {@code Async*Operations} of the binding only when the subscriber asks for
+ * more items than were already fetched. Items are emitted on the thread that
+ * completed the page, or on the requesting thread.
+ */
+public class SpotifyPublishers {
+
+	/**
+	 * Largest page size accepted by the paged endpoints.
+	 */
+	public static final int MAX_PAGE_SIZE = 50;
+
+	private final Spotify spotify;
+	private final int pageSize;
+
+	public SpotifyPublishers(Spotify spotify) {
+		this(spotify, MAX_PAGE_SIZE);
+	}
+
+	/**
+	 * @param pageSize
+	 *            number of items fetched per request, between 1 and
+	 *            {@value #MAX_PAGE_SIZE}
+	 */
+	public SpotifyPublishers(Spotify spotify, int pageSize) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		this.spotify = spotify;
+		this.pageSize = pageSize;
+	}
+
+	public Publisher<SavedTrack> savedTracks() {
+		return PagePublisher.offset(pageSize, spotify.asyncLibraryOperations()::getSavedTracks);
+	}
+
+	public Publisher<SavedTrack> savedTracks(String market) {
+		return PagePublisher.offset(pageSize,
+				(limit, offset) -> spotify.asyncLibraryOperations().getSavedTracks(limit, offset, market));
+	}
+
+	public Publisher<SavedAlbum> savedAlbums() {
+		return PagePublisher.offset(pageSize, spotify.asyncLibraryOperations()::getSavedAlbums);
+	}
+
+	public Publisher<SavedAlbum> savedAlbums(String market) {
+		return PagePublisher.offset(pageSize,
+				(limit, offset) -> spotify.asyncLibraryOperations().getSavedAlbums(limit, offset, market));
+	}
+
+	public Publisher<AlbumSimplified> artistAlbums(String artistId) {
+		return PagePublisher.offset(pageSize,
+				(limit, offset) -> spotify.asyncArtistsOperations().getArtistAlbums(artistId, limit, offset));
+	}
+
+	public Publisher<TrackSimplified> albumTracks(String albumId) {
+		return PagePublisher.offset(pageSize,
+				(limit, offset) -> spotify.asyncAlbumOperations().getAlbumTracks(albumId, limit, offset));
+	}
+
+	public Publisher<Artist> topArtists() {
+		return PagePublisher.offset(pageSize, spotify.asyncPersonalizationOperations()::topArtists);
+	}
+
+	public Publisher<Track> topTracks() {
+		return PagePublisher.offset(pageSize, spotify.asyncPersonalizationOperations()::topTracks);
+	}
+
+	public Publisher<AlbumSimplified> newReleases() {
+		return PagePublisher.offset(pageSize, spotify.asyncBrowseOperations()::newReleases);
+	}
+
+	public Publisher<PlaylistSimplified> featuredPlaylists() {
+		return PagePublisher.offset(pageSize, (limit, offset) -> spotify.asyncBrowseOperations()
+				.featuredPlaylists(limit, offset).thenApply(Playlists::getPlaylists));
+	}
+
+	public Publisher<Category> categories() {
+		return PagePublisher.offset(pageSize, (limit, offset) -> spotify.asyncBrowseOperations()
+				.categories(limit, offset).thenApply(Categories::getCategories));
+	}
+
+	public Publisher<PlaylistSimplified> categoryPlaylists(String categoryId) {
+		return PagePublisher.offset(pageSize, (limit, offset) -> spotify.asyncBrowseOperations()
+				.categoryPlaylists(categoryId, limit, offset).thenApply(Playlists::getPlaylists));
+	}
+
+	public Publisher<Artist> followingArtists() {
+		return PagePublisher.cursor(pageSize, spotify.asyncFollowOperations()::followingArtists, Cursor::getAfter);
+	}
+
+	/**
+	 * Recently played tracks, most recent first.
+	 */
+	public Publisher<PlayHistory> recentPlayed() {
+		return PagePublisher.cursor(pageSize, spotify.asyncPersonalizationOperations()::recentPlayed,
+				Cursor::getBefore);
+	}
+}
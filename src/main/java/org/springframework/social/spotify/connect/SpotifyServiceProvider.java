@@ -2,20 +2,38 @@ package org.springframework.social.spotify.connect;
 
 import org.springframework.social.oauth2.AbstractOAuth2ServiceProvider;
 import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
 import org.springframework.social.spotify.api.impl.SpotifyTemplate;
 
 public class SpotifyServiceProvider extends AbstractOAuth2ServiceProvider<Spotify> {
 
 	private String clientId;
 
+	private SpotifyClientFactory clientFactory;
+
+	/**
+	 * Creates a provider whose templates use the factory shared by every
+	 * template built with {@link SpotifyTemplate#SpotifyTemplate(String, String)}.
+	 */
 	public SpotifyServiceProvider(String clientId, String clientSecret) {
+		this(clientId, clientSecret, null);
+	}
+
+	/**
+	 * @param clientFactory
+	 *            factory of the templates, left open by the provider, or
+	 *            {@code null} for the shared one
+	 */
+	public SpotifyServiceProvider(String clientId, String clientSecret, SpotifyClientFactory clientFactory) {
 		super(new SpotifyOAuth2Template(clientId, clientSecret));
 		this.clientId = clientId;
+		this.clientFactory = clientFactory;
 	}
 
 	@Override
 	public Spotify getApi(String accessToken) {
-		return new SpotifyTemplate(clientId, accessToken);
+		return clientFactory == null ? new SpotifyTemplate(clientId, accessToken)
+				: new SpotifyTemplate(clientId, accessToken, clientFactory);
 	}
 
 }
@@ -0,0 +1,44 @@
+package org.springframework.social.spotify.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MarketsTest {
+
+	@Test
+	public void testAvailability() {
+		Markets markets = Markets.of("SE", "US", "AA", "ZZ");
+
+		Assert.assertTrue(markets.isAvailableIn("SE"));
+		Assert.assertTrue(markets.isAvailableIn("AA"));
+		Assert.assertTrue(markets.isAvailableIn("ZZ"));
+		Assert.assertFalse(markets.isAvailableIn("FR"));
+		Assert.assertFalse(markets.isAvailableIn("se"));
+		Assert.assertFalse(markets.isAvailableIn("SWE"));
+		Assert.assertFalse(markets.isAvailableIn(null));
+		Assert.assertEquals(4, markets.size());
+		Assert.assertArrayEquals(new String[] { "AA", "SE", "US", "ZZ" }, markets.toArray());
+	}
+
+	@Test
+	public void testInvalidCodesAreIgnored() {
+		Markets markets = Markets.of("SE", "se", "S", "", "1A");
+
+		Assert.assertEquals(Markets.of("SE"), markets);
+		Assert.assertTrue(Markets.of().isEmpty());
+		Assert.assertEquals(Markets.EMPTY, Markets.of());
+	}
+
+	@Test
+	public void testSetOperations() {
+		Markets nordic = Markets.of("SE", "NO", "DK", "FI");
+		Markets europe = Markets.of("SE", "FR", "DE", "FI");
+
+		Assert.assertEquals(Markets.of("SE", "FI"), nordic.and(europe));
+		Assert.assertEquals(Markets.of("SE", "NO", "DK", "FI", "FR", "DE"), nordic.or(europe));
+		Assert.assertTrue(nordic.intersects(europe));
+		Assert.assertFalse(nordic.intersects(Markets.of("US")));
+		Assert.assertEquals(Markets.of("SE", "NO"), Markets.builder().add('S', 'E').add("NO").build());
+		Assert.assertEquals(nordic.hashCode(), Markets.of("FI", "DK", "NO", "SE").hashCode());
+	}
+}
@@ -0,0 +1,130 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Albums;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.operations.AsyncAlbumsOperations;
+
+public class BatchLoaderTest {
+
+	private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	public void testSendsFullBatchesRightAway() throws Exception {
+		try (BatchLoader<String, String> loader = BatchLoader.builder(this::echo).maxBatchSize(3)
+				.window(1, TimeUnit.HOURS).build()) {
+			List<CompletableFuture<String>> values = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				values.add(loader.load("id" + i));
+			}
+
+			for (int i = 0; i < 6; i++) {
+				Assert.assertEquals("ID" + i, values.get(i).get(1, TimeUnit.SECONDS));
+			}
+			Assert.assertEquals(Arrays.asList(Arrays.asList("id0", "id1", "id2"), Arrays.asList("id3", "id4", "id5")),
+					batches);
+		}
+	}
+
+	@Test
+	public void testSendsPartialBatchAfterWindow() throws Exception {
+		try (BatchLoader<String, String> loader = BatchLoader.builder(this::echo).maxBatchSize(50)
+				.window(20, TimeUnit.MILLISECONDS).build()) {
+			CompletableFuture<String> a = loader.load("a");
+			CompletableFuture<String> b = loader.load("b");
+			CompletableFuture<String> again = loader.load("a");
+
+			Assert.assertFalse(a.isDone());
+			Assert.assertEquals("A", a.get(1, TimeUnit.SECONDS));
+			Assert.assertEquals("B", b.get(1, TimeUnit.SECONDS));
+			Assert.assertEquals("A", again.get(1, TimeUnit.SECONDS));
+			Assert.assertEquals(Collections.singletonList(Arrays.asList("a", "b")), batches);
+			Assert.assertEquals(3, loader.getLoads());
+			Assert.assertEquals(1, loader.getDeduplicated());
+			Assert.assertEquals(1, loader.getBatches());
+		}
+	}
+
+	@Test
+	public void testMissingKeysAndFailures() throws Exception {
+		try (BatchLoader<String, String> loader = BatchLoader.<String, String> builder(keys -> {
+			if (keys.contains("fail")) {
+				CompletableFuture<List<String>> failed = new CompletableFuture<>();
+				failed.completeExceptionally(new IllegalStateException("bulk call failed"));
+				return failed;
+			}
+			return CompletableFuture.completedFuture(Arrays.asList("FOUND", null));
+		}).build()) {
+			CompletableFuture<String> found = loader.load("found");
+			CompletableFuture<String> missing = loader.load("missing");
+			CompletableFuture<String> truncated = loader.load("truncated");
+			loader.flush();
+
+			Assert.assertEquals("FOUND", found.get());
+			Assert.assertNull(missing.get());
+			Assert.assertNull(truncated.get());
+
+			CompletableFuture<String> failure = loader.load("fail");
+			loader.flush();
+			try {
+				failure.get();
+				Assert.fail();
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		}
+	}
+
+	@Test
+	public void testCatalogLoaderBatchesAlbums() throws Exception {
+		Spotify spotify = Mockito.mock(Spotify.class);
+		AsyncAlbumsOperations operations = Mockito.mock(AsyncAlbumsOperations.class);
+		Mockito.when(spotify.asyncAlbumOperations()).thenReturn(operations);
+		Mockito.when(operations.getSeveralAlbums(ArgumentMatchers.<String> any())).thenAnswer(invocation -> {
+			Albums albums = new Albums();
+			albums.setAlbums(new Album[invocation.getArguments().length]);
+			for (int i = 0; i < albums.getAlbums().length; i++) {
+				String id = (String) invocation.getArguments()[i];
+				if (!id.startsWith("missing")) {
+					albums.getAlbums()[i] = new Album();
+					albums.getAlbums()[i].setId(id);
+				}
+			}
+			return CompletableFuture.completedFuture(albums);
+		});
+
+		try (CatalogLoader loader = new CatalogLoader(spotify, 1, TimeUnit.HOURS)) {
+			List<CompletableFuture<Album>> albums = new ArrayList<>();
+			for (int i = 0; i < CatalogLoader.MAX_ALBUMS; i++) {
+				albums.add(loader.album((i == 7 ? "missing" : "album") + i));
+			}
+
+			for (int i = 0; i < CatalogLoader.MAX_ALBUMS; i++) {
+				Album album = albums.get(i).get(1, TimeUnit.SECONDS);
+				Assert.assertEquals(i == 7 ? null : "album" + i, album == null ? null : album.getId());
+			}
+			Mockito.verify(operations, Mockito.times(1)).getSeveralAlbums(ArgumentMatchers.<String> any());
+		}
+	}
+
+	private CompletableFuture<List<String>> echo(List<String> keys) {
+		batches.add(keys);
+		List<String> values = new ArrayList<>();
+		for (String key : keys) {
+			values.add(key.toUpperCase());
+		}
+		return CompletableFuture.completedFuture(values);
+	}
+}
@@ -0,0 +1,150 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Track;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.impl.http.RateLimiter;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class BulkOperationsTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final RateLimiter rateLimiter = RateLimiter.builder().permitsPerSecond(10000).burst(1000).build();
+	private final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger maxActive = new AtomicInteger();
+	private SpotifyClientFactory factory;
+	private BulkOperations bulk;
+
+	@Before
+	public void setUp() {
+		factory = SpotifyClientFactory.builder().client(this::transport)
+				.asyncClient(new AsyncClient.Default(this::transport, executor)).rateLimiter(rateLimiter).build();
+		bulk = new BulkOperations(new SpotifyTemplate("client", "TOKEN", factory), 3);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		factory.close();
+		rateLimiter.close();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testChunksAndKeepsOrder() throws Exception {
+		List<Track> tracks = bulk.tracks(ids("track", 120)).get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(120, tracks.size());
+		for (int i = 0; i < tracks.size(); i++) {
+			Assert.assertEquals("track" + i, tracks.get(i).getId());
+		}
+		Assert.assertEquals(3, chunkSizes.size());
+		Assert.assertEquals(Integer.valueOf(50), Collections.max(chunkSizes));
+		Assert.assertEquals(Integer.valueOf(20), Collections.min(chunkSizes));
+		Assert.assertTrue(maxActive.get() <= 3);
+	}
+
+	@Test
+	public void testAlbumChunksOfTwenty() throws Exception {
+		Assert.assertEquals(45, bulk.albums(ids("album", 45)).get(5, TimeUnit.SECONDS).size());
+		Assert.assertEquals(3, chunkSizes.size());
+		Assert.assertEquals(Integer.valueOf(20), Collections.max(chunkSizes));
+	}
+
+	@Test
+	public void testMembershipAndWrites() throws Exception {
+		Membership saved = bulk.isSavedTracks(ids("track", 75)).get(5, TimeUnit.SECONDS);
+		bulk.saveTracks(ids("track", 101)).get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(75, saved.size());
+		for (int i = 0; i < saved.size(); i++) {
+			Assert.assertEquals(i % 2 == 0, saved.get(i));
+		}
+		Assert.assertEquals(38, saved.count());
+		Assert.assertEquals(5, chunkSizes.size());
+	}
+
+	@Test
+	public void testMembershipIndexedLikeInput() throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			ids.add("user" + (i * 3));
+		}
+		Membership following = bulk.isFollowingPlaylist("owner", "playlist", ids).get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(3, chunkSizes.size());
+		Assert.assertEquals(Arrays.asList("user0", "user6", "user12", "user18", "user24", "user30"),
+				following.members(ids));
+		Assert.assertEquals(following.toBitSet().cardinality(), following.count());
+		try {
+			following.get(12);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testEmptyInput() throws Exception {
+		Assert.assertTrue(bulk.artists(Collections.<String> emptyList()).get().isEmpty());
+		Assert.assertTrue(chunkSizes.isEmpty());
+	}
+
+	private Response transport(Request request, Request.Options options) {
+		maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+		try {
+			String url = URLDecoder.decode(request.url(), "UTF-8");
+			String[] ids = url.substring(url.indexOf("ids=") + 4).split(",");
+			chunkSizes.add(ids.length);
+			Thread.sleep(5);
+
+			StringBuilder body = new StringBuilder();
+			if (url.contains("/contains")) {
+				for (String id : ids) {
+					body.append(body.length() == 0 ? "[" : ",")
+							.append(Integer.parseInt(id.replaceAll("\\D", "")) % 2 == 0);
+				}
+				body.append(']');
+			} else if (request.method().equals("GET")) {
+				String type = url.contains("/albums") ? "albums" : url.contains("/artists") ? "artists" : "tracks";
+				body.append("{\"").append(type).append("\":[");
+				for (int i = 0; i < ids.length; i++) {
+					body.append(i == 0 ? "" : ",").append("{\"id\":\"").append(ids[i]).append("\"}");
+				}
+				body.append("]}");
+			}
+			return Response.builder().status(200).reason("OK")
+					.headers(Collections.emptyMap()).body(body.toString(), Util.UTF_8).build();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		} finally {
+			active.decrementAndGet();
+		}
+	}
+
+	private static List<String> ids(String prefix, int count) {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(prefix + i);
+		}
+		return ids;
+	}
+}
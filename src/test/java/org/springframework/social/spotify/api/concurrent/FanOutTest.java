@@ -0,0 +1,105 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FanOutTest {
+
+	private final ExecutorService executor = VirtualThreads
+			.newExecutorOrElse(() -> Executors.newFixedThreadPool(64));
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testBoundsParallelismAndKeepsOrder() throws Exception {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+
+		List<Integer> results = FanOut.map(range(500), 16, executor, i -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			active.decrementAndGet();
+			return i * 2;
+		}).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(500, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			Assert.assertEquals(Integer.valueOf(i * 2), results.get(i));
+		}
+		Assert.assertTrue(maxActive.get() <= 16);
+		Assert.assertTrue(maxActive.get() > 1);
+	}
+
+	@Test
+	public void testCompletedStagesDoNotGrowStack() throws Exception {
+		List<Integer> results = FanOut
+				.mapAsync(range(100000), 4, i -> CompletableFuture.completedFuture(i)).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(100000, results.size());
+		Assert.assertEquals(Integer.valueOf(99999), results.get(99999));
+	}
+
+	@Test
+	public void testFailureStopsNewCalls() throws Exception {
+		AtomicInteger started = new AtomicInteger();
+		IllegalStateException failure = new IllegalStateException();
+
+		CompletableFuture<List<Integer>> result = FanOut.mapAsync(range(100), 2, i -> {
+			started.incrementAndGet();
+			CompletableFuture<Integer> stage = new CompletableFuture<>();
+			if (i == 3) {
+				stage.completeExceptionally(failure);
+			} else {
+				stage.complete(i);
+			}
+			return stage;
+		});
+
+		try {
+			result.get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertSame(failure, e.getCause());
+		}
+		Assert.assertEquals(4, started.get());
+	}
+
+	@Test
+	public void testVirtualThreadsFallBackWhenUnsupported() {
+		ExecutorService fallback = Executors.newSingleThreadExecutor();
+		try {
+			ExecutorService chosen = VirtualThreads.newExecutorOrElse(() -> fallback);
+			Assert.assertEquals(!VirtualThreads.isSupported(), chosen == fallback);
+			if (chosen != fallback) {
+				chosen.shutdown();
+			}
+		} finally {
+			fallback.shutdown();
+		}
+	}
+
+	private static List<Integer> range(int n) {
+		List<Integer> inputs = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			inputs.add(i);
+		}
+		return inputs;
+	}
+}
@@ -0,0 +1,92 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.social.spotify.api.Tracks;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+
+import feign.Client;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Fans out {@code calls} blocking {@code getTopTracks} calls against a stub
+ * transport with a 20ms service time, on a fixed pool of 200 platform threads
+ * against one virtual thread per call.
+ * <p>
+ * Virtual threads need a JDK 21 or later: run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=VirtualThreadsBenchmark -Dbenchmark.java=<jdk21>/bin/java}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+	@Param({ "fixed", "virtual" })
+	public String executor;
+
+	@Param({ "10000" })
+	public int calls;
+
+	private ExecutorService executorService;
+	private SpotifyClientFactory factory;
+	private ArtistsOperations artists;
+	private List<String> artistIds;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		executorService = "virtual".equals(executor) ? VirtualThreads.newExecutor()
+				: Executors.newFixedThreadPool(200);
+
+		Client client = (request, options) -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return Response.builder().status(200).reason("OK").headers(Collections.emptyMap())
+					.body("{\"tracks\":[]}", Util.UTF_8).build();
+		};
+		factory = new SpotifyClientFactory(client);
+		artists = new SpotifyTemplate("client", "TOKEN", factory).artistsOperations();
+
+		artistIds = new ArrayList<>(calls);
+		for (int i = 0; i < calls; i++) {
+			artistIds.add("artist" + i);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		executorService.shutdownNow();
+		factory.close();
+	}
+
+	@Benchmark
+	public List<Tracks> topTracks() throws Exception {
+		return FanOut.map(artistIds, calls, executorService, id -> artists.getTopTracks(id, "US")).get();
+	}
+}
@@ -0,0 +1,177 @@
+package org.springframework.social.spotify.api.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.operations.AsyncLibraryOperations;
+
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+
+public class WritePipelineTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger maxActive = new AtomicInteger();
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testWritesEveryIdInFullChunks() throws Exception {
+		List<WriteProgress> updates = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean closed = new AtomicBoolean();
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> false)).parallelism(3)
+				.listener(updates::add).build()) {
+			WriteProgress result = pipeline.saveTracks(ids(1020).onClose(() -> closed.set(true))).get(5,
+					TimeUnit.SECONDS);
+
+			Assert.assertTrue(result.isDone());
+			Assert.assertEquals(1020, result.getWritten());
+			Assert.assertEquals(0, result.getFailed());
+			Assert.assertTrue(result.getFailedIds().isEmpty());
+			Assert.assertEquals(21, calls.get());
+			Assert.assertEquals(21, updates.size());
+			Assert.assertEquals(1020, written.size());
+			Assert.assertEquals(1020, written.stream().distinct().count());
+			Assert.assertTrue(maxActive.get() <= 3);
+			Assert.assertTrue(closed.get());
+		}
+	}
+
+	@Test
+	public void testRetriesFailedChunks() throws Exception {
+		AtomicInteger failures = new AtomicInteger(2);
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> failures.getAndDecrement() > 0))
+				.parallelism(1).retryDelay(1, TimeUnit.MILLISECONDS).build()) {
+			WriteProgress result = pipeline.saveTracks(ids(100)).get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(100, result.getWritten());
+			Assert.assertEquals(2, result.getRetries());
+			Assert.assertEquals(4, calls.get());
+		}
+	}
+
+	@Test
+	public void testReportsChunksFailingEveryAttempt() throws Exception {
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> chunk[0].equals("id50")))
+				.maxAttempts(2).retryDelay(1, TimeUnit.MILLISECONDS).build()) {
+			WriteProgress result = pipeline.saveTracks(ids(120)).get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(70, result.getWritten());
+			Assert.assertEquals(50, result.getFailed());
+			Assert.assertEquals(50, result.getFailedIds().size());
+			Assert.assertTrue(result.getFailedIds().contains("id99"));
+			Assert.assertEquals(120, result.getSubmitted());
+		}
+	}
+
+	@Test
+	public void testEmptyStream() throws Exception {
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> false)).build()) {
+			Assert.assertEquals(0, pipeline.saveTracks(Stream.empty()).get().getSubmitted());
+			Assert.assertEquals(0, calls.get());
+		}
+	}
+
+	@Test
+	public void testClientErrorsAreNotRetried() throws Exception {
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> chunk[0].equals("id50"), 400))
+				.retryDelay(1, TimeUnit.MILLISECONDS).build()) {
+			WriteProgress result = pipeline.saveTracks(ids(120)).get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(70, result.getWritten());
+			Assert.assertEquals(50, result.getFailed());
+			Assert.assertEquals(0, result.getRetries());
+			Assert.assertEquals(3, calls.get());
+		}
+	}
+
+	@Test
+	public void testServerErrorsAreRetried() throws Exception {
+		AtomicInteger failures = new AtomicInteger(1);
+		try (WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> failures.getAndDecrement() > 0, 503))
+				.retryDelay(1, TimeUnit.MILLISECONDS).build()) {
+			WriteProgress result = pipeline.saveTracks(ids(10)).get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(10, result.getWritten());
+			Assert.assertEquals(1, result.getRetries());
+		}
+	}
+
+	@Test
+	public void testFailsChunksOnceClosed() throws Exception {
+		WritePipeline pipeline = WritePipeline.builder(spotify(chunk -> true)).parallelism(1)
+				.retryDelay(1, TimeUnit.MILLISECONDS).build();
+		pipeline.close();
+		WriteProgress result = pipeline.saveTracks(ids(60)).get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(60, result.getFailed());
+		Assert.assertEquals(0, result.getRetries());
+		Assert.assertEquals(2, calls.get());
+	}
+
+	private Spotify spotify(Predicate<String[]> fails) {
+		return spotify(fails, -1);
+	}
+
+	/**
+	 * @param status
+	 *            status of the failed writes, or -1 for a
+	 *            {@link RetryableException}
+	 */
+	private Spotify spotify(Predicate<String[]> fails, int status) {
+		Spotify spotify = Mockito.mock(Spotify.class);
+		AsyncLibraryOperations library = Mockito.mock(AsyncLibraryOperations.class);
+		Mockito.when(spotify.asyncLibraryOperations()).thenReturn(library);
+		Mockito.when(library.saveTracks(ArgumentMatchers.<String> any())).thenAnswer(invocation -> {
+			String[] chunk = new String[invocation.getArguments().length];
+			for (int i = 0; i < chunk.length; i++) {
+				chunk[i] = (String) invocation.getArguments()[i];
+			}
+			calls.incrementAndGet();
+			boolean fail = fails.test(chunk);
+			return CompletableFuture.runAsync(() -> {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(2);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				if (fail) {
+					throw status < 0 ? new RetryableException("write failed", null)
+							: FeignException.errorStatus("saveTracks", Response.builder().status(status)
+									.headers(Collections.emptyMap()).build());
+				}
+				Collections.addAll(written, chunk);
+			}, executor);
+		});
+		return spotify;
+	}
+
+	private static Stream<String> ids(int count) {
+		return IntStream.range(0, count).mapToObj(i -> "id" + i);
+	}
+}
@@ -0,0 +1,212 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Spotify;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+
+public class AsyncOperationsTest {
+
+	@Test
+	public void testAsyncRequestMatchesSyncRequest() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> Response.builder().status(204).reason("No content")
+						.headers(Collections.emptyMap()).build());
+
+		Spotify spotify = spotify(client);
+		spotify.followOperations().followPlaylist("owner", "playlist", true);
+		Void result = spotify.asyncFollowOperations().followPlaylist("owner", "playlist", true).get();
+
+		Assert.assertNull(result);
+
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(2)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		Request sync = requests.getAllValues().get(0);
+		Request async = requests.getAllValues().get(1);
+		Assert.assertEquals(sync.method(), async.method());
+		Assert.assertEquals(sync.url(), async.url());
+		Assert.assertEquals(sync.headers(), async.headers());
+		Assert.assertArrayEquals(sync.body(), async.body());
+		Assert.assertEquals(Collections.singletonList("Bearer TOKEN"), async.headers().get("Authorization"));
+	}
+
+	@Test
+	public void testAsyncDecodesResult() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> response(200, resource("album.json")));
+
+		CompletableFuture<Album> album = spotify(client).asyncAlbumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+
+		Assert.assertEquals("0sNOF9WDwhWunNAHPD3Baj", album.get().getId());
+
+		ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client).execute(request.capture(), Mockito.any(Request.Options.class));
+		Assert.assertEquals(SpotifyTemplate.BASE_URL + "/v1/albums/0sNOF9WDwhWunNAHPD3Baj", request.getValue().url());
+	}
+
+	@Test
+	public void testAsyncExpandsParameters() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> response(200, "[true,false]".getBytes("UTF-8")));
+
+		Spotify spotify = spotify(client);
+		Boolean[] sync = spotify.libraryOperations().isSavedTracks("a", "b");
+		Boolean[] async = spotify.asyncLibraryOperations().isSavedTracks("a", "b").get();
+
+		Assert.assertArrayEquals(sync, async);
+
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(2)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		Assert.assertEquals(requests.getAllValues().get(0).url(), requests.getAllValues().get(1).url());
+	}
+
+	@Test
+	public void testAsyncCompletesExceptionallyOnError() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> response(404, "{\"message\":\"non existing id\"}".getBytes("UTF-8")));
+
+		CompletableFuture<Album> album = spotify(client).asyncAlbumOperations().getAlbum("missing");
+
+		try {
+			album.get(5, TimeUnit.SECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(album.isCompletedExceptionally());
+		}
+	}
+
+	@Test
+	public void testDecodesOffTransportThread() throws Exception {
+		ExecutorService reactor = Executors.newSingleThreadExecutor();
+		List<Thread> decoders = Collections.synchronizedList(new ArrayList<>());
+		byte[] album = resource("album.json");
+		Client client = (request, options) -> response(200, album);
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(client)
+				.asyncClient(new AsyncClient.Default(client, reactor)).decodeExecutor(task -> {
+					decoders.add(Thread.currentThread());
+					task.run();
+				}).build()) {
+			new SpotifyTemplate("client", "TOKEN", factory).asyncAlbumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj")
+					.get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(1, decoders.size());
+		} finally {
+			reactor.shutdown();
+		}
+	}
+
+	@Test
+	public void testAsyncIOExceptionIsRetryable() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenThrow(new IOException("connection reset"));
+
+		long start = System.nanoTime();
+		try {
+			spotify(client).asyncAlbumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj").get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof RetryableException);
+			Assert.assertEquals("connection reset", e.getCause().getMessage());
+		}
+		Mockito.verify(client, Mockito.times(3)).execute(Mockito.any(Request.class),
+				Mockito.any(Request.Options.class));
+		// 100ms, then 150ms
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+	}
+
+	@Test
+	public void testAsyncWriteIsNotResentAfterIOException() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenThrow(new IOException("read timed out"));
+
+		try {
+			spotify(client).asyncFollowOperations().followPlaylist("owner", "playlist", true).get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof RetryableException);
+		}
+		Mockito.verify(client).execute(Mockito.any(Request.class), Mockito.any(Request.Options.class));
+	}
+
+	@Test
+	public void testAsyncWriteIsResentAfterThrottling() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class))).thenReturn(
+				Response.builder().status(429).reason("Too Many Requests")
+						.headers(Collections.singletonMap("Retry-After", Collections.singletonList("0")))
+						.body(new byte[0]).build(),
+				response(204, new byte[0]));
+
+		spotify(client).asyncFollowOperations().followPlaylist("owner", "playlist", true).get(5, TimeUnit.SECONDS);
+
+		Mockito.verify(client, Mockito.times(2)).execute(Mockito.any(Request.class),
+				Mockito.any(Request.Options.class));
+	}
+
+	@Test
+	public void testCancellationReachesTransport() throws Exception {
+		List<CompletableFuture<Response>> exchanges = new ArrayList<>();
+		AsyncClient transport = (request, options) -> {
+			CompletableFuture<Response> exchange = new CompletableFuture<>();
+			exchanges.add(exchange);
+			return exchange;
+		};
+		Client client = Mockito.mock(Client.class);
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(client).asyncClient(transport)
+				.build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			spotify.asyncLibraryOperations().getSavedTracks().cancel(false);
+			CompletableFuture<Album> first = spotify.asyncAlbumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+			CompletableFuture<Album> second = spotify.asyncAlbumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+
+			Assert.assertEquals(2, exchanges.size());
+			Assert.assertTrue(exchanges.get(0).isCancelled());
+
+			first.cancel(false);
+			Assert.assertFalse(exchanges.get(1).isCancelled());
+			second.cancel(false);
+			Assert.assertTrue(exchanges.get(1).isCancelled());
+			Assert.assertEquals(2, exchanges.size());
+		}
+	}
+
+	private static Spotify spotify(Client client) {
+		SpotifyClientFactory factory = new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run));
+		return new SpotifyTemplate("client", "TOKEN", factory);
+	}
+
+	private static byte[] resource(String name) throws Exception {
+		return Files.readAllBytes(Paths.get(AsyncOperationsTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/" + name).toURI()));
+	}
+
+	private static Response response(int status, byte[] body) {
+		return Response.builder().status(status).reason("").headers(Collections.emptyMap()).body(body).build();
+	}
+}
@@ -0,0 +1,109 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.social.spotify.api.operations.AlbumsOperations;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+import org.springframework.social.spotify.api.operations.LibraryOperations;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import feign.Response;
+import feign.codec.Decoder;
+import feign.jackson.JacksonDecoder;
+
+/**
+ * Decoding the JSON fixtures of the operations tests into the return types of
+ * their Feign methods: Feign's {@code JacksonDecoder}, which resolves the type
+ * on every call, against {@link PreparedJacksonDecoder} with and without
+ * Afterburner's generated accessors, as configured by
+ * {@link SpotifyClientFactory}, with the properties skipped by
+ * {@link DecodingProfile#LEAN}, and with markets decoded into
+ * {@code Markets}. The {@code gc} profiler of the benchmark profile reports
+ * the allocation per decode.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=DecoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+
+	@Param({ "album", "albumTracks", "artists", "savedTracks" })
+	public String fixture;
+
+	@Param({ "jackson", "prepared", "afterburner", "lean", "compact" })
+	public String decoder;
+
+	private Decoder target;
+	private Type type;
+	private byte[] body;
+
+	@Setup
+	public void setUp() throws IOException, URISyntaxException, ReflectiveOperationException {
+		body = Files.readAllBytes(Paths.get(DecoderBenchmark.class
+				.getResource("/org/springframework/social/spotify/api/operations/" + fixture + ".json").toURI()));
+		switch (fixture) {
+		case "album":
+			type = AlbumsOperations.class.getMethod("getAlbum", String.class).getGenericReturnType();
+			break;
+		case "albumTracks":
+			type = AlbumsOperations.class.getMethod("getAlbumTracks", String.class).getGenericReturnType();
+			break;
+		case "artists":
+			type = ArtistsOperations.class.getMethod("getSeveralArtists", String[].class).getGenericReturnType();
+			break;
+		default:
+			type = LibraryOperations.class.getMethod("getSavedTracks").getGenericReturnType();
+		}
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.setPropertyNamingStrategy(PropertyNamingStrategy.CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES);
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		if ("jackson".equals(decoder)) {
+			target = new JacksonDecoder(mapper);
+		} else {
+			if (!"prepared".equals(decoder)) {
+				mapper.registerModule(new AfterburnerModule());
+			}
+			if ("lean".equals(decoder)) {
+				mapper.registerModule(DecodingProfile.LEAN.module());
+			} else if ("compact".equals(decoder)) {
+				mapper.registerModule(DecodingProfile.builder("compact").compactMarkets(true).build().module());
+			}
+			PreparedJacksonDecoder prepared = new PreparedJacksonDecoder(mapper);
+			prepared.prepare(type);
+			target = prepared;
+		}
+	}
+
+	@Benchmark
+	public Object decode() throws IOException {
+		return target.decode(
+				Response.builder().status(200).reason("OK").headers(Collections.emptyMap()).body(body).build(), type);
+	}
+
+}
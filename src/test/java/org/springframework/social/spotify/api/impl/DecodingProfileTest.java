@@ -0,0 +1,214 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.ArtistSimplified;
+import org.springframework.social.spotify.api.TrackSimplified;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.impl.http.ETagCache;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+public class DecodingProfileTest {
+
+	private static final String ALBUM_ID = "0sNOF9WDwhWunNAHPD3Baj";
+
+	@Test
+	public void testFullProfileDecodesEverything() throws Exception {
+		Client client = client(response(200, null));
+		try (SpotifyClientFactory factory = factory(client)) {
+			Album album = new SpotifyTemplate("client", "TOKEN", factory).albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertNotNull(album.getAvailableMarkets());
+			Assert.assertNotNull(album.getImages());
+			Assert.assertNotNull(album.getTracks().getItems()[0].getAvailableMarkets());
+			Request request = requests(client, 1).get(0);
+			Assert.assertEquals("https://api.spotify.com/v1/albums/" + ALBUM_ID, request.url());
+			Assert.assertNull(request.headers().get(ETagCache.VARIANT));
+		}
+	}
+
+	@Test
+	public void testLeanProfileSkipsPropertiesAndAddsMarket() throws Exception {
+		Client client = client(response(200, null));
+		try (SpotifyClientFactory factory = factory(client)) {
+			Album album = new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(DecodingProfile.LEAN)
+					.albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertEquals("She's So Unusual", album.getName());
+			Assert.assertNull(album.getAvailableMarkets());
+			Assert.assertNull(album.getImages());
+			Assert.assertNull(album.getExternalUrls());
+			Assert.assertNull(album.getCopyrights());
+			TrackSimplified track = album.getTracks().getItems()[0];
+			Assert.assertNotNull(track.getName());
+			Assert.assertNull(track.getAvailableMarkets());
+			Assert.assertNull(track.getExternalUrls());
+
+			Request request = requests(client, 1).get(0);
+			Assert.assertEquals("https://api.spotify.com/v1/albums/" + ALBUM_ID + "?market=from_token", request.url());
+			Assert.assertNull(request.headers().get(ETagCache.VARIANT));
+		}
+	}
+
+	@Test
+	public void testLeanProfileKeepsGivenMarket() throws Exception {
+		Client client = client(response(200, null));
+		try (SpotifyClientFactory factory = factory(client)) {
+			new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(DecodingProfile.LEAN).albumOperations()
+					.getAlbum(ALBUM_ID, "SE");
+
+			Assert.assertEquals("https://api.spotify.com/v1/albums/" + ALBUM_ID + "?market=SE",
+					requests(client, 1).get(0).url());
+		}
+	}
+
+	@Test
+	public void testLeanProfileOnAsyncOperations() throws Exception {
+		Client client = client(response(200, null));
+		try (SpotifyClientFactory factory = factory(client)) {
+			Album album = new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(DecodingProfile.LEAN)
+					.asyncAlbumOperations().getAlbum(ALBUM_ID).get();
+
+			Assert.assertNotNull(album.getName());
+			Assert.assertNull(album.getAvailableMarkets());
+			Assert.assertTrue(requests(client, 1).get(0).url().endsWith("?market=from_token"));
+		}
+	}
+
+	@Test
+	public void testProfilesAreCachedApart() throws Exception {
+		DecodingProfile noMarkets = DecodingProfile.builder("no-markets").skip("availableMarkets").build();
+		Client client = client(response(200, "\"v1\""), response(200, "\"v1\""), response(304, "\"v1\""));
+		try (SpotifyClientFactory factory = factory(client)) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Album full = spotify.albumOperations().getAlbum(ALBUM_ID);
+			Album lean = spotify.withDecodingProfile(noMarkets).albumOperations().getAlbum(ALBUM_ID);
+			Album cached = spotify.albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertNotNull(full.getAvailableMarkets());
+			Assert.assertNull(lean.getAvailableMarkets());
+			Assert.assertEquals(full, cached);
+
+			List<Request> requests = requests(client, 3);
+			Assert.assertNull(requests.get(1).headers().get("If-None-Match"));
+			Assert.assertEquals(Collections.singletonList("\"v1\""), requests.get(2).headers().get("If-None-Match"));
+		}
+	}
+
+	@Test
+	public void testCompactMarkets() throws Exception {
+		DecodingProfile compact = DecodingProfile.builder("compact").compactMarkets(true).build();
+		Client client = client(response(200, null));
+		try (SpotifyClientFactory factory = factory(client)) {
+			Album album = new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(compact)
+					.albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertNull(album.getAvailableMarkets());
+			Assert.assertTrue(album.getMarkets().isAvailableIn("SE"));
+			Assert.assertFalse(album.getMarkets().isAvailableIn("XX"));
+			Assert.assertNotNull(album.getImages());
+			TrackSimplified track = album.getTracks().getItems()[0];
+			Assert.assertNull(track.getAvailableMarkets());
+			Assert.assertEquals(album.getMarkets(), track.getMarkets());
+			Assert.assertSame(album.getMarkets(), track.getMarkets());
+			Assert.assertEquals("https://api.spotify.com/v1/albums/" + ALBUM_ID, requests(client, 1).get(0).url());
+		}
+	}
+
+	@Test
+	public void testFullProfileLeavesMarketsEmpty() throws Exception {
+		try (SpotifyClientFactory factory = factory(client(response(200, null)))) {
+			Album album = new SpotifyTemplate("client", "TOKEN", factory).albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertNotNull(album.getAvailableMarkets());
+			Assert.assertNull(album.getMarkets());
+		}
+	}
+
+	@Test
+	public void testDeduplicatesWithinResponse() throws Exception {
+		DecodingProfile deduplicated = DecodingProfile.builder("deduplicated").deduplicate(true).build();
+		try (SpotifyClientFactory factory = factory(client(response(200, null), response(200, null)))) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(deduplicated);
+			Album album = spotify.albumOperations().getAlbum(ALBUM_ID);
+			Album other = spotify.albumOperations().getAlbum(ALBUM_ID);
+
+			ArtistSimplified artist = album.getArtists()[0];
+			TrackSimplified track = album.getTracks().getItems()[0];
+			Assert.assertSame(artist, track.getArtists()[0]);
+			Assert.assertSame(artist.getExternalUrls(), track.getArtists()[0].getExternalUrls());
+			Assert.assertNotSame(artist, other.getArtists()[0]);
+			Assert.assertEquals(artist, other.getArtists()[0]);
+		}
+	}
+
+	@Test
+	public void testDeduplicatesThroughSharedIdentityMap() throws Exception {
+		IdentityMap identityMap = new IdentityMap(1000);
+		DecodingProfile deduplicated = DecodingProfile.builder("shared").deduplicate(identityMap).build();
+		try (SpotifyClientFactory factory = factory(client(response(200, null), response(200, null)))) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory).withDecodingProfile(deduplicated);
+			Album album = spotify.albumOperations().getAlbum(ALBUM_ID);
+			Album other = new SpotifyTemplate("client", "OTHER", factory).withDecodingProfile(deduplicated)
+					.albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertNotSame(album, other);
+			Assert.assertSame(album.getType(), other.getType());
+			Assert.assertSame(album.getHref(), other.getHref());
+			Assert.assertSame(album.getArtists()[0], other.getTracks().getItems()[0].getArtists()[0]);
+			Assert.assertTrue(identityMap.getHits() > 0);
+			Assert.assertTrue(identityMap.size() > 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProfileNamesAreUnique() throws Exception {
+		try (SpotifyClientFactory factory = factory(client(response(200, null)))) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			spotify.withDecodingProfile(DecodingProfile.builder("custom").skip("images").build()).albumOperations();
+			spotify.withDecodingProfile(DecodingProfile.builder("custom").skip("genres").build()).albumOperations();
+		}
+	}
+
+	private static SpotifyClientFactory factory(Client client) {
+		return SpotifyClientFactory.builder().client(client).asyncClient(new AsyncClient.Default(client, Runnable::run))
+				.build();
+	}
+
+	private static Client client(Response first, Response... next) throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class))).thenReturn(first,
+				next);
+		return client;
+	}
+
+	private static List<Request> requests(Client client, int count) throws Exception {
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(count)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		return requests.getAllValues();
+	}
+
+	private static Response response(int status, String etag) throws Exception {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		if (etag != null) {
+			headers.put("etag", Collections.singletonList(etag));
+		}
+		byte[] body = status == 200 ? Files.readAllBytes(Paths.get(DecodingProfileTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI())) : null;
+		return Response.builder().status(status).reason("").headers(headers).body(body).build();
+	}
+}
@@ -0,0 +1,238 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.Artists;
+import org.springframework.social.spotify.api.Track;
+import org.springframework.social.spotify.api.Tracks;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.operations.ArtistsOperations;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.Response;
+
+public class EntityCacheTest {
+
+	private final List<String> urls = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	public void testServesHitsWithoutRequest() throws Exception {
+		EntityCache cache = EntityCache.builder().build();
+		try (SpotifyClientFactory factory = factory(cache)) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Artist artist = spotify.artistsOperations().getArtist("a");
+			Artist cached = new SpotifyTemplate("client", "OTHER", factory).artistsOperations().getArtist("a");
+
+			Assert.assertEquals(artist, cached);
+			Assert.assertEquals(1, urls.size());
+			Assert.assertEquals(0.5, cache.getHitRatio(), 0);
+			Assert.assertEquals(1, cache.size());
+			Assert.assertTrue(cache.getMemoryBytes() > 0);
+		}
+	}
+
+	@Test
+	public void testCallersGetTheirOwnCopies() throws Exception {
+		try (SpotifyClientFactory factory = factory(EntityCache.builder().build())) {
+			ArtistsOperations artists = new SpotifyTemplate("client", "TOKEN", factory).artistsOperations();
+			Artist fetched = artists.getArtist("a");
+			fetched.setName("fetched");
+			Artist cached = artists.getArtist("a");
+			cached.getGenres()[0] = "cached";
+			Artist several = artists.getSeveralArtists("a").getArtists()[0];
+
+			Assert.assertNotSame(cached, several);
+			Assert.assertEquals("A", several.getName());
+			Assert.assertEquals("rock", several.getGenres()[0]);
+			Assert.assertEquals(1, several.getExternalUrls().size());
+			Assert.assertNotSame(cached.getExternalUrls(), several.getExternalUrls());
+			Assert.assertEquals(1, urls.size());
+		}
+	}
+
+	@Test
+	public void testSharesInstancesWhenAsked() throws Exception {
+		try (SpotifyClientFactory factory = factory(EntityCache.builder().shareInstances(true).build())) {
+			ArtistsOperations artists = new SpotifyTemplate("client", "TOKEN", factory).artistsOperations();
+			Artist a = artists.getArtist("a");
+
+			Assert.assertSame(a, artists.getArtist("a"));
+			Assert.assertSame(a, artists.getSeveralArtists("a").getArtists()[0]);
+		}
+	}
+
+	@Test
+	public void testFetchesMissingIdsInOneCall() throws Exception {
+		EntityCache cache = EntityCache.builder().build();
+		try (SpotifyClientFactory factory = factory(cache)) {
+			ArtistsOperations artists = new SpotifyTemplate("client", "TOKEN", factory).artistsOperations();
+			Artist a = artists.getArtist("a");
+			Artists several = artists.getSeveralArtists("a", "b", "c", "b");
+			Artist c = artists.getArtist("c");
+
+			Assert.assertEquals(2, urls.size());
+			Assert.assertTrue(urls.get(1), urls.get(1).endsWith("?ids=b,c"));
+			Assert.assertEquals(a, several.getArtists()[0]);
+			Assert.assertEquals("b", several.getArtists()[1].getId());
+			Assert.assertEquals(c, several.getArtists()[2]);
+			Assert.assertEquals(several.getArtists()[1], several.getArtists()[3]);
+			Assert.assertEquals(2, cache.getHits());
+			Assert.assertEquals(4, cache.getMisses());
+
+			Assert.assertEquals(a, artists.getSeveralArtists("a").getArtists()[0]);
+			Assert.assertEquals(2, urls.size());
+		}
+	}
+
+	@Test
+	public void testMarketsAreCachedApart() throws Exception {
+		try (SpotifyClientFactory factory = factory(EntityCache.builder().build())) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Track track = spotify.tracksOperations().getTrack("t");
+			Track swedish = spotify.tracksOperations().getTrack("t", "SE");
+			Tracks tracks = spotify.tracksOperations().getTracks("SE", new String[] { "t" });
+			spotify.tracksOperations().getTrack("t", "from_token");
+			new SpotifyTemplate("client", "OTHER", factory).tracksOperations().getTrack("t", "from_token");
+
+			Assert.assertNotSame(track, swedish);
+			Assert.assertEquals(swedish, tracks.getTracks()[0]);
+			Assert.assertEquals(4, urls.size());
+		}
+	}
+
+	@Test
+	public void testAsyncFetchesMissingIds() throws Exception {
+		EntityCache cache = EntityCache.builder().build();
+		try (SpotifyClientFactory factory = factory(cache)) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Artist a = spotify.asyncArtistsOperations().getArtist("a").get(5, TimeUnit.SECONDS);
+			Artists several = spotify.asyncArtistsOperations().getSeveralArtists("a", "b").get(5, TimeUnit.SECONDS);
+			Artist b = spotify.asyncArtistsOperations().getArtist("b").get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(a, several.getArtists()[0]);
+			Assert.assertEquals(b, several.getArtists()[1]);
+			Assert.assertTrue(urls.get(1), urls.get(1).endsWith("?ids=b"));
+			Assert.assertEquals(2, urls.size());
+		}
+	}
+
+	@Test
+	public void testExpiresEntries() throws Exception {
+		try (SpotifyClientFactory factory = factory(
+				EntityCache.builder().timeToLive(0, TimeUnit.SECONDS).build())) {
+			ArtistsOperations artists = new SpotifyTemplate("client", "TOKEN", factory).artistsOperations();
+			artists.getArtist("a");
+			artists.getArtist("a");
+
+			Assert.assertEquals(2, urls.size());
+		}
+	}
+
+	@Test
+	public void testAdmitsByFrequency() throws Throwable {
+		AtomicInteger calls = new AtomicInteger();
+		MethodHandler fetch = argv -> {
+			calls.incrementAndGet();
+			Artist artist = new Artist();
+			artist.setId((String) argv[0]);
+			return artist;
+		};
+		long weight = weight(fetch);
+		EntityCache cache = EntityCache.builder().memoryBytes(2 * weight + weight / 2).build();
+		MethodHandler getArtist = cache.cache(ArtistsOperations.class.getMethod("getArtist", String.class), fetch);
+
+		for (int i = 0; i < 3; i++) {
+			getArtist.invoke(new Object[] { "a" });
+		}
+		getArtist.invoke(new Object[] { "b" });
+		getArtist.invoke(new Object[] { "c" });
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, cache.getRejections());
+		Assert.assertEquals(0, cache.getEvictions());
+
+		for (int i = 0; i < 3; i++) {
+			getArtist.invoke(new Object[] { "c" });
+		}
+		Assert.assertEquals(1, cache.getEvictions());
+		calls.set(0);
+		getArtist.invoke(new Object[] { "b" });
+		getArtist.invoke(new Object[] { "c" });
+		Assert.assertEquals(0, calls.get());
+		getArtist.invoke(new Object[] { "a" });
+		Assert.assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testClearForgetsFrequencies() throws Throwable {
+		MethodHandler fetch = argv -> {
+			Artist artist = new Artist();
+			artist.setId((String) argv[0]);
+			return artist;
+		};
+		long weight = weight(fetch);
+		EntityCache cache = EntityCache.builder().memoryBytes(2 * weight + weight / 2).build();
+		MethodHandler getArtist = cache.cache(ArtistsOperations.class.getMethod("getArtist", String.class), fetch);
+
+		for (int i = 0; i < 3; i++) {
+			getArtist.invoke(new Object[] { "a" });
+		}
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getMemoryBytes());
+
+		getArtist.invoke(new Object[] { "b" });
+		getArtist.invoke(new Object[] { "c" });
+		getArtist.invoke(new Object[] { "a" });
+		Assert.assertEquals(1, cache.getRejections());
+		Assert.assertEquals(0, cache.getEvictions());
+	}
+
+	private static long weight(MethodHandler fetch) throws Throwable {
+		EntityCache cache = EntityCache.builder().build();
+		cache.cache(ArtistsOperations.class.getMethod("getArtist", String.class), fetch).invoke(new Object[] { "x" });
+		return cache.getMemoryBytes();
+	}
+
+	private SpotifyClientFactory factory(EntityCache cache) {
+		return SpotifyClientFactory.builder().client(this::transport)
+				.asyncClient(new AsyncClient.Default(this::transport, Runnable::run)).entityCache(cache).build();
+	}
+
+	/**
+	 * Returns entities named after the IDs of the request.
+	 */
+	private Response transport(Request request, Request.Options options) throws IOException {
+		String url = URLDecoder.decode(request.url(), StandardCharsets.UTF_8.name());
+		urls.add(url);
+		String path = url.replaceFirst("\\?market=.*", "");
+		String body;
+		if (path.contains("?ids=")) {
+			String type = path.contains("/tracks") ? "tracks" : "artists";
+			StringBuilder items = new StringBuilder();
+			for (String id : path.substring(path.indexOf("?ids=") + 5).replaceFirst("&.*", "").split(",")) {
+				items.append(items.length() == 0 ? "" : ",").append(entity(id));
+			}
+			body = "{\"" + type + "\":[" + items + "]}";
+		} else {
+			body = entity(path.substring(path.lastIndexOf('/') + 1));
+		}
+		return Response.builder().status(200).reason("OK").headers(Collections.emptyMap())
+				.body(body.getBytes(StandardCharsets.UTF_8)).build();
+	}
+
+	private static String entity(String id) {
+		return "{\"id\":\"" + id + "\",\"name\":\"" + id.toUpperCase()
+				+ "\",\"genres\":[\"rock\"],\"external_urls\":{\"spotify\":\"https://open.spotify.com/" + id + "\"}}";
+	}
+}
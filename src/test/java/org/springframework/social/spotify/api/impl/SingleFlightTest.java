@@ -0,0 +1,204 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+import org.springframework.social.spotify.api.operations.AlbumsOperations;
+
+import feign.Client;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.Response;
+
+public class SingleFlightTest {
+
+	private static final String ALBUM_ID = "0sNOF9WDwhWunNAHPD3Baj";
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private byte[] album;
+
+	@Before
+	public void setUp() throws Exception {
+		album = Files.readAllBytes(Paths.get(SingleFlightTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI()));
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testCoalescesConcurrentCalls() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport).build()) {
+			List<Future<Album>> albums = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN" + i, factory);
+				albums.add(executor.submit(() -> spotify.albumOperations().getAlbum(ALBUM_ID)));
+			}
+			awaitCoalesced(factory.getSingleFlight(), 7);
+			release.countDown();
+
+			for (Future<Album> result : albums) {
+				Assert.assertSame(albums.get(0).get(), result.get());
+			}
+			Assert.assertEquals(1, requests.get());
+			Assert.assertEquals(8, factory.getSingleFlight().getCalls());
+			Assert.assertEquals(0, factory.getSingleFlight().getInFlight());
+		}
+	}
+
+	@Test
+	public void testDifferentArgumentsAreNotCoalesced() throws Exception {
+		release.countDown();
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			spotify.albumOperations().getAlbum(ALBUM_ID);
+			spotify.albumOperations().getAlbum(ALBUM_ID, "SE");
+			spotify.albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertEquals(3, requests.get());
+			Assert.assertEquals(0, factory.getSingleFlight().getCoalesced());
+		}
+	}
+
+	@Test
+	public void testFailureIsNotShared() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport).build()) {
+			SpotifyTemplate expired = new SpotifyTemplate("client", "EXPIRED", factory);
+			SpotifyTemplate valid = new SpotifyTemplate("client", "TOKEN", factory);
+			Future<Album> first = executor.submit(() -> expired.albumOperations().getAlbum(ALBUM_ID));
+			awaitRequests(1);
+			Future<Album> second = executor.submit(() -> valid.albumOperations().getAlbum(ALBUM_ID));
+			awaitCoalesced(factory.getSingleFlight(), 1);
+			release.countDown();
+
+			Assert.assertNotNull(failure(first));
+			Assert.assertEquals(ALBUM_ID, second.get(5, TimeUnit.SECONDS).getId());
+			Assert.assertEquals(2, requests.get());
+			Assert.assertEquals(1, factory.getSingleFlight().getReissued());
+		}
+	}
+
+	@Test
+	public void testAsyncFailureIsNotShared() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport)
+				.asyncClient(new AsyncClient.Default(this::transport, executor)).build()) {
+			CompletableFuture<Album> first = new SpotifyTemplate("client", "EXPIRED", factory).asyncAlbumOperations()
+					.getAlbum(ALBUM_ID);
+			CompletableFuture<Album> second = new SpotifyTemplate("client", "TOKEN", factory).asyncAlbumOperations()
+					.getAlbum(ALBUM_ID);
+			release.countDown();
+
+			Assert.assertNotNull(failure(first));
+			Assert.assertEquals(ALBUM_ID, second.get(5, TimeUnit.SECONDS).getId());
+			Assert.assertEquals(2, requests.get());
+			Assert.assertEquals(1, factory.getSingleFlight().getCoalesced());
+			Assert.assertEquals(1, factory.getSingleFlight().getReissued());
+		}
+	}
+
+	@Test
+	public void testWaitIsBoundedByTimeout() throws Throwable {
+		SingleFlight singleFlight = new SingleFlight(new Request.Options(10, 10));
+		AtomicInteger calls = new AtomicInteger();
+		MethodHandler handler = singleFlight.coalesce(AlbumsOperations.class.getMethod("getAlbum", String.class),
+				argv -> {
+					if (calls.incrementAndGet() == 1) {
+						release.await();
+						return "leader";
+					}
+					return "own";
+				});
+		Future<Object> leader = executor.submit(() -> {
+			try {
+				return handler.invoke(new Object[] { ALBUM_ID });
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		while (calls.get() == 0) {
+			Thread.sleep(1);
+		}
+
+		Assert.assertEquals("own", handler.invoke(new Object[] { ALBUM_ID }));
+		Assert.assertEquals(1, singleFlight.getReissued());
+		release.countDown();
+		Assert.assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCoalescesAsyncCalls() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport)
+				.asyncClient(new AsyncClient.Default(this::transport, executor)).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			CompletableFuture<Album> first = spotify.asyncAlbumOperations().getAlbum(ALBUM_ID);
+			CompletableFuture<Album> second = spotify.asyncAlbumOperations().getAlbum(ALBUM_ID);
+			second.cancel(false);
+			CompletableFuture<Album> third = spotify.asyncAlbumOperations().getAlbum(ALBUM_ID);
+			release.countDown();
+
+			Assert.assertEquals(ALBUM_ID, first.get(5, TimeUnit.SECONDS).getId());
+			Assert.assertSame(first.get(), third.get(5, TimeUnit.SECONDS));
+			Assert.assertEquals(1, requests.get());
+			Assert.assertEquals(2, factory.getSingleFlight().getCoalesced());
+		}
+	}
+
+	private static Class<?> failure(Future<?> future) throws InterruptedException {
+		try {
+			future.get();
+			return null;
+		} catch (ExecutionException e) {
+			return e.getCause().getClass();
+		}
+	}
+
+	private void awaitRequests(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (requests.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		Assert.assertEquals(count, requests.get());
+	}
+
+	private static void awaitCoalesced(SingleFlight singleFlight, long coalesced) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (singleFlight.getCoalesced() < coalesced && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		Assert.assertEquals(coalesced, singleFlight.getCoalesced());
+	}
+
+	private Response transport(Request request, Request.Options options) {
+		requests.incrementAndGet();
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		int code = request.headers().get("Authorization").contains("Bearer EXPIRED") ? 401 : 200;
+		return Response.builder().status(code).reason("").headers(Collections.emptyMap())
+				.body(code == 200 ? album : "{}".getBytes()).build();
+	}
+}
@@ -0,0 +1,87 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.social.spotify.api.SpotifyErrorDecoder;
+import org.springframework.social.spotify.api.operations.AlbumsOperations;
+import org.springframework.social.spotify.api.operations.PersonalizationOperations;
+import org.springframework.social.spotify.api.operations.ProfilesOperations;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+
+import feign.Feign;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+
+/**
+ * Cost of getting a {@code Spotify} for a new access token: rebuilding Jackson
+ * and the Feign clients per token (the previous {@link SpotifyTemplate}
+ * behaviour) against a per-token view of a shared {@link SpotifyClientFactory}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=SpotifyClientFactoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpotifyClientFactoryBenchmark {
+
+	private SpotifyClientFactory factory;
+
+	@Setup
+	public void setUp() {
+		factory = new SpotifyClientFactory();
+	}
+
+	@Benchmark
+	public void clientsPerToken(Blackhole blackhole) {
+		RequestInterceptor interceptor = new AuthRequestInterceptor("TOKEN");
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.setPropertyNamingStrategy(PropertyNamingStrategy.CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES);
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		Decoder decoder = new JacksonDecoder(mapper);
+		Encoder encoder = new JacksonEncoder(mapper);
+		ErrorDecoder errorDecoder = new SpotifyErrorDecoder(decoder);
+
+		blackhole.consume(Feign.builder().errorDecoder(errorDecoder).decoder(decoder).encoder(encoder)
+				.requestInterceptor(interceptor).target(ProfilesOperations.class, SpotifyTemplate.BASE_URL));
+		blackhole.consume(Feign.builder().errorDecoder(errorDecoder).decoder(decoder).encoder(encoder)
+				.requestInterceptor(interceptor).target(AlbumsOperations.class, SpotifyTemplate.BASE_URL));
+		blackhole.consume(Feign.builder().errorDecoder(errorDecoder).decoder(decoder).encoder(encoder)
+				.requestInterceptor(interceptor).target(PersonalizationOperations.class, SpotifyTemplate.BASE_URL));
+	}
+
+	@Benchmark
+	public SpotifyTemplate templatePerToken() {
+		return new SpotifyTemplate("client", "TOKEN", factory);
+	}
+
+	@Benchmark
+	public void templatePerTokenWithOperations(Blackhole blackhole) {
+		SpotifyTemplate template = new SpotifyTemplate("client", "TOKEN", factory);
+		blackhole.consume(template.profilesOperations());
+		blackhole.consume(template.albumOperations());
+		blackhole.consume(template.personalizationOperations());
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.springframework.social.spotify.api.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Spotify;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+public class SpotifyTemplateTest {
+
+	@Test
+	public void testTemplatesShareFactoryAndSendOwnToken() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> albumResponse());
+
+		SpotifyClientFactory factory = new SpotifyClientFactory(client);
+		Spotify first = new SpotifyTemplate("client", "TOKEN1", factory);
+		Spotify second = new SpotifyTemplate("client", "TOKEN2", factory);
+
+		Album album = first.albumOperations().getAlbum("2BTZIqw0ntH9MvilQ3ewNY");
+		second.albumOperations().getAlbum("2BTZIqw0ntH9MvilQ3ewNY");
+
+		Assert.assertEquals("0sNOF9WDwhWunNAHPD3Baj", album.getId());
+
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(2)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		Assert.assertEquals(Collections.singletonList("Bearer TOKEN1"),
+				requests.getAllValues().get(0).headers().get("Authorization"));
+		Assert.assertEquals(Collections.singletonList("Bearer TOKEN2"),
+				requests.getAllValues().get(1).headers().get("Authorization"));
+		Assert.assertNull(AccessTokenContext.current());
+	}
+
+	@Test
+	public void testOperationsAreBoundOnce() {
+		Spotify spotify = new SpotifyTemplate("client", "TOKEN", new SpotifyClientFactory(Mockito.mock(Client.class)));
+
+		Assert.assertSame(spotify.albumOperations(), spotify.albumOperations());
+		Assert.assertTrue(spotify.isAuthorized());
+	}
+
+	private static Response albumResponse() throws Exception {
+		byte[] body = Files.readAllBytes(Paths.get(SpotifyTemplateTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI()));
+		return Response.builder().status(200).reason("OK").headers(Collections.emptyMap()).body(body).build();
+	}
+}
@@ -0,0 +1,85 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class ApacheAsyncClientTest {
+
+	private MockWebServer server;
+	private ApacheAsyncClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().setResponseCode(200).setBody("[true]").setBodyDelay(200,
+						TimeUnit.MILLISECONDS);
+			}
+		});
+		server.start();
+		client = ApacheAsyncClient.builder().ioThreads(1).build();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		client.close();
+		server.shutdown();
+	}
+
+	@Test
+	public void testRequestsInFlightExceedIoThreads() throws Exception {
+		List<CompletableFuture<Response>> responses = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < 32; i++) {
+			Request request = Request.create("GET", server.url("/v1/me/tracks/contains?ids=" + i).toString(),
+					new HashMap<>(), null, Util.UTF_8);
+			responses.add(client.execute(request, new Request.Options()));
+		}
+		for (CompletableFuture<Response> response : responses) {
+			Response result = response.get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(200, result.status());
+			Assert.assertEquals("[true]", Util.toString(result.body().asReader()));
+		}
+
+		Assert.assertEquals(32, server.getRequestCount());
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 32 * 200 / 2);
+	}
+
+	@Test
+	public void testSendsHeadersAndBody() throws Exception {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("Authorization", Arrays.asList("Bearer TOKEN"));
+		headers.put("Content-Type", Arrays.asList("application/json"));
+		headers.put("Content-Length", Arrays.asList("16"));
+		Request request = Request.create("PUT", server.url("/v1/me/tracks").toString(), headers,
+				"{\"public\":true}".getBytes(Util.UTF_8), Util.UTF_8);
+
+		client.execute(request, new Request.Options()).get(10, TimeUnit.SECONDS);
+
+		RecordedRequest recorded = server.takeRequest();
+		Assert.assertEquals("PUT", recorded.getMethod());
+		Assert.assertEquals("Bearer TOKEN", recorded.getHeader("Authorization"));
+		Assert.assertEquals("{\"public\":true}", recorded.getBody().readUtf8());
+	}
+}
@@ -0,0 +1,168 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.SavedTrack;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class ETagCacheTest {
+
+	private static final String ALBUM_ID = "0sNOF9WDwhWunNAHPD3Baj";
+
+	@Test
+	public void testNotModifiedDecodesCachedBody() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenReturn(response(200, "\"v1\"", resource("album.json")), response(304, "\"v1\"", null));
+
+		SpotifyClientFactory factory = new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run));
+		SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+		Album first = spotify.albumOperations().getAlbum(ALBUM_ID);
+		Album second = new SpotifyTemplate("client", "OTHER", factory).albumOperations().getAlbum(ALBUM_ID);
+
+		Assert.assertEquals(first, second);
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals(1, factory.getETagCache().getHits());
+		Assert.assertEquals(1, factory.getETagCache().getMisses());
+
+		List<Request> requests = requests(client, 2);
+		Assert.assertNull(requests.get(0).headers().get("If-None-Match"));
+		Assert.assertEquals(Collections.singletonList("\"v1\""), requests.get(1).headers().get("If-None-Match"));
+	}
+
+	@Test
+	public void testAsyncNotModifiedDecodesCachedBody() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenReturn(response(200, "\"v1\"", resource("album.json")), response(304, "\"v1\"", null));
+
+		SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN",
+				new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run)));
+		Album first = spotify.asyncAlbumOperations().getAlbum(ALBUM_ID).get();
+		Album second = spotify.albumOperations().getAlbum(ALBUM_ID);
+
+		Assert.assertEquals(first, second);
+		Assert.assertNotSame(first, second);
+	}
+
+	@Test
+	public void testCallersDoNotShareObjects() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class))).thenReturn(
+				response(200, "\"v1\"", resource("album.json")), response(304, "\"v1\"", null),
+				response(304, "\"v1\"", null));
+
+		SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN",
+				new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run)));
+		spotify.albumOperations().getAlbum(ALBUM_ID).setName("first");
+		spotify.albumOperations().getAlbum(ALBUM_ID).getTracks().getItems()[0].setName("second");
+		Album third = spotify.albumOperations().getAlbum(ALBUM_ID);
+
+		Assert.assertEquals("She's So Unusual", third.getName());
+		Assert.assertNotEquals("second", third.getTracks().getItems()[0].getName());
+	}
+
+	@Test
+	public void testUserEndpointsAreScopedByToken() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenAnswer(invocation -> response(200, "\"v1\"", resource("savedTracks.json")));
+
+		SpotifyClientFactory factory = new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run));
+		Paging<SavedTrack> first = new SpotifyTemplate("client", "TOKEN1", factory).libraryOperations()
+				.getSavedTracks();
+		Paging<SavedTrack> second = new SpotifyTemplate("client", "TOKEN2", factory).libraryOperations()
+				.getSavedTracks();
+
+		Assert.assertNotSame(first, second);
+		Assert.assertNull(requests(client, 2).get(1).headers().get("If-None-Match"));
+	}
+
+	@Test
+	public void testChangedResourceReplacesEntry() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class))).thenReturn(
+				response(200, "\"v1\"", resource("album.json")), response(200, "\"v2\"", resource("album.json")),
+				response(304, "\"v2\"", null));
+
+		SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN",
+				new SpotifyClientFactory(client, new AsyncClient.Default(client, Runnable::run)));
+		spotify.albumOperations().getAlbum(ALBUM_ID);
+		Album second = spotify.albumOperations().getAlbum(ALBUM_ID);
+		Album third = spotify.albumOperations().getAlbum(ALBUM_ID);
+
+		Assert.assertEquals(second, third);
+		Assert.assertEquals(Collections.singletonList("\"v2\""), requests(client, 3).get(2).headers().get("If-None-Match"));
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws Exception {
+		ETagCache cache = new ETagCache(2);
+		Client client = cache.client((request, options) -> response(200, "\"v1\"", "{}".getBytes(Util.UTF_8)));
+		for (String id : Arrays.asList("a", "b", "c")) {
+			Request request = Request.create("GET", "https://api.spotify.com/v1/artists/" + id,
+					Collections.emptyMap(), null, Util.UTF_8);
+			cache.decoder((response, type) -> new Object()).decode(client.execute(request, new Request.Options()),
+					Object.class);
+		}
+
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testHoldsNoDecodedObject() throws Exception {
+		ETagCache cache = new ETagCache();
+		Client client = cache.client((request, options) -> response(request.headers().containsKey("If-None-Match")
+				? 304 : 200, "\"v1\"", "{}".getBytes(Util.UTF_8)));
+		Request request = Request.create("GET", "https://api.spotify.com/v1/artists/a", Collections.emptyMap(),
+				null, Util.UTF_8);
+		WeakReference<Object> cached = new WeakReference<>(
+				cache.decoder((response, type) -> new Object()).decode(client.execute(request, null), Object.class));
+
+		Response notModified = client.execute(request, null);
+		Assert.assertTrue(ETagCache.isNotModified(notModified));
+		Assert.assertEquals("{}", Util.toString(notModified.body().asReader()));
+		for (int i = 0; i < 20 && cached.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertNull(cached.get());
+	}
+
+	private static List<Request> requests(Client client, int count) throws Exception {
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(count)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		return requests.getAllValues();
+	}
+
+	private static byte[] resource(String name) throws Exception {
+		return Files.readAllBytes(Paths.get(ETagCacheTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/" + name).toURI()));
+	}
+
+	private static Response response(int status, String etag, byte[] body) {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("etag", Collections.singletonList(etag));
+		return Response.builder().status(status).reason("").headers(headers).body(body).build();
+	}
+}
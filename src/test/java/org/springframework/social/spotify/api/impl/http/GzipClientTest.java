@@ -0,0 +1,158 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class GzipClientTest {
+
+	private static final String ALBUM_URL = "https://api.spotify.com/v1/albums/0sNOF9WDwhWunNAHPD3Baj?market=ES";
+
+	@Test
+	public void testAsksForCompression() throws Exception {
+		Client delegate = Mockito.mock(Client.class);
+		Mockito.when(delegate.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class)))
+				.thenReturn(response(null, "{}".getBytes(Util.UTF_8)));
+
+		new GzipClient(delegate).execute(request(), new Request.Options());
+
+		ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(delegate).execute(sent.capture(), Mockito.any(Request.Options.class));
+		Assert.assertEquals(Collections.singletonList("gzip, deflate"), sent.getValue().headers().get("Accept-Encoding"));
+		Assert.assertEquals(Collections.singletonList("Bearer TOKEN"), sent.getValue().headers().get("Authorization"));
+	}
+
+	@Test
+	public void testInflatesGzipAndReportsSizes() throws Exception {
+		byte[] album = album();
+		Client delegate = (request, options) -> response("gzip", gzip(album));
+		CompressionStats stats = new CompressionStats();
+
+		Response response = new GzipClient(delegate, stats).execute(request(), new Request.Options());
+		byte[] body = Util.toByteArray(response.body().asInputStream());
+		response.close();
+
+		Assert.assertArrayEquals(album, body);
+		Assert.assertNull(response.headers().get("Content-Encoding"));
+		Assert.assertNull(response.headers().get("Content-Length"));
+
+		CompressionStats.Endpoint endpoint = stats.getEndpoints().get("GET /v1/albums/{id}");
+		Assert.assertEquals(1, endpoint.getResponses());
+		Assert.assertEquals(gzip(album).length, endpoint.getWireBytes());
+		Assert.assertEquals(album.length, endpoint.getDecodedBytes());
+		Assert.assertTrue(stats.getBytesSaved() > album.length / 2);
+	}
+
+	@Test
+	public void testInflatesZlibAndRawDeflate() throws Exception {
+		byte[] album = album();
+		for (boolean raw : new boolean[] { false, true }) {
+			byte[] deflated = deflate(album, raw);
+			Client delegate = (request, options) -> response("deflate", deflated);
+
+			Response response = new GzipClient(delegate).execute(request(), new Request.Options());
+
+			Assert.assertArrayEquals(album, Util.toByteArray(response.body().asInputStream()));
+		}
+	}
+
+	@Test
+	public void testEmptyCompressedBody() throws Exception {
+		Client delegate = (request, options) -> response("gzip", new byte[0]);
+
+		Response response = new GzipClient(delegate).execute(request(), new Request.Options());
+
+		Assert.assertEquals(0, Util.toByteArray(response.body().asInputStream()).length);
+	}
+
+	@Test
+	public void testTemplateDecodesCompressedResponse() throws Exception {
+		byte[] album = album();
+		Client delegate = (request, options) -> response("gzip", gzip(album));
+
+		try (SpotifyClientFactory factory = new SpotifyClientFactory(delegate)) {
+			Album actual = new SpotifyTemplate("client", "TOKEN", factory).albumOperations()
+					.getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+
+			Assert.assertEquals("0sNOF9WDwhWunNAHPD3Baj", actual.getId());
+			Assert.assertEquals(1, factory.getCompressionStats().getEndpoints().get("GET /v1/albums/{id}")
+					.getResponses());
+		}
+	}
+
+	@Test
+	public void testEndpoints() {
+		Assert.assertEquals("GET /v1/albums/{id}/tracks", Endpoints.of(Request.create("GET",
+				"https://api.spotify.com/v1/albums/0sNOF9WDwhWunNAHPD3Baj/tracks?limit=50", headers(), null, null)));
+		Assert.assertEquals("PUT /v1/users/{user_id}/playlists/{id}/followers", Endpoints.of(Request.create("PUT",
+				"https://api.spotify.com/v1/users/jmperezperez/playlists/2v3iNvBX8Ay1Gt2uXtUKUT/followers", headers(),
+				null, null)));
+		Assert.assertEquals("GET /v1/me/tracks", Endpoints.of(Request.create("GET",
+				"https://api.spotify.com/v1/me/tracks?offset=50", headers(), null, null)));
+		Assert.assertEquals("GET /v1/albums/{id}/tracks", Endpoints.of("GET", "/v1/albums/{id}/tracks"));
+		Assert.assertEquals("GET /v1/users/{user_id}/playlists", Endpoints.of("GET", "/v1/users/{user_id}/playlists"));
+	}
+
+	private static Request request() {
+		return Request.create("GET", ALBUM_URL, headers(), null, Util.UTF_8);
+	}
+
+	private static Map<String, Collection<String>> headers() {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("Authorization", Arrays.asList("Bearer TOKEN"));
+		return headers;
+	}
+
+	private static Response response(String encoding, byte[] body) {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("Content-Length", Arrays.asList(String.valueOf(body.length)));
+		if (encoding != null) {
+			headers.put("content-encoding", Arrays.asList(encoding));
+		}
+		return Response.builder().status(200).reason("OK").headers(headers).body(body).build();
+	}
+
+	private static byte[] album() throws Exception {
+		return Files.readAllBytes(Paths.get(GzipClientTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI()));
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+			deflate.write(data);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,101 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Many threads issuing small GETs against a local stub with a 5ms service
+ * time: Feign's default {@code HttpURLConnection} client against
+ * {@link Http2Client} over cleartext HTTP/2. Latency percentiles come from the
+ * sample-time mode; the number of connections the stub accepted is printed at
+ * the end of each trial.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=Http2ClientBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(64)
+@Fork(1)
+public class Http2ClientBenchmark {
+
+	@Param({ "default", "http2" })
+	public String transport;
+
+	private MockWebServer server;
+	private Client client;
+	private String url;
+	private final AtomicInteger connections = new AtomicInteger();
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		java.util.logging.Logger.getLogger(MockWebServer.class.getName()).setLevel(java.util.logging.Level.WARNING);
+		server = new MockWebServer();
+		if ("http2".equals(transport)) {
+			server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+			client = Http2Client.builder().priorKnowledge(true).build();
+		} else {
+			client = new Client.Default(null, null);
+		}
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				if (request.getSequenceNumber() == 0) {
+					connections.incrementAndGet();
+				}
+				Thread.sleep(5);
+				return new MockResponse().setBody("[true,false]");
+			}
+		});
+		server.start();
+		url = server.url("/v1/me/following/contains?type=artist&ids=1,2").toString();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		System.out.println();
+		System.out.println(transport + ": " + connections.get() + " connections for " + server.getRequestCount()
+				+ " requests");
+		if (client instanceof Http2Client) {
+			((Http2Client) client).close();
+		}
+		server.shutdown();
+	}
+
+	@Benchmark
+	public String get() throws IOException {
+		Request request = Request.create("GET", url, Collections.emptyMap(), null, Util.UTF_8);
+		Response response = client.execute(request, new Request.Options());
+		return Util.toString(response.body().asReader());
+	}
+
+}
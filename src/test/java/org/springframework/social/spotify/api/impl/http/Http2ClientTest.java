@@ -0,0 +1,129 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class Http2ClientTest {
+
+	private MockWebServer server;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new MockWebServer();
+		server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().setResponseCode(200).setBody("[true]").setBodyDelay(20,
+						TimeUnit.MILLISECONDS);
+			}
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.shutdown();
+	}
+
+	@Test
+	public void testConcurrentRequestsShareOneConnection() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try (Http2Client client = Http2Client.builder().priorKnowledge(true).build()) {
+			String url = server.url("/v1/me/following/contains?type=artist&ids=1").toString();
+
+			List<Future<String>> bodies = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				bodies.add(executor.submit(() -> {
+					Request request = Request.create("GET", url, Collections.emptyMap(), null, Util.UTF_8);
+					Response response = client.execute(request, new Request.Options());
+					return Util.toString(response.body().asReader());
+				}));
+			}
+			for (Future<String> body : bodies) {
+				Assert.assertEquals("[true]", body.get());
+			}
+
+			Assert.assertEquals(1, client.getOpenConnections());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testHeadersAndBodyAreSent() throws Exception {
+		try (Http2Client client = Http2Client.builder().priorKnowledge(true).build()) {
+			Map<String, Collection<String>> headers = new HashMap<>();
+			headers.put("Authorization", Arrays.asList("Bearer TOKEN"));
+			headers.put("Content-Type", Arrays.asList("application/json"));
+			Request request = Request.create("PUT", server.url("/v1/users/o/playlists/p/followers").toString(),
+					headers, "{\"public\": true }".getBytes(Util.UTF_8), Util.UTF_8);
+
+			Response response = client.execute(request, new Request.Options());
+
+			Assert.assertEquals(200, response.status());
+			RecordedRequest recorded = server.takeRequest();
+			Assert.assertEquals("PUT", recorded.getMethod());
+			Assert.assertEquals("Bearer TOKEN", recorded.getHeader("Authorization"));
+			Assert.assertEquals("{\"public\": true }", recorded.getBody().readUtf8());
+		}
+	}
+
+	@Test
+	public void testRequestOptionsOverrideTimeouts() throws Exception {
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().setResponseCode(200).setBody("[true]").setHeadersDelay(500,
+						TimeUnit.MILLISECONDS);
+			}
+		});
+		try (Http2Client client = Http2Client.builder().priorKnowledge(true).build()) {
+			Request request = Request.create("GET", server.url("/v1/me").toString(), Collections.emptyMap(), null,
+					Util.UTF_8);
+
+			Assert.assertEquals(200, client.execute(request, new Request.Options()).status());
+			try {
+				client.execute(request, new Request.Options(1000, 50));
+				Assert.fail("read timeout not applied");
+			} catch (InterruptedIOException expected) {
+				// timed out
+			}
+		}
+	}
+
+	@Test
+	public void testBodylessPostSendsEmptyBody() throws Exception {
+		try (Http2Client client = Http2Client.builder().priorKnowledge(true).build()) {
+			Request request = Request.create("POST", server.url("/v1/me/player/next").toString(),
+					Collections.emptyMap(), null, Util.UTF_8);
+
+			Assert.assertEquals(200, client.execute(request, new Request.Options()).status());
+			Assert.assertEquals(0, server.takeRequest().getBodySize());
+		}
+	}
+}
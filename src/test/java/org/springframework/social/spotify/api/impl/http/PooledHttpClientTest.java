@@ -0,0 +1,75 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class PooledHttpClientTest {
+
+	private HttpServer server;
+	private Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testConnectionIsReused() throws Exception {
+		try (PooledHttpClient client = PooledHttpClient.builder().maxConnectionsPerRoute(2).build()) {
+			String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/me";
+			for (int i = 0; i < 5; i++) {
+				Request request = Request.create("GET", url, Collections.emptyMap(), null, Util.UTF_8);
+				Response response = client.execute(request, new Request.Options());
+				Assert.assertEquals(200, response.status());
+				Assert.assertEquals("{}", Util.toString(response.body().asReader()));
+			}
+
+			Assert.assertEquals(1, clientPorts.size());
+			Assert.assertEquals(1, client.getOpenConnections());
+		}
+	}
+
+	@Test
+	public void testDnsLookupIsCached() throws Exception {
+		AtomicInteger lookups = new AtomicInteger();
+		CachingDnsResolver resolver = new CachingDnsResolver(host -> {
+			lookups.incrementAndGet();
+			return new InetAddress[] { InetAddress.getLoopbackAddress() };
+		}, TimeUnit.MINUTES.toMillis(1));
+
+		resolver.resolve("api.spotify.com");
+		resolver.resolve("api.spotify.com");
+
+		Assert.assertEquals(1, lookups.get());
+	}
+}
@@ -0,0 +1,186 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import feign.Client;
+import feign.Response;
+import feign.RetryableException;
+
+public class RateLimiterTest {
+
+	private static final String ALBUM_ID = "0sNOF9WDwhWunNAHPD3Baj";
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private byte[] album;
+	private int throttledResponses;
+
+	@Before
+	public void setUp() throws Exception {
+		album = Files.readAllBytes(Paths.get(RateLimiterTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI()));
+	}
+
+	@Test
+	public void testBurstThenDelay() {
+		try (RateLimiter limiter = RateLimiter.builder().permitsPerSecond(20).burst(3).build()) {
+			long start = System.nanoTime();
+			for (int i = 0; i < 5; i++) {
+				limiter.acquire();
+			}
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			Assert.assertEquals(5, limiter.getRequests());
+			Assert.assertEquals(2, limiter.getDelayed());
+			Assert.assertTrue(elapsed >= 80);
+		}
+	}
+
+	@Test
+	public void testUnboundedRateOnlyPausesAfterThrottling() {
+		try (RateLimiter limiter = RateLimiter.builder().permitsPerSecond(Double.POSITIVE_INFINITY).build()) {
+			for (int i = 0; i < 100; i++) {
+				limiter.acquire();
+			}
+			Assert.assertEquals(0, limiter.getDelayed());
+
+			limiter.onThrottled(100);
+			long start = System.nanoTime();
+			limiter.acquire();
+
+			Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 80);
+			Assert.assertEquals(Double.POSITIVE_INFINITY, limiter.getPermitsPerSecond(), 0);
+		}
+	}
+
+	@Test
+	public void testThrottlingPausesAndHalvesRate() {
+		try (RateLimiter limiter = RateLimiter.builder().permitsPerSecond(8).minPermitsPerSecond(3).build()) {
+			limiter.onThrottled(200);
+
+			Assert.assertEquals(4, limiter.getPermitsPerSecond(), 0.001);
+			Assert.assertTrue(limiter.getPausedMillis() > 100);
+
+			long start = System.nanoTime();
+			limiter.acquire();
+			Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+
+			limiter.onThrottled(0);
+			Assert.assertEquals(3, limiter.getPermitsPerSecond(), 0.001);
+			limiter.onSuccess();
+			Assert.assertEquals(3.08, limiter.getPermitsPerSecond(), 0.001);
+			Assert.assertEquals(2, limiter.getThrottled());
+		}
+	}
+
+	@Test
+	public void testAsyncAcquireDoesNotBlock() throws Exception {
+		try (RateLimiter limiter = RateLimiter.builder().permitsPerSecond(10).burst(1).build()) {
+			Assert.assertTrue(limiter.acquireAsync().isDone());
+			long start = System.nanoTime();
+			Assert.assertFalse(limiter.acquireAsync().thenRun(() -> {
+			}).isDone());
+			Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+			Assert.assertEquals(1, limiter.getWaiting());
+		}
+	}
+
+	@Test
+	public void testRetryAfter() {
+		Assert.assertEquals(2000, RateLimiter.retryAfterMillis("2"));
+		Assert.assertEquals(RateLimiter.DEFAULT_RETRY_AFTER_MILLIS, RateLimiter.retryAfterMillis(null));
+		Assert.assertEquals(RateLimiter.DEFAULT_RETRY_AFTER_MILLIS, RateLimiter.retryAfterMillis("soon"));
+		Assert.assertEquals(0, RateLimiter.retryAfterMillis("Thu, 01 Jan 1970 00:00:00 GMT"));
+		String later = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+		long millis = RateLimiter.retryAfterMillis(later);
+		Assert.assertTrue(millis > 55000 && millis <= 60000);
+	}
+
+	@Test
+	public void testTemplateRetriesThrottledRequest() throws Exception {
+		throttledResponses = 1;
+		RateLimiter limiter = RateLimiter.builder().build();
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport)
+				.rateLimiter(limiter).build()) {
+			Album result = new SpotifyTemplate("client", "TOKEN", factory).albumOperations().getAlbum(ALBUM_ID);
+
+			Assert.assertEquals(ALBUM_ID, result.getId());
+			Assert.assertEquals(2, requests.get());
+			Assert.assertEquals(1, limiter.getThrottled());
+			Assert.assertSame(limiter, factory.getRateLimiter());
+		} finally {
+			limiter.close();
+		}
+	}
+
+	@Test
+	public void testAsyncTemplateRetriesThrottledRequest() throws Exception {
+		throttledResponses = 1;
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport)
+				.asyncClient(new AsyncClient.Default(this::transport, executor)).build()) {
+			Album result = new SpotifyTemplate("client", "TOKEN", factory).asyncAlbumOperations().getAlbum(ALBUM_ID)
+					.get(5, TimeUnit.SECONDS);
+
+			Assert.assertEquals(ALBUM_ID, result.getId());
+			Assert.assertEquals(2, requests.get());
+			Assert.assertEquals(1, factory.getRateLimiter().getThrottled());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFactoryDoesNotCapRateByDefault() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			for (int i = 0; i < 30; i++) {
+				spotify.albumOperations().getAlbum(ALBUM_ID);
+			}
+
+			Assert.assertEquals(30, requests.get());
+			Assert.assertEquals(0, factory.getRateLimiter().getDelayed());
+		}
+	}
+
+	@Test
+	public void testGivesUpAfterMaxAttempts() throws Exception {
+		throttledResponses = Integer.MAX_VALUE;
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(this::transport).build()) {
+			new SpotifyTemplate("client", "TOKEN", factory).albumOperations().getAlbum(ALBUM_ID);
+			Assert.fail();
+		} catch (RetryableException e) {
+			Assert.assertEquals(3, requests.get());
+		}
+	}
+
+	private Response transport(feign.Request request, feign.Request.Options options) {
+		requests.incrementAndGet();
+		Map<String, Collection<String>> headers = new HashMap<>();
+		if (throttledResponses > 0) {
+			throttledResponses--;
+			headers.put("Retry-After", Collections.singletonList("0"));
+			return Response.builder().status(429).reason("Too Many Requests").headers(headers).body(new byte[0])
+					.build();
+		}
+		return Response.builder().status(200).reason("OK").headers(headers).body(album).build();
+	}
+}
@@ -0,0 +1,223 @@
+package org.springframework.social.spotify.api.impl.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.social.spotify.api.Album;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class ResponseCacheTest {
+
+	private static final String ALBUMS = "https://api.spotify.com/v1/albums/";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private String cacheControl = "public, max-age=60";
+
+	@Test
+	public void testServesFreshResponses() throws Exception {
+		ResponseCache cache = ResponseCache.builder().build();
+		Client client = cache.client(this::transport);
+
+		String first = body(client.execute(request(ALBUMS + "a", "TOKEN1"), new Request.Options()));
+		String second = body(client.execute(request(ALBUMS + "a", "TOKEN2"), new Request.Options()));
+
+		Assert.assertEquals(first, second);
+		Assert.assertEquals(1, requests.get());
+		Assert.assertEquals(1, cache.getMemoryHits());
+		Assert.assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testUserEndpointsAreKeyedByToken() throws Exception {
+		ResponseCache cache = ResponseCache.builder().build();
+		Client client = cache.client(this::transport);
+
+		body(client.execute(request("https://api.spotify.com/v1/me/tracks", "TOKEN1"), new Request.Options()));
+		body(client.execute(request("https://api.spotify.com/v1/me/tracks", "TOKEN2"), new Request.Options()));
+		body(client.execute(request("https://api.spotify.com/v1/me/tracks", "TOKEN1"), new Request.Options()));
+		body(client.execute(request(ALBUMS + "a?market=from_token", "TOKEN1"), new Request.Options()));
+		body(client.execute(request(ALBUMS + "a?market=from_token", "TOKEN2"), new Request.Options()));
+
+		Assert.assertEquals(4, requests.get());
+		Assert.assertEquals(1, cache.getMemoryHits());
+	}
+
+	@Test
+	public void testHonorsCacheControl() throws Exception {
+		ResponseCache cache = ResponseCache.builder().build();
+		Client client = cache.client(this::transport);
+
+		for (String directive : new String[] { "no-cache, max-age=60", "max-age=0", "private, no-store" }) {
+			cacheControl = directive;
+			body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+			body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+		}
+
+		Assert.assertEquals(6, requests.get());
+		Assert.assertEquals(0, cache.getMemoryBytes());
+	}
+
+	@Test
+	public void testPrivateResponsesAreKeyedByToken() throws Exception {
+		ResponseCache cache = ResponseCache.builder().build();
+		Client client = cache.client(this::transport);
+		cacheControl = "private, max-age=60";
+
+		String first = body(client.execute(request(ALBUMS + "a", "TOKEN1"), new Request.Options()));
+		String other = body(client.execute(request(ALBUMS + "a", "TOKEN2"), new Request.Options()));
+		String cached = body(client.execute(request(ALBUMS + "a", "TOKEN1"), new Request.Options()));
+
+		Assert.assertNotEquals(first, other);
+		Assert.assertEquals(first, cached);
+		Assert.assertEquals(2, requests.get());
+		Assert.assertEquals(1, cache.getMemoryHits());
+		Assert.assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testMaxAgeAccountsForAge() {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("cache-control", Collections.singletonList("max-age=60"));
+		headers.put("Age", Collections.singletonList("45"));
+
+		Assert.assertEquals(15000, ResponseCache.maxAgeMillis(headers));
+	}
+
+	@Test
+	public void testSpillsToDiskAndPromotesBack() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		ResponseCache cache = ResponseCache.builder().memoryBytes(600).disk(directory, 1024 * 1024).build();
+		Client client = cache.client(this::transport);
+
+		String a = body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+		body(client.execute(request(ALBUMS + "b", "TOKEN"), new Request.Options()));
+
+		Assert.assertEquals(1, cache.getMemoryEvictions());
+		Assert.assertTrue(cache.getDiskBytes() > 0);
+		Assert.assertEquals(1, Files.list(directory).count());
+
+		Assert.assertEquals(a, body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options())));
+		Assert.assertEquals(1, cache.getDiskHits());
+		Assert.assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void testPromotionLeavesOneCopy() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		ResponseCache cache = ResponseCache.builder().memoryBytes(600).disk(directory, 1024 * 1024).build();
+		Client client = cache.client(this::transport);
+
+		body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+		body(client.execute(request(ALBUMS + "b", "TOKEN"), new Request.Options()));
+		long spilled = cache.getDiskBytes();
+
+		for (String id : new String[] { "a", "b", "a" }) {
+			body(client.execute(request(ALBUMS + id, "TOKEN"), new Request.Options()));
+			Assert.assertEquals(spilled, cache.getDiskBytes());
+			Assert.assertEquals(1, Files.list(directory).count());
+		}
+		Assert.assertEquals(3, cache.getDiskHits());
+		Assert.assertEquals(4, cache.getMemoryEvictions());
+		Assert.assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void testDiskBudgetEvicts() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		ResponseCache cache = ResponseCache.builder().memoryBytes(0).disk(directory, 1000).build();
+		Client client = cache.client(this::transport);
+
+		for (String id : new String[] { "a", "b", "c" }) {
+			body(client.execute(request(ALBUMS + id, "TOKEN"), new Request.Options()));
+		}
+
+		Assert.assertEquals(2, cache.getDiskEvictions());
+		Assert.assertEquals(1, Files.list(directory).count());
+		Assert.assertTrue(cache.getDiskBytes() <= 1000);
+	}
+
+	@Test
+	public void testCloseDeletesDiskFiles() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		Files.createFile(directory.resolve("write1.tmp"));
+		ResponseCache cache = ResponseCache.builder().memoryBytes(0).disk(directory, 1024 * 1024).build();
+		Client client = cache.client(this::transport);
+
+		body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+		Assert.assertEquals(1, Files.list(directory).count());
+
+		cache.close();
+		Assert.assertEquals(0, Files.list(directory).count());
+		Assert.assertEquals(0, cache.getDiskBytes());
+		body(client.execute(request(ALBUMS + "a", "TOKEN"), new Request.Options()));
+		Assert.assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void testFactoryServesCachedAlbum() throws Exception {
+		byte[] album = Files.readAllBytes(Paths.get(ResponseCacheTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/album.json").toURI()));
+		Client transport = (request, options) -> {
+			requests.incrementAndGet();
+			Map<String, Collection<String>> headers = new HashMap<>();
+			headers.put("Cache-Control", Collections.singletonList(cacheControl));
+			return Response.builder().status(200).reason("OK").headers(headers).body(album).build();
+		};
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(transport).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Album first = spotify.albumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+			Album second = spotify.albumOperations().getAlbum("0sNOF9WDwhWunNAHPD3Baj");
+
+			Assert.assertEquals(first, second);
+			Assert.assertEquals(1, requests.get());
+			Assert.assertEquals(1, factory.getResponseCache().getMemoryHits());
+		}
+	}
+
+	private Response transport(Request request, Request.Options options) {
+		requests.incrementAndGet();
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("Cache-Control", Collections.singletonList(cacheControl));
+		StringBuilder body = new StringBuilder("{\"url\":\"").append(request.url()).append("\",\"padding\":\"");
+		for (int i = 0; i < 300; i++) {
+			body.append('x');
+		}
+		body.append(requests.get()).append("\"}");
+		return Response.builder().status(200).reason("OK").headers(headers).body(body.toString(), Util.UTF_8)
+				.build();
+	}
+
+	private static Request request(String url, String token) {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("Authorization", Collections.singletonList("Bearer " + token));
+		return Request.create("GET", url, headers, null, Util.UTF_8);
+	}
+
+	private static String body(Response response) throws IOException {
+		try {
+			return Util.toString(response.body().asReader());
+		} finally {
+			response.close();
+		}
+	}
+}
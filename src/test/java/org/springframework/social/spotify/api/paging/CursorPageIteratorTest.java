@@ -0,0 +1,122 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.reactive.CursorPageFetcher;
+
+public class CursorPageIteratorTest {
+
+	private final List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+	private int total = 120;
+
+	@Test
+	public void testFollowsCursors() {
+		try (Stream<Integer> items = PageStreams.cursor(fetcher(), Cursor::getAfter)) {
+			Assert.assertEquals(range(0, 120), items.collect(Collectors.toList()));
+		}
+		Assert.assertEquals(Arrays.asList(null, "49", "99"), cursors);
+	}
+
+	@Test
+	public void testPrefetchesNextPage() {
+		CursorPageIterator<Integer> items = PageStreams.cursorIterator(fetcher(), Cursor::getAfter,
+				ResumeToken.START);
+		items.next();
+		Assert.assertEquals(2, cursors.size());
+		items.close();
+		Assert.assertFalse(items.hasNext());
+	}
+
+	@Test
+	public void testResumesWhereItStopped() throws Exception {
+		CursorPageIterator<Integer> first = PageStreams.cursorIterator(fetcher(), Cursor::getAfter,
+				ResumeToken.START);
+		List<Integer> read = new ArrayList<>();
+		for (int i = 0; i < 70; i++) {
+			read.add(first.next());
+		}
+		ResumeToken token = serialize(first.getResumeToken());
+		first.close();
+		Assert.assertEquals(token, ResumeToken.decode(token.encode()));
+		cursors.clear();
+
+		CursorPageIterator<Integer> second = PageStreams.cursorIterator(fetcher(), Cursor::getAfter, token);
+		second.forEachRemaining(read::add);
+
+		Assert.assertEquals(range(0, 120), read);
+		Assert.assertEquals("49", cursors.get(0));
+	}
+
+	@Test
+	public void testResumesFromEndWithNewItemsOnly() {
+		CursorPageIterator<Integer> first = PageStreams.cursorIterator(fetcher(), Cursor::getAfter,
+				ResumeToken.START);
+		first.forEachRemaining(item -> {
+		});
+		ResumeToken token = first.getResumeToken();
+
+		total = 130;
+		List<Integer> added = new ArrayList<>();
+		PageStreams.cursorIterator(fetcher(), Cursor::getAfter, token).forEachRemaining(added::add);
+
+		Assert.assertEquals(range(120, 130), added);
+	}
+
+	@Test
+	public void testRejectsInvalidToken() {
+		try {
+			ResumeToken.decode("cursor");
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Items are their own position; the cursor of a page is its last item.
+	 */
+	private CursorPageFetcher<Integer> fetcher() {
+		return (limit, after) -> {
+			cursors.add(after);
+			int from = after == null ? 0 : Integer.parseInt(after) + 1;
+			int to = Math.min(total, from + limit);
+			CursorPaging<Integer> page = new CursorPaging<>();
+			page.setItems(IntStream.range(from, to).boxed().toArray(Integer[]::new));
+			page.setTotal(total);
+			Cursor cursor = new Cursor();
+			cursor.setAfter(to > from ? String.valueOf(to - 1) : after);
+			page.setCursors(cursor);
+			page.setNext(to < total ? "next" : null);
+			return CompletableFuture.completedFuture(page);
+		};
+	}
+
+	private static List<Integer> range(int from, int to) {
+		return IntStream.range(from, to).boxed().collect(Collectors.toList());
+	}
+
+	private static ResumeToken serialize(ResumeToken token) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(token);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (ResumeToken) in.readObject();
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.reactive.OffsetPageFetcher;
+
+public class PageStreamsTest {
+
+	private final List<Integer> offsets = Collections.synchronizedList(new ArrayList<>());
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final List<CompletableFuture<Paging<Integer>>> requests = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testStreamsEveryItemInOrder() {
+		try (Stream<Integer> items = PageStreams.offset(fetcher(123))) {
+			Assert.assertEquals(IntStream.range(0, 123).boxed().collect(Collectors.toList()),
+					items.collect(Collectors.toList()));
+		}
+		Assert.assertEquals(3, offsets.size());
+		Assert.assertEquals(Integer.valueOf(100), offsets.get(2));
+	}
+
+	@Test
+	public void testShortPageDoesNotMoveOffsets() {
+		OffsetPageFetcher<Integer> fetcher = (limit, offset) -> {
+			offsets.add(offset);
+			Paging<Integer> page = page(123, offset);
+			if (offset == 50) {
+				// unavailable items dropped from the middle page
+				page.setItems(Arrays.copyOf(page.getItems(), 45));
+			}
+			return CompletableFuture.completedFuture(page);
+		};
+		try (Stream<Integer> items = PageStreams.offset(fetcher)) {
+			List<Integer> expected = IntStream.range(0, 123).filter(i -> i < 95 || i >= 100).boxed()
+					.collect(Collectors.toList());
+			Assert.assertEquals(expected, items.collect(Collectors.toList()));
+		}
+		Assert.assertEquals(Arrays.asList(0, 50, 100), offsets);
+	}
+
+	@Test
+	public void testPrefetchesNextPage() {
+		OffsetPageIterator<Integer> items = PageStreams.offsetIterator(pending(123));
+		Assert.assertTrue(offsets.isEmpty());
+
+		Assert.assertEquals(Integer.valueOf(0), items.next());
+		Assert.assertEquals(2, requests.size());
+		Assert.assertFalse(requests.get(1).isDone());
+		Assert.assertEquals(122, items.estimateRemaining());
+	}
+
+	@Test
+	public void testCloseCancelsPrefetch() {
+		OffsetPageFetcher<Integer> fetcher = pending(500);
+		try (Stream<Integer> items = PageStreams.offset(fetcher)) {
+			Assert.assertTrue(requests.isEmpty());
+			Assert.assertEquals(3, items.limit(3).count());
+		}
+		Assert.assertEquals(2, requests.size());
+		Assert.assertTrue(requests.get(1).isCancelled());
+	}
+
+	@Test
+	public void testEstimatesSizeAndSplitsByPage() {
+		OffsetPageIterator<Integer> pages = PageStreams.offsetIterator(fetcher(120));
+		PageSpliterator<Integer> spliterator = new PageSpliterator<>(pages);
+		Spliterator<Integer> first = spliterator.trySplit();
+
+		Assert.assertEquals(50, first.estimateSize());
+		Assert.assertEquals(70, spliterator.estimateSize());
+		Assert.assertEquals(120 * 119 / 2, PageStreams.offset(fetcher(120)).parallel()
+				.mapToInt(Integer::intValue).sum());
+	}
+
+	@Test
+	public void testKeepsNullItems() {
+		OffsetPageFetcher<Integer> fetcher = (limit, offset) -> {
+			Paging<Integer> page = page(120, offset);
+			page.getItems()[0] = null;
+			return CompletableFuture.completedFuture(page);
+		};
+		try (Stream<Integer> items = PageStreams.offset(fetcher)) {
+			Assert.assertFalse(items.spliterator().hasCharacteristics(Spliterator.NONNULL));
+		}
+		Assert.assertEquals(3, PageStreams.offset(fetcher).parallel().filter(item -> item == null).count());
+	}
+
+	@Test
+	public void testEmptyEndpoint() {
+		Assert.assertEquals(0, PageStreams.offset(fetcher(0)).count());
+		Assert.assertEquals(1, offsets.size());
+	}
+
+	@Test
+	public void testFetchAllInParallel() throws Exception {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		OffsetPageFetcher<Integer> fetcher = (limit, offset) -> {
+			offsets.add(offset);
+			return CompletableFuture.supplyAsync(() -> {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				return page(1234, offset);
+			}, executor);
+		};
+
+		List<Integer> items = PageStreams.fetchAll(fetcher, 4).get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(IntStream.range(0, 1234).boxed().collect(Collectors.toList()), items);
+		Assert.assertEquals(25, offsets.size());
+		Assert.assertTrue(maxActive.get() > 1 && maxActive.get() <= 4);
+	}
+
+	@Test
+	public void testFetchAllDetectsTotalChange() throws Exception {
+		OffsetPageFetcher<Integer> fetcher = (limit, offset) -> CompletableFuture
+				.completedFuture(page(offset < 100 ? 150 : 151, offset));
+		try {
+			PageStreams.fetchAll(fetcher, 2).get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof ConcurrentModificationException);
+		}
+	}
+
+	@Test
+	public void testFetchAllSinglePage() throws Exception {
+		Assert.assertEquals(Arrays.asList(0, 1, 2), PageStreams.fetchAll(fetcher(3), 4).get());
+		Assert.assertEquals(1, offsets.size());
+	}
+
+	private OffsetPageFetcher<Integer> fetcher(int total) {
+		return (limit, offset) -> {
+			offsets.add(offset);
+			return CompletableFuture.supplyAsync(() -> page(total, offset));
+		};
+	}
+
+	/**
+	 * Answers the first page right away and leaves the others in flight.
+	 */
+	private OffsetPageFetcher<Integer> pending(int total) {
+		return (limit, offset) -> {
+			offsets.add(offset);
+			CompletableFuture<Paging<Integer>> request = new CompletableFuture<>();
+			requests.add(request);
+			if (offset == 0) {
+				request.complete(page(total, offset));
+			}
+			return request;
+		};
+	}
+
+	private static Paging<Integer> page(int total, int offset) {
+		Paging<Integer> page = new Paging<>();
+		int end = Math.min(total, offset + PageStreams.MAX_PAGE_SIZE);
+		page.setItems(IntStream.range(offset, end).boxed().toArray(Integer[]::new));
+		page.setOffset(offset);
+		page.setLimit(PageStreams.MAX_PAGE_SIZE);
+		page.setTotal(total);
+		page.setNext(end < total ? "next" : null);
+		return page;
+	}
+}
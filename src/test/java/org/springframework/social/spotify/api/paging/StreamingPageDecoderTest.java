@@ -0,0 +1,103 @@
+package org.springframework.social.spotify.api.paging;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Artist;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.SavedTrack;
+import org.springframework.social.spotify.api.TrackSimplified;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import feign.Client;
+import feign.Response;
+
+public class StreamingPageDecoderTest {
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Test
+	public void testStreamsItemsAndKeepsPageFields() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(transport("savedTracks.json", null))
+				.build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Paging<SavedTrack> expected = spotify.libraryOperations().getSavedTracks();
+
+			List<SavedTrack> items = new ArrayList<>();
+			Paging<SavedTrack> page = StreamingPageDecoder.forEach(SavedTrack.class, items::add,
+					() -> spotify.libraryOperations().getSavedTracks());
+
+			Assert.assertNull(page.getItems());
+			Assert.assertEquals(Arrays.asList(expected.getItems()), items);
+			Assert.assertEquals(expected.getTotal(), page.getTotal());
+			Assert.assertEquals(expected.getNext(), page.getNext());
+			Assert.assertEquals(expected.getOffset(), page.getOffset());
+			Assert.assertEquals(expected.getLimit(), page.getLimit());
+			Assert.assertEquals(expected.getHref(), page.getHref());
+		}
+	}
+
+	@Test
+	public void testUnwrapsCursorPage() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder()
+				.client(transport("followingArtists.json", null)).build()) {
+			List<Artist> items = new ArrayList<>();
+			CursorPaging<Artist> page = StreamingPageDecoder.forEach(Artist.class, items::add,
+					() -> new SpotifyTemplate("client", "TOKEN", factory).followOperations().followingArtists());
+
+			Assert.assertFalse(items.isEmpty());
+			Assert.assertEquals("0I2XqVXqHScXjHhk6AYYRe", items.get(0).getId());
+			Assert.assertEquals(Integer.valueOf(183), page.getTotal());
+			Assert.assertEquals("0aV6DOiouImYTqrR5YlIqx", page.getCursors().getAfter());
+		}
+	}
+
+	@Test
+	public void testReplaysItemsOfNotModifiedPage() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder()
+				.client(transport("albumTracks.json", "\"v1\"")).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Paging<TrackSimplified> cached = spotify.albumOperations().getAlbumTracks("6akEvsycLGftJxYudPjmqK");
+
+			List<TrackSimplified> items = new ArrayList<>();
+			Paging<TrackSimplified> page = StreamingPageDecoder.forEach(TrackSimplified.class, items::add,
+					() -> spotify.albumOperations().getAlbumTracks("6akEvsycLGftJxYudPjmqK"));
+
+			Assert.assertEquals(2, requests.get());
+			Assert.assertEquals(1, factory.getETagCache().getHits());
+			Assert.assertEquals(Arrays.asList(cached.getItems()), items);
+			Assert.assertNull(page.getItems());
+			Assert.assertNotNull(cached.getItems());
+			Assert.assertEquals(cached.getTotal(), page.getTotal());
+			Assert.assertFalse(StreamingPageDecoder.isStreaming());
+		}
+	}
+
+	private Client transport(String resource, String etag) throws Exception {
+		byte[] body = Files.readAllBytes(Paths.get(StreamingPageDecoderTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/" + resource).toURI()));
+		return (request, options) -> {
+			requests.incrementAndGet();
+			Map<String, Collection<String>> headers = new HashMap<>();
+			if (etag != null) {
+				headers.put("ETag", Collections.singletonList(etag));
+				if (request.headers().containsKey("If-None-Match")) {
+					return Response.builder().status(304).reason("Not Modified").headers(headers).build();
+				}
+			}
+			return Response.builder().status(200).reason("OK").headers(headers).body(body).build();
+		};
+	}
+}
@@ -0,0 +1,141 @@
+package org.springframework.social.spotify.api.primitive;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.social.spotify.api.Paging;
+import org.springframework.social.spotify.api.SavedTrack;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Client;
+import feign.Response;
+
+public class PrimitiveModelsTest {
+
+	@Test
+	public void testDecodesSavedTracks() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(transport(null)).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			Paging<SavedTrack> expected = spotify.libraryOperations().getSavedTracks();
+			Paging<PrimitiveSavedTrack> page = PrimitiveModels.page(PrimitiveSavedTrack.class,
+					() -> spotify.libraryOperations().getSavedTracks());
+
+			Assert.assertEquals(expected.getItems().length, page.getItems().length);
+			Assert.assertEquals(expected.getTotal(), page.getTotal());
+			PrimitiveSavedTrack saved = page.getItems()[0];
+			Assert.assertEquals(Instant.parse("2016-10-24T15:03:07Z").toEpochMilli(), saved.getAddedAt());
+			PrimitiveTrack track = saved.getTrack();
+			Assert.assertEquals("2jpDioAB9tlYXMdXDK3BGl", track.getId());
+			Assert.assertEquals(137040, track.getDurationMs());
+			Assert.assertEquals(19, track.getPopularity());
+			Assert.assertEquals(expected.getItems()[0].getTrack().getAlbum(), track.getAlbum());
+		}
+	}
+
+	@Test
+	public void testConvertsNotModifiedPage() throws Exception {
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(transport("\"v1\"")).build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			spotify.libraryOperations().getSavedTracks();
+			Paging<PrimitiveSavedTrack> page = PrimitiveModels.page(PrimitiveSavedTrack.class,
+					() -> spotify.libraryOperations().getSavedTracks());
+
+			Assert.assertEquals(1, factory.getETagCache().getHits());
+			PrimitiveSavedTrack saved = page.getItems()[0];
+			Assert.assertEquals(Instant.parse("2016-10-24T15:03:07Z").toEpochMilli(), saved.getAddedAt());
+			Assert.assertEquals(137040, saved.getTrack().getDurationMs());
+		}
+	}
+
+	@Test
+	public void testMissingValues() throws Exception {
+		PrimitiveSavedTrack saved = new ObjectMapper().readValue("{\"addedAt\":null,\"track\":{}}",
+				PrimitiveSavedTrack.class);
+
+		Assert.assertEquals(PrimitiveModels.UNKNOWN_TIME, saved.getAddedAt());
+		Assert.assertEquals(PrimitiveModels.UNKNOWN, saved.getTrack().getDurationMs());
+		Assert.assertEquals(PrimitiveModels.UNKNOWN, saved.getTrack().getPopularity());
+	}
+
+	@Test
+	public void testNullValues() throws Exception {
+		PrimitiveTrack track = new ObjectMapper().readValue("{\"durationMs\":null,\"popularity\":null}",
+				PrimitiveTrack.class);
+
+		Assert.assertEquals(PrimitiveModels.UNKNOWN, track.getDurationMs());
+		Assert.assertEquals(PrimitiveModels.UNKNOWN, track.getPopularity());
+	}
+
+	@Test
+	public void testMissingValuesSurviveNotModified() throws Exception {
+		byte[] body = ("{\"items\":[{\"added_at\":\"2016-10-24T15:03:07Z\","
+				+ "\"track\":{\"id\":\"t\",\"duration_ms\":1000,\"popularity\":null}}],\"total\":1}")
+						.getBytes(StandardCharsets.UTF_8);
+		try (SpotifyClientFactory factory = SpotifyClientFactory.builder().client(transport("\"v1\"", body))
+				.build()) {
+			SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", factory);
+			spotify.libraryOperations().getSavedTracks();
+			Paging<PrimitiveSavedTrack> page = PrimitiveModels.page(PrimitiveSavedTrack.class,
+					() -> spotify.libraryOperations().getSavedTracks());
+
+			Assert.assertEquals(1, factory.getETagCache().getHits());
+			PrimitiveTrack track = page.getItems()[0].getTrack();
+			Assert.assertEquals(1000, track.getDurationMs());
+			Assert.assertEquals(PrimitiveModels.UNKNOWN, track.getPopularity());
+			Assert.assertEquals(PrimitiveModels.UNKNOWN, track.getTrackNumber());
+		}
+	}
+
+	@Test
+	public void testParsesTimestamps() throws Exception {
+		Assert.assertEquals(0L, parseUtc("1970-01-01T00:00:00Z"));
+		Assert.assertEquals(Instant.parse("2000-02-29T23:59:59.120Z").toEpochMilli(),
+				parseUtc("2000-02-29T23:59:59.12Z"));
+		Assert.assertEquals(Instant.parse("1969-12-31T12:00:00.001Z").toEpochMilli(),
+				parseUtc("1969-12-31T12:00:00.001999Z"));
+		Assert.assertEquals(PrimitiveModels.UNKNOWN_TIME, parseUtc("2016-10-24T15:03:07+02:00"));
+		Assert.assertEquals(PrimitiveModels.UNKNOWN_TIME, parseUtc("2016-13-24T15:03:07Z"));
+		Assert.assertEquals(PrimitiveModels.UNKNOWN_TIME, parseUtc("2016-10-24T15:03:07.Z"));
+		Assert.assertEquals(PrimitiveModels.UNKNOWN_TIME, parseUtc("2016-10-2xT15:03:07Z"));
+
+		PrimitiveSavedTrack saved = new ObjectMapper().readValue("{\"addedAt\":\"2016-10-24T17:03:07+02:00\"}",
+				PrimitiveSavedTrack.class);
+		Assert.assertEquals(OffsetDateTime.parse("2016-10-24T15:03:07Z").toInstant().toEpochMilli(),
+				saved.getAddedAt());
+	}
+
+	private static long parseUtc(String text) {
+		char[] chars = (" " + text + " ").toCharArray();
+		return EpochMillisDeserializer.parseUtc(chars, 1, text.length());
+	}
+
+	private static Client transport(String etag) throws Exception {
+		return transport(etag, Files.readAllBytes(Paths.get(PrimitiveModelsTest.class
+				.getResource("/org/springframework/social/spotify/api/operations/savedTracks.json").toURI())));
+	}
+
+	private static Client transport(String etag, byte[] body) {
+		return (request, options) -> {
+			Map<String, Collection<String>> headers = new HashMap<>();
+			if (etag != null) {
+				headers.put("ETag", Collections.singletonList(etag));
+				if (request.headers().containsKey("If-None-Match")) {
+					return Response.builder().status(304).reason("Not Modified").headers(headers).build();
+				}
+			}
+			return Response.builder().status(200).reason("OK").headers(headers).body(body).build();
+		};
+	}
+}
@@ -0,0 +1,228 @@
+package org.springframework.social.spotify.api.reactive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.social.spotify.api.Cursor;
+import org.springframework.social.spotify.api.CursorPaging;
+import org.springframework.social.spotify.api.Paging;
+
+public class PagePublisherTest {
+
+	private static final int TOTAL = 10000;
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	@Test
+	public void testFetchesPagesOnDemand() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.offset(50, this::library).subscribe(subscriber);
+
+		Assert.assertEquals(0, fetches.get());
+
+		subscriber.subscription.request(10);
+		Assert.assertEquals(10, subscriber.items.size());
+		Assert.assertEquals(1, fetches.get());
+
+		subscriber.subscription.request(40);
+		Assert.assertEquals(50, subscriber.items.size());
+		Assert.assertEquals(1, fetches.get());
+
+		subscriber.subscription.request(1);
+		Assert.assertEquals(51, subscriber.items.size());
+		Assert.assertEquals(2, fetches.get());
+		Assert.assertEquals(Integer.valueOf(50), subscriber.items.get(50));
+		Assert.assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void testCompletesAfterLastPage() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.offset(50, this::library).subscribe(subscriber);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		Assert.assertEquals(TOTAL, subscriber.items.size());
+		Assert.assertEquals(TOTAL / 50, fetches.get());
+		Assert.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testShortPageDoesNotMoveOffsets() {
+		List<Integer> offsets = new ArrayList<>();
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.<Integer> offset(50, (limit, offset) -> {
+			offsets.add(offset);
+			return library(limit, offset).thenApply(paging -> {
+				if (offset == 50) {
+					// unavailable items dropped from the middle page
+					paging.setItems(Arrays.copyOf(paging.getItems(), 45));
+				}
+				return paging;
+			});
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		Assert.assertEquals(TOTAL - 5, subscriber.items.size());
+		Assert.assertEquals(Integer.valueOf(100), subscriber.items.get(95));
+		Assert.assertEquals(Arrays.asList(0, 50, 100), offsets.subList(0, 3));
+		Assert.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testSkipsNullItems() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.<Integer> offset(50, (limit, offset) -> library(limit, offset).thenApply(paging -> {
+			if (offset == 0) {
+				paging.getItems()[1] = null;
+			}
+			return paging;
+		})).subscribe(subscriber);
+
+		subscriber.subscription.request(3);
+
+		Assert.assertEquals(Arrays.asList(0, 2, 3), subscriber.items);
+		Assert.assertNull(subscriber.error);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+		Assert.assertEquals(TOTAL - 1, subscriber.items.size());
+		Assert.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testCancelStopsFetching() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>() {
+			@Override
+			public void onNext(Integer item) {
+				super.onNext(item);
+				if (items.size() == 75) {
+					subscription.cancel();
+				}
+			}
+		};
+		PagePublisher.offset(50, this::library).subscribe(subscriber);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		Assert.assertEquals(75, subscriber.items.size());
+		Assert.assertEquals(2, fetches.get());
+		Assert.assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void testFetchesNextPageWhenPreviousCompletes() {
+		List<CompletableFuture<Paging<Integer>>> pending = new ArrayList<>();
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.<Integer> offset(50, (limit, offset) -> {
+			CompletableFuture<Paging<Integer>> page = new CompletableFuture<>();
+			pending.add(page);
+			return page;
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(100);
+		subscriber.subscription.request(100);
+		Assert.assertEquals(1, pending.size());
+
+		pending.get(0).complete(library(50, 0).join());
+		Assert.assertEquals(50, subscriber.items.size());
+		Assert.assertEquals(2, pending.size());
+	}
+
+	@Test
+	public void testPropagatesFetchError() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		IllegalStateException failure = new IllegalStateException();
+		PagePublisher.<Integer> offset(50, (limit, offset) -> {
+			CompletableFuture<Paging<Integer>> page = new CompletableFuture<>();
+			page.completeExceptionally(failure);
+			return page;
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		Assert.assertSame(failure, subscriber.error);
+	}
+
+	@Test
+	public void testRejectsNonPositiveRequest() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.offset(50, this::library).subscribe(subscriber);
+
+		subscriber.subscription.request(0);
+
+		Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+		Assert.assertEquals(0, fetches.get());
+	}
+
+	@Test
+	public void testFollowsCursor() {
+		List<String> cursors = new ArrayList<>();
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+		PagePublisher.<Integer> cursor(2, (limit, cursor) -> {
+			cursors.add(cursor);
+			int start = cursor == null ? 0 : Integer.parseInt(cursor);
+			CursorPaging<Integer> paging = new CursorPaging<>();
+			paging.setItems(new Integer[] { start, start + 1 });
+			paging.setCursors(new Cursor());
+			paging.getCursors().setBefore(String.valueOf(start + 2));
+			paging.setNext(start + 2 < 6 ? "next" : null);
+			return CompletableFuture.completedFuture(paging);
+		}, Cursor::getBefore).subscribe(subscriber);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		Assert.assertEquals(6, subscriber.items.size());
+		Assert.assertEquals(Arrays.asList(null, "2", "4"), cursors);
+		Assert.assertTrue(subscriber.completed);
+	}
+
+	private CompletableFuture<Paging<Integer>> library(int limit, int offset) {
+		fetches.incrementAndGet();
+		Integer[] items = new Integer[Math.min(limit, TOTAL - offset)];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = offset + i;
+		}
+		Paging<Integer> paging = new Paging<>();
+		paging.setItems(items);
+		paging.setLimit(limit);
+		paging.setOffset(offset);
+		paging.setTotal(TOTAL);
+		paging.setNext(offset + limit < TOTAL ? "next" : null);
+		return CompletableFuture.completedFuture(paging);
+	}
+
+	private static class RecordingSubscriber<T> implements Subscriber<T> {
+		final List<T> items = new ArrayList<>();
+		Subscription subscription;
+		boolean completed;
+		Throwable error;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+}
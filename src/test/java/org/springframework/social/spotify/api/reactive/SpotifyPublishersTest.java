@@ -0,0 +1,71 @@
+package org.springframework.social.spotify.api.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.social.spotify.api.PlayHistory;
+import org.springframework.social.spotify.api.impl.SpotifyClientFactory;
+import org.springframework.social.spotify.api.impl.SpotifyTemplate;
+import org.springframework.social.spotify.api.impl.http.AsyncClient;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+public class SpotifyPublishersTest {
+
+	@Test
+	public void testRecentPlayedFollowsBeforeCursor() throws Exception {
+		Client client = Mockito.mock(Client.class);
+		Mockito.when(client.execute(Mockito.any(Request.class), Mockito.any(Request.Options.class))).thenReturn(
+				response("{\"items\":[{\"played_at\":\"2017-05-01T10:00:00Z\"}],\"next\":\"next\","
+						+ "\"cursors\":{\"before\":\"1493632800000\"}}"),
+				response("{\"items\":[{\"played_at\":\"2017-04-30T10:00:00Z\"}],\"next\":null,"
+						+ "\"cursors\":{\"before\":\"1493546400000\"}}"));
+		SpotifyTemplate spotify = new SpotifyTemplate("client", "TOKEN", SpotifyClientFactory.builder().client(client)
+				.asyncClient(new AsyncClient.Default(client, Runnable::run)).decodeExecutor(Runnable::run).build());
+
+		List<PlayHistory> played = new ArrayList<>();
+		new SpotifyPublishers(spotify, 1).recentPlayed().subscribe(new Subscriber<PlayHistory>() {
+			@Override
+			public void onSubscribe(Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(PlayHistory item) {
+				played.add(item);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				Assert.fail(error.toString());
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		Assert.assertEquals(2, played.size());
+		ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+		Mockito.verify(client, Mockito.times(2)).execute(requests.capture(), Mockito.any(Request.Options.class));
+		Assert.assertEquals(SpotifyTemplate.BASE_URL + "/v1/me/player/recently-played?limit=1",
+				requests.getAllValues().get(0).url());
+		Assert.assertEquals(SpotifyTemplate.BASE_URL + "/v1/me/player/recently-played?limit=1&before=1493632800000",
+				requests.getAllValues().get(1).url());
+	}
+
+	private static Response response(String body) {
+		return Response.builder().status(200).reason("OK").headers(Collections.emptyMap())
+				.body(body.getBytes(Util.UTF_8)).build();
+	}
+}